@@ -0,0 +1,52 @@
+package engineering.everest.lhotse.api.config;
+
+import engineering.everest.lhotse.api.rest.consistency.EventPositionFilter;
+import engineering.everest.lhotse.api.rest.consistency.MinPositionFilter;
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConsistencyConfig {
+
+    private final ProjectionPositions projectionPositions;
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitMillis;
+
+    @Autowired
+    public ConsistencyConfig(ProjectionPositions projectionPositions,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.consistency.max-wait-millis:2000}") long maxWaitMillis) {
+        this.projectionPositions = projectionPositions;
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Bean
+    public FilterRegistrationBean<EventPositionFilter> eventPositionFilter() {
+        FilterRegistrationBean<EventPositionFilter> filterRegistrationBean
+                = new FilterRegistrationBean<>(new EventPositionFilter(projectionPositions));
+        filterRegistrationBean.addUrlPatterns("/api/*");
+        filterRegistrationBean.setName("eventPositionFilter");
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<MinPositionFilter> minPositionFilter() {
+        FilterRegistrationBean<MinPositionFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new MinPositionFilter(projectionPositions, meterRegistry, Duration.ofMillis(maxWaitMillis)));
+        filterRegistrationBean.addUrlPatterns("/api/*");
+        filterRegistrationBean.setName("minPositionFilter");
+        // Unauthenticated reads are rejected before they can wait, and the async dispatch that follows a wait is
+        // authenticated again by the security filters, which are registered for async dispatches too
+        filterRegistrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return filterRegistrationBean;
+    }
+}
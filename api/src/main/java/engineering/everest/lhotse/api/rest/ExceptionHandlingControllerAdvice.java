@@ -1,6 +1,7 @@
 package engineering.everest.lhotse.api.rest;
 
 import engineering.everest.lhotse.axon.common.exceptions.RemoteCommandExecutionException;
+import engineering.everest.lhotse.security.passwords.PasswordHashingUnavailableException;
 import org.axonframework.modelling.command.AggregateNotFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,6 +13,8 @@ import java.util.NoSuchElementException;
 
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 
 @ControllerAdvice
 public class ExceptionHandlingControllerAdvice {
@@ -47,4 +50,13 @@ public class ExceptionHandlingControllerAdvice {
         response.sendError(SC_BAD_REQUEST,
                 cause instanceof InterruptedException ? cause.getMessage() : cause.getCause().getMessage());
     }
+
+    @ExceptionHandler({PasswordHashingUnavailableException.class})
+    public void handlePasswordHashingUnavailable(PasswordHashingUnavailableException exception,
+                                                 HttpServletResponse response) throws IOException {
+        // Rounded up, so clients never retry before a queued hash could have completed
+        long retryAfterSeconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+        response.setHeader(RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(SC_SERVICE_UNAVAILABLE, exception.getMessage());
+    }
 }
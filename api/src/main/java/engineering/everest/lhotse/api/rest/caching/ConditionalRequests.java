@@ -0,0 +1,52 @@
+package engineering.everest.lhotse.api.rest.caching;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.Collection;
+import java.util.Objects;
+
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    public static boolean isNotModified(WebRequest webRequest, long version, Object... representedFields) {
+        // The version already identifies the representation, so there is no point hashing the serialized body.
+        // Replays rebuild projection rows from version 0 though, so the fields the body is built from are hashed
+        // too, keeping a representation from before a replay from matching a different one at the same version.
+        return isNotModified(webRequest, version + "-" + Integer.toHexString(fieldsHashCode(representedFields)));
+    }
+
+    public static boolean isNotModified(WebRequest webRequest, String etag) {
+        disableContentCaching();
+        return webRequest.checkNotModified(etag);
+    }
+
+    public static void disableContentCaching() {
+        ShallowEtagHeaderFilter.disableContentCaching(
+                ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest());
+    }
+
+    private static int fieldsHashCode(Object... fields) {
+        int hashCode = 1;
+        for (Object field : fields) {
+            hashCode = 31 * hashCode + stableHashCode(field);
+        }
+        return hashCode;
+    }
+
+    // Enum constants hash by identity, so they are hashed by name for every node to tag a representation alike
+    private static int stableHashCode(Object field) {
+        if (field instanceof Enum) {
+            return ((Enum<?>) field).name().hashCode();
+        }
+        if (field instanceof Collection) {
+            // Order independent, as Set.hashCode is
+            return ((Collection<?>) field).stream().mapToInt(ConditionalRequests::stableHashCode).sum();
+        }
+        return Objects.hashCode(field);
+    }
+}
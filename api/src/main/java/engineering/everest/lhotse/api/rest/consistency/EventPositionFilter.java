@@ -0,0 +1,47 @@
+package engineering.everest.lhotse.api.rest.consistency;
+
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+public class EventPositionFilter extends OncePerRequestFilter {
+
+    public static final String EVENT_POSITION_HEADER = "Event-Position";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ProjectionPositions projectionPositions;
+
+    public EventPositionFilter(ProjectionPositions projectionPositions) {
+        super();
+        this.projectionPositions = projectionPositions;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !MUTATING_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // The body is held back so the header can still be added once the command has been handled
+        var responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() >= 200 && responseWrapper.getStatus() < 300) {
+                // Commands complete before the controller returns, so the head covers every event they applied
+                responseWrapper.setHeader(EVENT_POSITION_HEADER, String.valueOf(projectionPositions.headPosition()));
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package engineering.everest.lhotse.api.rest.consistency;
+
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@Log4j2
+public class MinPositionFilter extends OncePerRequestFilter {
+
+    public static final String MIN_POSITION_HEADER = "Min-Position";
+
+    private static final Duration ASYNC_TIMEOUT_MARGIN = Duration.ofSeconds(1);
+
+    private final ProjectionPositions projectionPositions;
+    private final Duration maxWait;
+    private final Timer reachedTimer;
+    private final Timer timedOutTimer;
+
+    public MinPositionFilter(ProjectionPositions projectionPositions, MeterRegistry meterRegistry, Duration maxWait) {
+        super();
+        this.projectionPositions = projectionPositions;
+        this.maxWait = maxWait;
+        this.reachedTimer = waitTimer(meterRegistry, "reached");
+        this.timedOutTimer = waitTimer(meterRegistry, "timed-out");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(MIN_POSITION_HEADER) == null || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long position;
+        try {
+            position = Long.parseLong(request.getHeader(MIN_POSITION_HEADER));
+        } catch (NumberFormatException e) {
+            response.sendError(SC_BAD_REQUEST, MIN_POSITION_HEADER + " must be an event position");
+            return;
+        }
+        long start = System.nanoTime();
+        var processed = projectionPositions.whenProcessed(position, maxWait);
+        if (processed.isDone()) {
+            if (recordWait(!processed.isCompletedExceptionally() && processed.join(), start, response)) {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+        // Releases the request thread while projections catch up, then dispatches the request again to be handled as usual
+        // without this filter, which like any OncePerRequestFilter skips async dispatches
+        var asyncContext = request.startAsync();
+        asyncContext.setTimeout(maxWait.plus(ASYNC_TIMEOUT_MARGIN).toMillis());
+        processed.whenComplete((reached, failure) -> {
+            if (failure != null) {
+                LOGGER.warn("Failed waiting for projections to reach position {}", position, failure);
+            }
+            if (recordWait(failure == null && reached, start, response)) {
+                asyncContext.dispatch();
+            } else {
+                asyncContext.complete();
+            }
+        });
+    }
+
+    private boolean recordWait(boolean reached, long start, HttpServletResponse response) {
+        (reached ? reachedTimer : timedOutTimer).record(Duration.ofNanos(System.nanoTime() - start));
+        if (!reached) {
+            response.setStatus(SERVICE_UNAVAILABLE.value());
+            response.setHeader(RETRY_AFTER, "1");
+        }
+        return reached;
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("api.consistency.waits")
+                .description("Time reads waited for projections to reach the requested " + MIN_POSITION_HEADER)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package engineering.everest.lhotse.api.rest.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.lhotse.api.rest.annotations.AdminOnly;
 import engineering.everest.lhotse.api.rest.annotations.AdminOrAdminOfTargetOrganization;
 import engineering.everest.lhotse.api.rest.annotations.AdminOrUserOfTargetOrganization;
@@ -9,6 +10,7 @@ import engineering.everest.lhotse.api.rest.requests.NewUserRequest;
 import engineering.everest.lhotse.api.rest.requests.UpdateOrganizationRequest;
 import engineering.everest.lhotse.api.rest.responses.OrganizationResponse;
 import engineering.everest.lhotse.api.rest.responses.UserResponse;
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
 import engineering.everest.lhotse.axon.common.domain.User;
 import engineering.everest.lhotse.users.services.UsersReadService;
 import engineering.everest.lhotse.users.services.UsersService;
@@ -17,24 +19,42 @@ import io.swagger.annotations.ApiOperation;
 import engineering.everest.lhotse.organizations.services.OrganizationsReadService;
 import engineering.everest.lhotse.organizations.services.OrganizationsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.isNotModified;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.AFTER_PARAMETER;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.LIMIT_PARAMETER;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.isPageRequested;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.pageResponse;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.pageSize;
+import static engineering.everest.lhotse.api.rest.streaming.ChangeEvents.LAST_EVENT_ID_HEADER;
+import static engineering.everest.lhotse.api.rest.streaming.ChangeEvents.changeEvents;
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.APPLICATION_NDJSON_VALUE;
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.ndjsonResponse;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 @RestController
 @RequestMapping("/api/organizations")
@@ -46,28 +66,58 @@ public class OrganizationsController {
     private final OrganizationsReadService organizationsReadService;
     private final UsersService usersService;
     private final UsersReadService usersReadService;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
 
     @Autowired
     public OrganizationsController(DtoConverter dtoConverter,
                                    OrganizationsService organizationsService,
                                    OrganizationsReadService organizationsReadService,
                                    UsersService usersService,
-                                   UsersReadService usersReadService) {
+                                   UsersReadService usersReadService,
+                                   ObjectMapper objectMapper,
+                                   ChangeFeed changeFeed) {
         this.dtoConverter = dtoConverter;
         this.organizationsService = organizationsService;
         this.organizationsReadService = organizationsReadService;
         this.usersService = usersService;
         this.usersReadService = usersReadService;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping
     @ResponseStatus(OK)
-    @ApiOperation(produces = APPLICATION_JSON_VALUE, value = "Retrieves details of all organizations")
+    @ApiOperation(produces = APPLICATION_JSON_VALUE,
+            value = "Retrieves details of all organizations, or one page of them when 'after' or 'limit' is given")
     @AdminOnly
-    public List<OrganizationResponse> getAllOrganizations() {
-        return organizationsReadService.getOrganizations().stream()
+    public ResponseEntity<List<OrganizationResponse>> getAllOrganizations(
+            @RequestParam(name = AFTER_PARAMETER, required = false) UUID afterOrganizationId,
+            @RequestParam(name = LIMIT_PARAMETER, required = false) Integer limit) {
+        if (!isPageRequested(afterOrganizationId, limit)) {
+            return ResponseEntity.ok(organizationsReadService.getOrganizations().stream()
+                    .map(dtoConverter::convert)
+                    .collect(toList()));
+        }
+        int pageSize = pageSize(limit);
+        var organizations = organizationsReadService.getOrganizations(afterOrganizationId, pageSize).stream()
                 .map(dtoConverter::convert)
                 .collect(toList());
+        return pageResponse(organizations, OrganizationResponse::getId, pageSize);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(produces = APPLICATION_NDJSON_VALUE, value = "Streams details of all organizations, one organization per line")
+    @AdminOnly
+    public ResponseEntity<StreamingResponseBody> streamAllOrganizations() {
+        return ndjsonResponse(objectMapper, organizationsReadService::forEachOrganization, dtoConverter::convert);
+    }
+
+    @GetMapping(value = "/changes", produces = TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation(produces = TEXT_EVENT_STREAM_VALUE, value = "Streams change notifications for all organizations and their users")
+    @AdminOnly
+    public SseEmitter streamAllChanges(@RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return changeEvents(changeFeed, lastEventId, change -> true);
     }
 
     @PostMapping
@@ -83,11 +133,24 @@ public class OrganizationsController {
 
     @SuppressWarnings("PMD.AvoidDuplicateLiterals")
     @GetMapping("/{organizationId}")
-    @ResponseStatus(OK)
     @ApiOperation("Get information for an organization")
     @AdminOrUserOfTargetOrganization
-    public OrganizationResponse getOrganization(User requestingUser, @PathVariable UUID organizationId) {
-        return dtoConverter.convert(organizationsReadService.getById(organizationId));
+    public OrganizationResponse getOrganization(User requestingUser, @PathVariable UUID organizationId, WebRequest webRequest) {
+        var organization = organizationsReadService.getById(organizationId);
+        if (isNotModified(webRequest, organization.getVersion(), organization.getOrganizationName(),
+                organization.getOrganizationAddress(), organization.getWebsiteUrl(), organization.getContactName(),
+                organization.getPhoneNumber(), organization.getEmailAddress(), organization.isDeregistered())) {
+            return null;
+        }
+        return dtoConverter.convert(organization);
+    }
+
+    @GetMapping(value = "/{organizationId}/changes", produces = TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation(produces = TEXT_EVENT_STREAM_VALUE, value = "Streams change notifications for an organization and its users")
+    @AdminOrUserOfTargetOrganization
+    public SseEmitter streamOrganizationChanges(User requestingUser, @PathVariable UUID organizationId,
+                                                @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return changeEvents(changeFeed, lastEventId, change -> organizationId.equals(change.getOrganizationId()));
     }
 
     @PutMapping("/{organizationId}")
@@ -119,12 +182,31 @@ public class OrganizationsController {
     }
 
     @GetMapping("/{organizationId}/users")
-    @ApiOperation(produces = APPLICATION_JSON_VALUE, value = "Retrieve a list of users for an organization")
+    @ApiOperation(produces = APPLICATION_JSON_VALUE,
+            value = "Retrieve a list of users for an organization, or one page of it when 'after' or 'limit' is given")
     @AdminOrUserOfTargetOrganization
-    public List<UserResponse> listOrganizationUsers(User requestingUser, @PathVariable UUID organizationId) {
-        return usersReadService.getUsersForOrganization(organizationId).stream()
+    public ResponseEntity<List<UserResponse>> listOrganizationUsers(
+            User requestingUser, @PathVariable UUID organizationId,
+            @RequestParam(name = AFTER_PARAMETER, required = false) UUID afterUserId,
+            @RequestParam(name = LIMIT_PARAMETER, required = false) Integer limit) {
+        if (!isPageRequested(afterUserId, limit)) {
+            return ResponseEntity.ok(usersReadService.getUsersForOrganization(organizationId).stream()
+                    .map(dtoConverter::convert)
+                    .collect(toList()));
+        }
+        int pageSize = pageSize(limit);
+        var users = usersReadService.getUsersForOrganization(organizationId, afterUserId, pageSize).stream()
                 .map(dtoConverter::convert)
                 .collect(toList());
+        return pageResponse(users, UserResponse::getId, pageSize);
+    }
+
+    @GetMapping(value = "/{organizationId}/users", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(produces = APPLICATION_NDJSON_VALUE, value = "Streams the users for an organization, one user per line")
+    @AdminOrUserOfTargetOrganization
+    public ResponseEntity<StreamingResponseBody> streamOrganizationUsers(User requestingUser, @PathVariable UUID organizationId) {
+        return ndjsonResponse(objectMapper,
+                (Consumer<User> action) -> usersReadService.forEachUserInOrganization(organizationId, action), dtoConverter::convert);
     }
 
     @PostMapping("/{organizationId}/users")
@@ -10,40 +10,60 @@ import engineering.everest.lhotse.api.rest.converters.DtoConverter;
 import engineering.everest.lhotse.api.rest.requests.UpdateUserRequest;
 import engineering.everest.lhotse.api.rest.responses.UserResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.disableContentCaching;
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.isNotModified;
+import static engineering.everest.lhotse.api.rest.streaming.ByteRangeStreaming.byteRangeResponse;
+import static engineering.everest.lhotse.api.rest.streaming.ImageUploads.imageUpload;
+import static java.util.concurrent.TimeUnit.DAYS;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
+import static org.springframework.http.MediaType.IMAGE_GIF_VALUE;
+import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
+import static org.springframework.http.MediaType.IMAGE_PNG_VALUE;
 
 @RestController
 @RequestMapping("/api/user")
 @Api(consumes = APPLICATION_JSON_VALUE, tags = "Users")
 public class UserController {
 
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, DAYS).cachePrivate();
+
     private final DtoConverter dtoConverter;
     private final UsersService usersService;
     private final FileService fileService;
     private final UsersReadService usersReadService;
+    private final long maxProfilePhotoUploadBytes;
 
     @Autowired
     public UserController(DtoConverter dtoConverter, UsersService usersService, FileService fileService,
-                          UsersReadService usersReadService) {
+                          UsersReadService usersReadService,
+                          @Value("${application.users.profile-photo.max-upload-bytes:5242880}") long maxProfilePhotoUploadBytes) {
         this.dtoConverter = dtoConverter;
         this.usersService = usersService;
         this.fileService = fileService;
         this.usersReadService = usersReadService;
+        this.maxProfilePhotoUploadBytes = maxProfilePhotoUploadBytes;
     }
 
     @GetMapping
@@ -67,16 +87,34 @@ public class UserController {
         usersService.storeProfilePhoto(requestingUser.getId(), persistedFileId);
     }
 
+    @PutMapping(value = "/profile-photo", consumes = {IMAGE_JPEG_VALUE, IMAGE_PNG_VALUE, IMAGE_GIF_VALUE})
+    @ApiOperation("Upload a profile photo sent as the raw request body, streaming it straight to the permanent store")
+    public void streamProfilePhotoUpload(User requestingUser,
+                                         @RequestParam(defaultValue = "profile-photo") String filename,
+                                         HttpServletRequest request) throws IOException {
+        var upload = imageUpload(request.getInputStream(), request.getContentType(), request.getContentLengthLong(),
+                maxProfilePhotoUploadBytes);
+        var persistedFileId = fileService.transferToPermanentStore(filename, request.getContentLengthLong(), upload);
+        usersService.storeProfilePhoto(requestingUser.getId(), persistedFileId);
+    }
+
     @GetMapping("/profile-photo")
-    public ResponseEntity<StreamingResponseBody> streamProfilePhoto(User requestingUser) {
-        StreamingResponseBody streamingResponse = outputStream -> {
-            try (var inputStream = usersReadService.getProfilePhotoStream(requestingUser.getId())) {
-                inputStream.transferTo(outputStream);
-            }
-        };
-        return ResponseEntity.ok()
-                .contentType(APPLICATION_OCTET_STREAM)
-                .body(streamingResponse);
+    @ApiOperation(produces = APPLICATION_OCTET_STREAM_VALUE, value = "Streams the current profile photo, supporting byte ranges")
+    public ResponseEntity<StreamingResponseBody> streamProfilePhoto(User requestingUser, WebRequest webRequest) throws IOException {
+        // The URL outlives any one photo, so clients revalidate against the photo's file id on every use
+        return streamProfilePhoto(usersReadService.getProfilePhotoFileId(requestingUser.getId()), webRequest,
+                CacheControl.noCache().cachePrivate());
+    }
+
+    @GetMapping("/profile-photo/{profilePhotoFileId}")
+    @ApiOperation(produces = APPLICATION_OCTET_STREAM_VALUE, value = "Streams a specific profile photo, which never changes once uploaded")
+    public ResponseEntity<StreamingResponseBody> streamProfilePhotoVersion(User requestingUser,
+                                                                           @PathVariable UUID profilePhotoFileId,
+                                                                           WebRequest webRequest) throws IOException {
+        if (!profilePhotoFileId.equals(usersReadService.getProfilePhotoFileId(requestingUser.getId()))) {
+            throw new NoSuchElementException("Profile photo not present");
+        }
+        return streamProfilePhoto(profilePhotoFileId, webRequest, IMMUTABLE);
     }
 
     @GetMapping(
@@ -85,6 +123,7 @@ public class UserController {
     public ResponseEntity<StreamingResponseBody> streamProfilePhotoThumbnail(User requestingUser,
                                                                              @RequestParam int width,
                                                                              @RequestParam int height) {
+        disableContentCaching();
         StreamingResponseBody streamingResponse = outputStream -> {
             try (var inputStream = usersReadService.getProfilePhotoThumbnailStream(requestingUser.getId(), width, height)) {
                 inputStream.transferTo(outputStream);
@@ -94,4 +133,14 @@ public class UserController {
                 .contentType(APPLICATION_OCTET_STREAM)
                 .body(streamingResponse);
     }
+
+    private ResponseEntity<StreamingResponseBody> streamProfilePhoto(UUID profilePhotoFileId, WebRequest webRequest,
+                                                                     CacheControl cacheControl) throws IOException {
+        if (isNotModified(webRequest, profilePhotoFileId.toString())) {
+            return null;
+        }
+        var profilePhoto = usersReadService.openProfilePhoto(profilePhotoFileId);
+        return byteRangeResponse(webRequest, profilePhotoFileId.toString(), cacheControl,
+                profilePhoto.getInputStream(), profilePhoto.getLength());
+    }
 }
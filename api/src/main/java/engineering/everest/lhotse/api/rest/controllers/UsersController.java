@@ -1,5 +1,6 @@
 package engineering.everest.lhotse.api.rest.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.lhotse.axon.common.domain.User;
 import engineering.everest.lhotse.users.services.UsersReadService;
 import engineering.everest.lhotse.users.services.UsersService;
@@ -10,19 +11,30 @@ import engineering.everest.lhotse.api.rest.converters.DtoConverter;
 import engineering.everest.lhotse.api.rest.requests.UpdateUserRequest;
 import engineering.everest.lhotse.api.rest.responses.UserResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
 import javax.validation.Valid;
 
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.isNotModified;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.AFTER_PARAMETER;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.LIMIT_PARAMETER;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.isPageRequested;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.pageResponse;
+import static engineering.everest.lhotse.api.rest.pagination.KeysetPagination.pageSize;
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.APPLICATION_NDJSON_VALUE;
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.ndjsonResponse;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -34,30 +46,54 @@ public class UsersController {
     private final DtoConverter dtoConverter;
     private final UsersService usersService;
     private final UsersReadService usersReadService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public UsersController(DtoConverter dtoConverter,
                            UsersService usersService,
-                           UsersReadService usersReadService) {
+                           UsersReadService usersReadService,
+                           ObjectMapper objectMapper) {
         this.dtoConverter = dtoConverter;
         this.usersService = usersService;
         this.usersReadService = usersReadService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    @ApiOperation(produces = APPLICATION_JSON_VALUE, value = "Retrieves entire user list for all organisations")
+    @ApiOperation(produces = APPLICATION_JSON_VALUE,
+            value = "Retrieves the user list for all organisations, or one page of it when 'after' or 'limit' is given")
     @AdminOnly
-    public List<UserResponse> getAllUsers() {
-        return usersReadService.getUsers().stream()
+    public ResponseEntity<List<UserResponse>> getAllUsers(@RequestParam(name = AFTER_PARAMETER, required = false) UUID afterUserId,
+                                                          @RequestParam(name = LIMIT_PARAMETER, required = false) Integer limit) {
+        if (!isPageRequested(afterUserId, limit)) {
+            return ResponseEntity.ok(usersReadService.getUsers().stream()
+                    .map(dtoConverter::convert)
+                    .collect(toList()));
+        }
+        int pageSize = pageSize(limit);
+        var users = usersReadService.getUsers(afterUserId, pageSize).stream()
                 .map(dtoConverter::convert)
                 .collect(toList());
+        return pageResponse(users, UserResponse::getId, pageSize);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(produces = APPLICATION_NDJSON_VALUE, value = "Streams the user list for all organisations, one user per line")
+    @AdminOnly
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ndjsonResponse(objectMapper, usersReadService::forEachUser, dtoConverter::convert);
     }
 
     @GetMapping("/{userId}")
     @ApiOperation(produces = APPLICATION_JSON_VALUE, value = "Retrieves user details")
-    @PostAuthorize("hasRole('ADMIN') or returnObject.organizationId == #requestingUser.organizationId")
-    public UserResponse getUser(User requestingUser, @PathVariable UUID userId) {
-        return dtoConverter.convert(usersReadService.getById(userId));
+    @PreAuthorize("hasRole('ADMIN') or hasPermission(#userId, 'User', 'read')")
+    public UserResponse getUser(User requestingUser, @PathVariable UUID userId, WebRequest webRequest) {
+        var user = usersReadService.getById(userId);
+        if (isNotModified(webRequest, user.getVersion(), user.getOrganizationId(), user.getUsername(), user.getDisplayName(),
+                user.getEmail(), user.isDisabled(), user.getRoles())) {
+            return null;
+        }
+        return dtoConverter.convert(user);
     }
 
     @PutMapping("/{userId}")
@@ -0,0 +1,49 @@
+package engineering.everest.lhotse.api.rest.pagination;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.springframework.http.HttpHeaders.LINK;
+
+public final class KeysetPagination {
+
+    public static final String AFTER_PARAMETER = "after";
+    public static final String LIMIT_PARAMETER = "limit";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private KeysetPagination() {
+    }
+
+    // Listings requested without either parameter are answered in full, as they were before pagination, so that
+    // existing clients keep receiving every element
+    public static boolean isPageRequested(UUID after, Integer requestedPageSize) {
+        return after != null || requestedPageSize != null;
+    }
+
+    public static int pageSize(Integer requestedPageSize) {
+        if (requestedPageSize == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requestedPageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requestedPageSize, MAX_PAGE_SIZE);
+    }
+
+    public static <T> ResponseEntity<List<T>> pageResponse(List<T> page, Function<T, UUID> idExtractor, int pageSize) {
+        var response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            var nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam(AFTER_PARAMETER, idExtractor.apply(page.get(page.size() - 1)))
+                    .replaceQueryParam(LIMIT_PARAMETER, pageSize)
+                    .toUriString();
+            response.header(LINK, String.format("<%s>; rel=\"next\"", nextPage));
+        }
+        return response.body(page);
+    }
+}
@@ -1,27 +1,39 @@
 package engineering.everest.lhotse.api.rest.security;
 
 import engineering.everest.lhotse.axon.common.domain.Identifiable;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.axon.common.services.ReadService;
 import engineering.everest.lhotse.axon.common.services.ReadServiceProvider;
 import engineering.everest.lhotse.security.AuthenticationContextProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class EntityPermissionEvaluator implements PermissionEvaluator {
 
     private final AuthenticationContextProvider authenticationContextProvider;
     private final ReadServiceProvider readServiceProvider;
+    private final PermissionViewCache permissionViewCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> permissionCheckTimers = new ConcurrentHashMap<>();
 
     public EntityPermissionEvaluator(AuthenticationContextProvider authenticationContextProvider,
-                                     ReadServiceProvider readServiceProvider) {
+                                     ReadServiceProvider readServiceProvider,
+                                     PermissionViewCache permissionViewCache,
+                                     MeterRegistry meterRegistry) {
         this.authenticationContextProvider = authenticationContextProvider;
         this.readServiceProvider = readServiceProvider;
+        this.permissionViewCache = permissionViewCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -31,23 +43,35 @@ public class EntityPermissionEvaluator implements PermissionEvaluator {
 
     @Override
     public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return permissionCheckTimers.computeIfAbsent(targetType, this::permissionCheckTimer)
+                .record(() -> hasPermission((UUID) targetId, targetType, (String) permission));
+    }
+
+    private Timer permissionCheckTimer(String targetType) {
+        return Timer.builder("security.permission.checks")
+                .description("Time taken to decide entity permission checks")
+                .tag("type", targetType)
+                .register(meterRegistry);
+    }
+
+    private boolean hasPermission(UUID targetId, String targetType, String permission) {
         ReadService<? extends Identifiable> service = readServiceProvider.getService(targetType);
         if (service == null) {
             throw new RuntimeException(String.format("Cannot find ReadService for: %s", targetType));
         }
 
-        var identifiable = service.getById((UUID) targetId);
+        var permissionView = permissionViewCache.get(targetType, targetId, () -> service.getPermissionView(targetId));
         var user = authenticationContextProvider.getUser();
 
-        switch (((String) permission).toLowerCase(Locale.getDefault())) {
+        switch (permission.toLowerCase(Locale.getDefault())) {
             case "read":
-                return identifiable.canRead(user);
+                return permissionView.canRead(user);
             case "create":
-                return identifiable.canCreate(user);
+                return permissionView.canCreate(user);
             case "update":
-                return identifiable.canUpdate(user);
+                return permissionView.canUpdate(user);
             case "delete":
-                return identifiable.canDelete(user);
+                return permissionView.canDelete(user);
             default:
                 throw new IllegalArgumentException(String.format("Unknown permission: %s", permission));
         }
@@ -0,0 +1,118 @@
+package engineering.everest.lhotse.api.rest.streaming;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.disableContentCaching;
+import static org.springframework.http.HttpHeaders.ACCEPT_RANGES;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
+import static org.springframework.http.HttpHeaders.IF_RANGE;
+import static org.springframework.http.HttpHeaders.RANGE;
+import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
+import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
+
+public final class ByteRangeStreaming {
+
+    private static final String BYTES = "bytes";
+    private static final int BUFFER_SIZE = 8192;
+
+    private ByteRangeStreaming() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> byteRangeResponse(WebRequest webRequest, String etag,
+                                                                          CacheControl cacheControl,
+                                                                          InputStream inputStream, long length) throws IOException {
+        disableContentCaching();
+        // The ETag header itself is set by the caller's conditional request check, so it is only matched against If-Range here
+        var quotedEtag = '"' + etag + '"';
+        var range = requestedRange(webRequest, quotedEtag);
+        if (range == null) {
+            return ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .header(ACCEPT_RANGES, BYTES)
+                    .contentType(APPLICATION_OCTET_STREAM)
+                    .contentLength(length)
+                    .body(outputStream -> copy(inputStream, outputStream, 0, length));
+        }
+
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            inputStream.close();
+            return ResponseEntity.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(CONTENT_RANGE, BYTES + " */" + length)
+                    .build();
+        }
+        long count = end - start + 1;
+        return ResponseEntity.status(PARTIAL_CONTENT)
+                .cacheControl(cacheControl)
+                .header(ACCEPT_RANGES, BYTES)
+                .header(CONTENT_RANGE, String.format("%s %d-%d/%d", BYTES, start, end, length))
+                .contentType(APPLICATION_OCTET_STREAM)
+                .contentLength(count)
+                .body(outputStream -> copy(inputStream, outputStream, start, count));
+    }
+
+    private static HttpRange requestedRange(WebRequest webRequest, String quotedEtag) {
+        var rangeHeader = webRequest.getHeader(RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        var ifRange = webRequest.getHeader(IF_RANGE);
+        if (ifRange != null && !ifRange.equals(quotedEtag)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // A Range header that cannot be parsed is ignored rather than rejected
+            return null;
+        }
+        // Multipart byteranges buy little for images, so multiple ranges are answered with the whole file
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private static void copy(InputStream inputStream, OutputStream outputStream, long start, long count) throws IOException {
+        try (inputStream) {
+            skipFully(inputStream, start);
+            var buffer = new byte[BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("File ended before the requested range was written");
+                }
+                outputStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    private static void skipFully(InputStream inputStream, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = inputStream.skip(remaining);
+            if (skipped <= 0) {
+                if (inputStream.read() < 0) {
+                    throw new EOFException("File ended before the start of the requested range");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package engineering.everest.lhotse.api.rest.streaming;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.changes.ChangeListener;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.disableContentCaching;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+public final class ChangeEvents {
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    public static final String RESET_EVENT_NAME = "reset";
+
+    // Clients reconnect with Last-Event-ID once this elapses, which also sheds connections of vanished clients
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(15).toMillis();
+
+    private ChangeEvents() {
+    }
+
+    public static SseEmitter changeEvents(ChangeFeed changeFeed, Long lastEventId, Predicate<ChangeNotification> filter) {
+        disableContentCaching();
+
+        var emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        var subscription = changeFeed.subscribe(lastEventId, filter, new ChangeListener() {
+            @Override
+            public void onChange(ChangeNotification change) {
+                send(emitter, change);
+            }
+
+            @Override
+            public void onReset() {
+                // Changes since the client's last event are no longer retained, so it has to re-read current state
+                sendReset(emitter);
+            }
+
+            @Override
+            public void onDropped() {
+                // The client reconnects with its last event id and is caught up from there, or reset
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(throwable -> subscription.cancel());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, ChangeNotification change) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.getSequence()))
+                    .name(change.getEntityType().name().toLowerCase(Locale.ROOT))
+                    .data(change, APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sendReset(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().name(RESET_EVENT_NAME).data(RESET_EVENT_NAME));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
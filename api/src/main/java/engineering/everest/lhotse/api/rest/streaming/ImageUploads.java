@@ -0,0 +1,98 @@
+package engineering.everest.lhotse.api.rest.streaming;
+
+import org.springframework.http.MediaType;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.http.MediaType.IMAGE_GIF;
+import static org.springframework.http.MediaType.IMAGE_JPEG;
+import static org.springframework.http.MediaType.IMAGE_PNG;
+
+public final class ImageUploads {
+
+    private static final Map<MediaType, List<byte[]>> SIGNATURES = Map.of(
+            IMAGE_JPEG, List.of(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+            IMAGE_PNG, List.of(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+            IMAGE_GIF, List.of("GIF87a".getBytes(), "GIF89a".getBytes()));
+    private static final int SIGNATURE_LENGTH = 8;
+
+    private ImageUploads() {
+    }
+
+    public static InputStream imageUpload(InputStream body, String contentType, long contentLength,
+                                          long maxBytes) throws IOException {
+        // The permanent store needs the length up front, so chunked uploads cannot be streamed through
+        if (contentLength < 0) {
+            throw new IllegalArgumentException("Content-Length is required");
+        }
+        if (contentLength == 0) {
+            throw new IllegalArgumentException("Upload is empty");
+        }
+        if (contentLength > maxBytes) {
+            throw new IllegalArgumentException(String.format("Upload exceeds the %d byte limit", maxBytes));
+        }
+        var mediaType = MediaType.parseMediaType(contentType);
+        var signatures = SIGNATURES.get(new MediaType(mediaType.getType(), mediaType.getSubtype()));
+        if (signatures == null) {
+            throw new IllegalArgumentException(String.format("Unsupported image type %s", contentType));
+        }
+
+        var upload = new BufferedInputStream(body);
+        upload.mark(SIGNATURE_LENGTH);
+        var header = upload.readNBytes(SIGNATURE_LENGTH);
+        upload.reset();
+        if (signatures.stream().noneMatch(signature -> startsWith(header, signature))) {
+            throw new IllegalArgumentException(String.format("Upload is not a %s image", mediaType.getSubtype()));
+        }
+        return new LengthLimitedInputStream(upload, contentLength);
+    }
+
+    private static boolean startsWith(byte[] header, byte[] signature) {
+        return header.length >= signature.length
+                && Arrays.equals(header, 0, signature.length, signature, 0, signature.length);
+    }
+
+    private static class LengthLimitedInputStream extends InputStream {
+        private final InputStream delegate;
+        private long remaining;
+
+        LengthLimitedInputStream(InputStream delegate, long length) {
+            this.delegate = delegate;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
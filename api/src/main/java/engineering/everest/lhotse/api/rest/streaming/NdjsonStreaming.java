@@ -0,0 +1,53 @@
+package engineering.everest.lhotse.api.rest.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
+import static engineering.everest.lhotse.api.rest.caching.ConditionalRequests.disableContentCaching;
+
+public final class NdjsonStreaming {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
+    private NdjsonStreaming() {
+    }
+
+    public static <T, R> ResponseEntity<StreamingResponseBody> ndjsonResponse(ObjectMapper objectMapper,
+                                                                              Consumer<Consumer<T>> source,
+                                                                              Function<T, R> converter) {
+        // Rows are written as they are read, so the body must not be buffered to compute an ETag
+        disableContentCaching();
+
+        var writer = objectMapper.writer().without(FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                source.accept(item -> writeLine(writer, generator, converter.apply(item)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
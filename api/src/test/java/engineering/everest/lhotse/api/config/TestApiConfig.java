@@ -4,9 +4,13 @@ import engineering.everest.lhotse.api.AuthUserArgumentResolver;
 import engineering.everest.lhotse.api.helpers.MockAuthenticationContextProvider;
 import engineering.everest.lhotse.api.rest.converters.DtoConverter;
 import engineering.everest.lhotse.api.rest.security.EntityPermissionEvaluator;
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.axon.common.services.ReadServiceProvider;
 import engineering.everest.lhotse.security.AuthenticationContextProvider;
 import engineering.everest.lhotse.users.services.UsersReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -42,6 +46,11 @@ public class TestApiConfig {
         return mock(UsersReadService.class);
     }
 
+    @Bean
+    public ChangeFeed changeFeed() {
+        return new ChangeFeed(mock(ChangeChannel.class), 100, 100);
+    }
+
     @Bean
     public ReadServiceProvider readServiceProvider() {
         return mock(ReadServiceProvider.class);
@@ -51,7 +60,10 @@ public class TestApiConfig {
     public EntityPermissionEvaluator entityPermissionEvaluator(
             AuthenticationContextProvider authenticationContextProvider,
             ReadServiceProvider readServiceProvider) {
-        return new EntityPermissionEvaluator(authenticationContextProvider, readServiceProvider);
+        // Nothing is cached, so permission checks always see the views stubbed by each test
+        var permissionViewCache = new PermissionViewCache(mock(ChangeChannel.class), new SimpleMeterRegistry(), 0, 0);
+        return new EntityPermissionEvaluator(authenticationContextProvider, readServiceProvider, permissionViewCache,
+                new SimpleMeterRegistry());
     }
 
     @Configuration
@@ -0,0 +1,35 @@
+package engineering.everest.lhotse.api.rest;
+
+import engineering.everest.lhotse.security.passwords.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+class ExceptionHandlingControllerAdviceTest {
+
+    private ExceptionHandlingControllerAdvice exceptionHandlingControllerAdvice;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        exceptionHandlingControllerAdvice = new ExceptionHandlingControllerAdvice();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void handlePasswordHashingUnavailable_WillAnswerServiceUnavailableWithRetryAfter() throws IOException {
+        exceptionHandlingControllerAdvice.handlePasswordHashingUnavailable(new PasswordHashingUnavailableException(
+                "Too many password hashing requests", Duration.ofMillis(2500), new RejectedExecutionException()), response);
+
+        assertEquals(SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("3", response.getHeader(RETRY_AFTER));
+    }
+}
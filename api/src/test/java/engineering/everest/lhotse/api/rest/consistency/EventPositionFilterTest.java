@@ -0,0 +1,61 @@
+package engineering.everest.lhotse.api.rest.consistency;
+
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static engineering.everest.lhotse.api.rest.consistency.EventPositionFilter.EVENT_POSITION_HEADER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventPositionFilterTest {
+
+    @Mock
+    private ProjectionPositions projectionPositions;
+
+    @Test
+    void doFilter_WillReturnTheEventPosition_WhenACommandSucceeds() throws ServletException, IOException {
+        when(projectionPositions.headPosition()).thenReturn(42L);
+        var response = new MockHttpServletResponse();
+
+        new EventPositionFilter(projectionPositions).doFilter(new MockHttpServletRequest("POST", "/api/organizations"), response,
+                (request, filteredResponse) -> filteredResponse.getWriter().write("created"));
+
+        assertEquals("42", response.getHeader(EVENT_POSITION_HEADER));
+        assertEquals("created", response.getContentAsString(UTF_8));
+    }
+
+    @Test
+    void doFilter_WillNotReturnAnEventPosition_WhenACommandFails() throws ServletException, IOException {
+        var response = new MockHttpServletResponse();
+
+        new EventPositionFilter(projectionPositions).doFilter(new MockHttpServletRequest("PUT", "/api/users/1"), response,
+                (request, filteredResponse) -> ((HttpServletResponse) filteredResponse).setStatus(400));
+
+        assertNull(response.getHeader(EVENT_POSITION_HEADER));
+        verifyNoInteractions(projectionPositions);
+    }
+
+    @Test
+    void doFilter_WillNotReturnAnEventPosition_ForReads() throws ServletException, IOException {
+        var response = new MockHttpServletResponse();
+
+        new EventPositionFilter(projectionPositions).doFilter(new MockHttpServletRequest("GET", "/api/users"), response,
+                (request, filteredResponse) -> filteredResponse.getWriter().write("users"));
+
+        assertNull(response.getHeader(EVENT_POSITION_HEADER));
+        verifyNoInteractions(projectionPositions);
+    }
+}
@@ -0,0 +1,136 @@
+package engineering.everest.lhotse.api.rest.consistency;
+
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static engineering.everest.lhotse.api.rest.consistency.MinPositionFilter.MIN_POSITION_HEADER;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+@ExtendWith(MockitoExtension.class)
+class MinPositionFilterTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(2);
+
+    @Mock
+    private ProjectionPositions projectionPositions;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MinPositionFilter minPositionFilter;
+    private MockHttpServletResponse response;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        minPositionFilter = new MinPositionFilter(projectionPositions, meterRegistry, MAX_WAIT);
+        response = new MockHttpServletResponse();
+        filterChain = new MockFilterChain();
+    }
+
+    @Test
+    void doFilter_WillNotWait_WhenNoMinPositionIsRequested() throws ServletException, IOException {
+        minPositionFilter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoInteractions(projectionPositions);
+    }
+
+    @Test
+    void doFilter_WillProceed_WhenProjectionsHaveAlreadyReachedTheRequestedPosition() throws ServletException, IOException {
+        when(projectionPositions.whenProcessed(42, MAX_WAIT)).thenReturn(completedFuture(true));
+        var request = getWithMinPosition("42");
+
+        minPositionFilter.doFilter(request, response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        assertFalse(request.isAsyncStarted());
+        assertEquals(1, waitCount("reached"));
+    }
+
+    @Test
+    void doFilter_WillDispatchAgainWithoutHoldingTheThread_WhenProjectionsCatchUpLater() throws ServletException, IOException {
+        var processed = new CompletableFuture<Boolean>();
+        when(projectionPositions.whenProcessed(42, MAX_WAIT)).thenReturn(processed);
+        var request = getWithMinPosition("42");
+
+        minPositionFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        assertTrue(request.isAsyncStarted());
+
+        processed.complete(true);
+
+        assertNotNull(((MockAsyncContext) request.getAsyncContext()).getDispatchedPath());
+        assertEquals(1, waitCount("reached"));
+    }
+
+    @Test
+    void doFilter_WillAskCallerToRetry_WhenProjectionsDoNotCatchUpInTime() throws ServletException, IOException {
+        var processed = new CompletableFuture<Boolean>();
+        when(projectionPositions.whenProcessed(42, MAX_WAIT)).thenReturn(processed);
+        var request = getWithMinPosition("42");
+
+        minPositionFilter.doFilter(request, response, filterChain);
+        processed.complete(false);
+
+        assertNull(filterChain.getRequest());
+        assertFalse(request.isAsyncStarted());
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(RETRY_AFTER));
+        assertEquals(1, waitCount("timed-out"));
+    }
+
+    @Test
+    void doFilter_WillAskCallerToRetry_WhenWaitingFails() throws ServletException, IOException {
+        var processed = new CompletableFuture<Boolean>();
+        when(projectionPositions.whenProcessed(42, MAX_WAIT)).thenReturn(processed);
+        var request = getWithMinPosition("42");
+
+        minPositionFilter.doFilter(request, response, filterChain);
+        processed.completeExceptionally(new IllegalStateException());
+
+        assertEquals(503, response.getStatus());
+        assertEquals(1, waitCount("timed-out"));
+    }
+
+    @Test
+    void doFilter_WillRejectRequest_WhenMinPositionIsNotANumber() throws ServletException, IOException {
+        minPositionFilter.doFilter(getWithMinPosition("latest"), response, filterChain);
+
+        assertEquals(400, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    private static MockHttpServletRequest getWithMinPosition(String minPosition) {
+        var request = new MockHttpServletRequest("GET", "/api/users");
+        request.setAsyncSupported(true);
+        request.addHeader(MIN_POSITION_HEADER, minPosition);
+        return request;
+    }
+
+    private long waitCount(String outcome) {
+        return meterRegistry.get("api.consistency.waits").tag("outcome", outcome).timer().count();
+    }
+}
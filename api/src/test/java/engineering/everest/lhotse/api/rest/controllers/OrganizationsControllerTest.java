@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.lhotse.api.config.TestApiConfig;
 import engineering.everest.lhotse.api.helpers.AuthContextExtension;
 import engineering.everest.lhotse.api.helpers.MockAuthenticationContextProvider;
+import engineering.everest.lhotse.api.rest.converters.DtoConverter;
 import engineering.everest.lhotse.api.rest.requests.NewOrganizationRequest;
 import engineering.everest.lhotse.api.rest.requests.NewUserRequest;
 import engineering.everest.lhotse.api.rest.requests.UpdateOrganizationRequest;
@@ -28,15 +29,26 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static engineering.everest.lhotse.api.rest.streaming.ChangeEvents.LAST_EVENT_ID_HEADER;
+import static engineering.everest.lhotse.api.rest.streaming.ChangeEvents.RESET_EVENT_NAME;
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.APPLICATION_NDJSON;
 import static engineering.everest.lhotse.users.UserTestHelper.ADMIN_USER;
 import static java.util.Collections.singletonList;
 import static java.util.UUID.fromString;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.util.Lists.newArrayList;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -67,6 +79,8 @@ class OrganizationsControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private DtoConverter dtoConverter;
 
     @MockBean
     private OrganizationsService organizationsService;
@@ -89,7 +103,106 @@ class OrganizationsControllerTest {
                 .andExpect(jsonPath("$.[0].id", is(ORGANIZATION_1.getId().toString())))
                 .andExpect(jsonPath("$.[1].id", is(ORGANIZATION_2.getId().toString())))
                 .andExpect(jsonPath("$.[0].organizationName", is(ORGANIZATION_1.getOrganizationName())))
-                .andExpect(jsonPath("$.[1].organizationName", is(ORGANIZATION_2.getOrganizationName())));
+                .andExpect(jsonPath("$.[1].organizationName", is(ORGANIZATION_2.getOrganizationName())))
+                .andExpect(header().doesNotExist(LINK));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getOrganizationsWillLinkToNextPage_WhenPageIsFull() throws Exception {
+        when(organizationsReadService.getOrganizations(ORGANIZATION_ID, 2))
+                .thenReturn(newArrayList(ORGANIZATION_1, ORGANIZATION_2));
+
+        mockMvc.perform(get("/api/organizations?after={after}&limit=2", ORGANIZATION_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(header().string(LINK, containsString("after=" + ORGANIZATION_2.getId())))
+                .andExpect(header().string(LINK, containsString("rel=\"next\"")));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getOrganizationsWillRetrieveFirstPageOfDefaultSize_WhenOnlyAfterIsGiven() throws Exception {
+        mockMvc.perform(get("/api/organizations?after={after}", ORGANIZATION_ID))
+                .andExpect(status().isOk());
+
+        verify(organizationsReadService).getOrganizations(ORGANIZATION_ID, 100);
+        verify(organizationsReadService, never()).getOrganizations();
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getOrganizationsWillCapPageSize() throws Exception {
+        mockMvc.perform(get("/api/organizations?limit=100000"))
+                .andExpect(status().isOk());
+
+        verify(organizationsReadService).getOrganizations(null, 500);
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getOrganizationsWillFail_WhenPageSizeIsNotPositive() throws Exception {
+        mockMvc.perform(get("/api/organizations?limit=0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(organizationsReadService);
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getOrganizationsWillStreamOneOrganizationPerLine_WhenNdjsonIsAccepted() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Organization> action = invocation.getArgument(0);
+            action.accept(ORGANIZATION_1);
+            action.accept(ORGANIZATION_2);
+            return null;
+        }).when(organizationsReadService).forEachOrganization(any());
+
+        var mvcResult = mockMvc.perform(get("/api/organizations").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(dtoConverter.convert(ORGANIZATION_1)) + "\n"
+                        + objectMapper.writeValueAsString(dtoConverter.convert(ORGANIZATION_2)) + "\n"));
+        verify(organizationsReadService, never()).getOrganizations(any(), anyInt());
+        verify(organizationsReadService, never()).getOrganizations();
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void streamAllChangesWillOpenEventStream_WhenRequestingUserIsAdmin() throws Exception {
+        mockMvc.perform(get("/api/organizations/changes").accept(TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(CONTENT_TYPE, containsString(TEXT_EVENT_STREAM_VALUE)));
+    }
+
+    @Test
+    @WithMockUser(username = USER_USERNAME, roles = ROLE_ORGANIZATION_USER)
+    void streamAllChangesWillBeForbidden_WhenRequestingUserIsNotAdmin() throws Exception {
+        mockMvc.perform(get("/api/organizations/changes").accept(TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = USER_USERNAME, roles = ROLE_ORGANIZATION_USER)
+    void streamOrganizationChangesWillSendReset_WhenLastEventIdIsNoLongerRetained() throws Exception {
+        User authUser = MockAuthenticationContextProvider.getAuthUser();
+
+        mockMvc.perform(get("/api/organizations/{organizationId}/changes", authUser.getOrganizationId())
+                .accept(TEXT_EVENT_STREAM)
+                .header(LAST_EVENT_ID_HEADER, "1"))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:" + RESET_EVENT_NAME)));
+    }
+
+    @Test
+    @WithMockUser(username = USER_USERNAME, roles = ROLE_ORGANIZATION_USER)
+    void streamOrganizationChangesWillBeForbidden_WhenRequestingUserBelongsToAnotherOrganization() throws Exception {
+        mockMvc.perform(get("/api/organizations/{organizationId}/changes", ORGANIZATION_ID).accept(TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
     }
 
     @Test
@@ -106,6 +219,24 @@ class OrganizationsControllerTest {
                 .andExpect(jsonPath("$.id", is(authUser.getOrganizationId().toString())));
     }
 
+    @Test
+    @WithMockUser(username = USER_USERNAME, roles = ROLE_ORGANIZATION_USER)
+    void getOrganizationWillAnswerNotModified_WhenETagMatchesCachedOrganization() throws Exception {
+        User authUser = MockAuthenticationContextProvider.getAuthUser();
+        when(organizationsReadService.getById(authUser.getOrganizationId()))
+                .thenReturn(new Organization(authUser.getOrganizationId(), "demo",
+                        new OrganizationAddress("", "", "", "", ""),
+                        "", "", "", "", false, 5L));
+        var etag = mockMvc.perform(get("/api/organizations/{organizationId}", authUser.getOrganizationId()))
+                .andExpect(header().string(ETAG, Matchers.startsWith("\"5-")))
+                .andReturn().getResponse().getHeader(ETAG);
+
+        mockMvc.perform(get("/api/organizations/{organizationId}", authUser.getOrganizationId())
+                .header(IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, etag));
+    }
+
     @Test
     @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
     void registeringNewOrganizationWillFail_WhenNameIsEmpty() throws Exception {
@@ -195,6 +326,26 @@ class OrganizationsControllerTest {
                 .andExpect(jsonPath("$.[0].email", is(ORG_1_USER_1.getUsername())));
     }
 
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void retrievingUserListForOrganization_WillStreamOneUserPerLine_WhenNdjsonIsAccepted() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(1);
+            action.accept(ORG_1_USER_1);
+            return null;
+        }).when(usersReadService).forEachUserInOrganization(eq(ORGANIZATION_1.getId()), any());
+
+        var mvcResult = mockMvc.perform(get("/api/organizations/{organizationId}/users", ORGANIZATION_1.getId())
+                .accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(dtoConverter.convert(ORG_1_USER_1)) + "\n"));
+    }
+
     @Test
     @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
     void creatingOrganizationUser_WillFail_WhenEmailIsBlank() throws Exception {
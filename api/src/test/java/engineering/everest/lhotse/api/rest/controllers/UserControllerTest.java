@@ -7,6 +7,7 @@ import engineering.everest.lhotse.api.helpers.MockAuthenticationContextProvider;
 import engineering.everest.lhotse.api.rest.requests.UpdateUserRequest;
 import engineering.everest.lhotse.axon.common.domain.User;
 import engineering.everest.starterkit.filestorage.FileService;
+import engineering.everest.lhotse.users.services.ProfilePhotoStream;
 import engineering.everest.lhotse.users.services.UsersReadService;
 import engineering.everest.lhotse.users.services.UsersService;
 import org.junit.jupiter.api.Test;
@@ -23,24 +24,42 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.ACCEPT_RANGES;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_LENGTH;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.IF_RANGE;
+import static org.springframework.http.HttpHeaders.RANGE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
+import static org.springframework.http.MediaType.IMAGE_JPEG;
 import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
+import static org.springframework.http.MediaType.IMAGE_PNG;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -53,6 +72,7 @@ class UserControllerTest {
 
     private static final byte[] PROFILE_PHOTO_FILE_CONTENTS = "profile-photo-file-contents".getBytes();
     private static final byte[] PROFILE_PHOTO_THUMBNAIL_FILE_CONTENTS = "profile-photo-thumbnail-file-contents".getBytes();
+    private static final byte[] JPEG_CONTENTS = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F'};
     private static final String ROLE_ORGANIZATION_USER = "ORG_USER";
 
     @Autowired
@@ -110,16 +130,62 @@ class UserControllerTest {
 
     @Test
     @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
-    void streamProfilePhoto_WillReturnProfilePhoto() throws Exception {
+    void streamProfilePhotoUpload_WillStreamRequestBodyToPermanentStore() throws Exception {
         User authUser = MockAuthenticationContextProvider.getAuthUser();
+        var persistedFileId = randomUUID();
+        var storedContents = new ByteArrayOutputStream();
+        when(fileService.transferToPermanentStore(eq("profile-photo"), eq((long) JPEG_CONTENTS.length), any(InputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<InputStream>getArgument(2).transferTo(storedContents);
+                    return persistedFileId;
+                });
 
-        InputStream profilePhotoInputStream = mock(InputStream.class);
-        when(profilePhotoInputStream.transferTo(any(OutputStream.class))).thenAnswer(invocation -> {
-            var outputStream = invocation.getArgument(0);
-            new ByteArrayInputStream(PROFILE_PHOTO_FILE_CONTENTS).transferTo((OutputStream) outputStream);
-            return null;
-        });
-        when(usersReadService.getProfilePhotoStream(authUser.getId())).thenReturn(profilePhotoInputStream);
+        mockMvc.perform(put("/api/user/profile-photo")
+                .contentType(IMAGE_JPEG)
+                .content(JPEG_CONTENTS))
+                .andExpect(status().isOk());
+
+        assertArrayEquals(JPEG_CONTENTS, storedContents.toByteArray());
+        verify(usersService).storeProfilePhoto(authUser.getId(), persistedFileId);
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhotoUpload_WillFail_WhenBodyDoesNotMatchContentType() throws Exception {
+        mockMvc.perform(put("/api/user/profile-photo")
+                .contentType(IMAGE_PNG)
+                .content(JPEG_CONTENTS))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(fileService, usersService);
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhotoUpload_WillFail_WhenUploadIsTooLarge() throws Exception {
+        var oversizedContents = Arrays.copyOf(JPEG_CONTENTS, 5 * 1024 * 1024 + 1);
+
+        mockMvc.perform(put("/api/user/profile-photo")
+                .contentType(IMAGE_JPEG)
+                .content(oversizedContents))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(fileService, usersService);
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhotoUpload_WillFail_WhenContentTypeIsNotAnImage() throws Exception {
+        mockMvc.perform(put("/api/user/profile-photo")
+                .contentType(APPLICATION_OCTET_STREAM)
+                .content(JPEG_CONTENTS))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhoto_WillReturnProfilePhoto() throws Exception {
+        var profilePhotoFileId = givenProfilePhoto();
 
         var response = mockMvc.perform(get("/api/user/profile-photo"))
                 .andExpect(request().asyncStarted())
@@ -128,9 +194,93 @@ class UserControllerTest {
         mockMvc.perform(asyncDispatch(response))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(APPLICATION_OCTET_STREAM))
+                .andExpect(header().string(CONTENT_LENGTH, String.valueOf(PROFILE_PHOTO_FILE_CONTENTS.length)))
+                .andExpect(header().stringValues(ETAG, "\"" + profilePhotoFileId + "\""))
+                .andExpect(header().string(ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(PROFILE_PHOTO_FILE_CONTENTS));
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhoto_WillReturnRequestedByteRange() throws Exception {
+        var profilePhotoFileId = givenProfilePhoto();
+
+        var response = mockMvc.perform(get("/api/user/profile-photo").header(RANGE, "bytes=0-6"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(response))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().stringValues(ETAG, "\"" + profilePhotoFileId + "\""))
+                .andExpect(header().string(CONTENT_RANGE, "bytes 0-6/" + PROFILE_PHOTO_FILE_CONTENTS.length))
+                .andExpect(header().string(CONTENT_LENGTH, "7"))
+                .andExpect(content().bytes("profile".getBytes()));
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhoto_WillReturnWholePhoto_WhenIfRangeDoesNotMatch() throws Exception {
+        givenProfilePhoto();
+
+        var response = mockMvc.perform(get("/api/user/profile-photo")
+                .header(RANGE, "bytes=0-6")
+                .header(IF_RANGE, "\"" + randomUUID() + "\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(response))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(PROFILE_PHOTO_FILE_CONTENTS));
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhoto_WillFail_WhenRangeIsNotSatisfiable() throws Exception {
+        givenProfilePhoto();
+
+        mockMvc.perform(get("/api/user/profile-photo").header(RANGE, "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(CONTENT_RANGE, "bytes */" + PROFILE_PHOTO_FILE_CONTENTS.length));
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhoto_WillReturnNotModified_WhenProfilePhotoIsUnchanged() throws Exception {
+        User authUser = MockAuthenticationContextProvider.getAuthUser();
+        var profilePhotoFileId = randomUUID();
+        when(usersReadService.getProfilePhotoFileId(authUser.getId())).thenReturn(profilePhotoFileId);
+
+        mockMvc.perform(get("/api/user/profile-photo").header(IF_NONE_MATCH, "\"" + profilePhotoFileId + "\""))
+                .andExpect(status().isNotModified());
+
+        verify(usersReadService, never()).openProfilePhoto(any());
+    }
+
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhotoVersion_WillReturnImmutableProfilePhoto() throws Exception {
+        var profilePhotoFileId = givenProfilePhoto();
+
+        var response = mockMvc.perform(get("/api/user/profile-photo/" + profilePhotoFileId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(response))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CACHE_CONTROL, "max-age=31536000, private"))
                 .andExpect(content().bytes(PROFILE_PHOTO_FILE_CONTENTS));
     }
 
+    @Test
+    @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
+    void streamProfilePhotoVersion_WillFail_WhenNotCurrentProfilePhoto() throws Exception {
+        givenProfilePhoto();
+
+        mockMvc.perform(get("/api/user/profile-photo/" + randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username = "user@umbrella.com", roles = ROLE_ORGANIZATION_USER)
     void streamProfilePhotoThumbnail_WillReturnProfilePhotoThumbnail() throws Exception {
@@ -161,4 +311,13 @@ class UserControllerTest {
         mockMvc.perform(get("/api/user/profile-photo/thumbnail"))
                 .andExpect(status().isBadRequest());
     }
+
+    private UUID givenProfilePhoto() throws Exception {
+        User authUser = MockAuthenticationContextProvider.getAuthUser();
+        var profilePhotoFileId = randomUUID();
+        when(usersReadService.getProfilePhotoFileId(authUser.getId())).thenReturn(profilePhotoFileId);
+        lenient().when(usersReadService.openProfilePhoto(profilePhotoFileId)).thenReturn(new ProfilePhotoStream(
+                profilePhotoFileId, PROFILE_PHOTO_FILE_CONTENTS.length, new ByteArrayInputStream(PROFILE_PHOTO_FILE_CONTENTS)));
+        return profilePhotoFileId;
+    }
 }
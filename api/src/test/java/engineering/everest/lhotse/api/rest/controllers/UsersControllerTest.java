@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.lhotse.api.config.TestApiConfig;
 import engineering.everest.lhotse.api.helpers.AuthContextExtension;
 import engineering.everest.lhotse.api.helpers.MockAuthenticationContextProvider;
+import engineering.everest.lhotse.api.rest.converters.DtoConverter;
 import engineering.everest.lhotse.api.rest.requests.UpdateUserRequest;
 import engineering.everest.lhotse.axon.common.domain.Identifiable;
 import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
 import engineering.everest.lhotse.axon.common.services.ReadService;
 import engineering.everest.lhotse.axon.common.services.ReadServiceProvider;
 import engineering.everest.lhotse.users.services.UsersReadService;
@@ -26,18 +28,31 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static engineering.everest.lhotse.api.rest.streaming.NdjsonStreaming.APPLICATION_NDJSON;
 import static engineering.everest.lhotse.users.UserTestHelper.ADMIN_USER;
 import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
@@ -64,6 +79,8 @@ class UsersControllerTest {
     private ObjectMapper objectMapper;
     @Autowired
     private ReadServiceProvider readServiceProvider;
+    @Autowired
+    private DtoConverter dtoConverter;
 
     @MockBean
     private UsersService usersService;
@@ -91,7 +108,41 @@ class UsersControllerTest {
                 .andExpect(jsonPath("$.[0].displayName", is(ORG_1_USER_1.getDisplayName())))
                 .andExpect(jsonPath("$.[1].displayName", is(ORG_2_USER_1.getDisplayName())))
                 .andExpect(jsonPath("$.[0].email", is(ORG_1_USER_1.getUsername())))
-                .andExpect(jsonPath("$.[1].email", is(ORG_2_USER_1.getUsername())));
+                .andExpect(jsonPath("$.[1].email", is(ORG_2_USER_1.getUsername())))
+                .andExpect(header().doesNotExist(LINK));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void retrievingGlobalUserList_WillRetrieveOnePage_WhenLimitIsGiven() throws Exception {
+        when(usersReadService.getUsers(null, 2)).thenReturn(asList(ORG_1_USER_1, ORG_2_USER_1));
+
+        mockMvc.perform(get("/api/users?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(header().string(LINK, containsString("after=" + ORG_2_USER_1.getId())));
+        verify(usersReadService, never()).getUsers();
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void retrievingGlobalUserList_WillStreamOneUserPerLine_WhenNdjsonIsAccepted() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(ORG_1_USER_1);
+            action.accept(ORG_2_USER_1);
+            return null;
+        }).when(usersReadService).forEachUser(any());
+
+        var mvcResult = mockMvc.perform(get("/api/users").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(dtoConverter.convert(ORG_1_USER_1)) + "\n"
+                        + objectMapper.writeValueAsString(dtoConverter.convert(ORG_2_USER_1)) + "\n"));
     }
 
     @Test
@@ -111,7 +162,7 @@ class UsersControllerTest {
     @Test
     @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
     void updateUserDetailsWillDelegate_WhenRequestingUserIsAdmin() throws Exception {
-        when(usersReadService.getById(ORG_2_USER_1.getId())).thenReturn(ORG_2_USER_1);
+        when(usersReadService.getPermissionView(ORG_2_USER_1.getId())).thenReturn(ORG_2_USER_1.toPermissionView());
 
         mockMvc.perform(put("/api/users/{userId}", ORG_2_USER_1.getId())
                 .contentType(APPLICATION_JSON)
@@ -127,7 +178,7 @@ class UsersControllerTest {
     void updateUserDetailsWillDelegate_WhenRequestingUserIsAdminOfOrganization() throws Exception {
         var authUser = MockAuthenticationContextProvider.getAuthUser();
         var aUser = new User(randomUUID(), authUser.getOrganizationId(), USER_USERNAME, "user");
-        when(usersReadService.getById(aUser.getId())).thenReturn(aUser);
+        when(usersReadService.getPermissionView(aUser.getId())).thenReturn(aUser.toPermissionView());
         mockMvc.perform(put("/api/users/{userId}", aUser.getId())
                 .contentType(APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(new UpdateUserRequest("display-name-change", "email-change", "password-change"))))
@@ -156,6 +207,7 @@ class UsersControllerTest {
     void getUserById_WillDelegate() throws Exception {
         User authUser = MockAuthenticationContextProvider.getAuthUser();
         User targetUser = new User(randomUUID(), authUser.getOrganizationId(), "other@umbrella.com", "other");
+        when(usersReadService.getPermissionView(targetUser.getId())).thenReturn(targetUser.toPermissionView());
         when(usersReadService.getById(targetUser.getId())).thenReturn(targetUser);
         mockMvc.perform(get("/api/users/{userId}", targetUser.getId()))
                 .andExpect(status().isOk())
@@ -164,11 +216,45 @@ class UsersControllerTest {
                 .andExpect(jsonPath("$.organizationId", is(targetUser.getOrganizationId().toString())));
     }
 
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getUserDetails_WillIncludeETagOfCachedUserVersion() throws Exception {
+        when(usersReadService.getById(ORG_2_USER_1.getId())).thenReturn(versioned(ORG_2_USER_1, 3L));
+
+        mockMvc.perform(get("/api/users/{userId}", ORG_2_USER_1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, matchesPattern("\"3-[0-9a-f]+\"")));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getUserDetails_WillAnswerNotModified_WhenETagMatchesCachedUser() throws Exception {
+        when(usersReadService.getById(ORG_2_USER_1.getId())).thenReturn(versioned(ORG_2_USER_1, 3L));
+        var etag = userETag(ORG_2_USER_1.getId());
+
+        mockMvc.perform(get("/api/users/{userId}", ORG_2_USER_1.getId()).header(IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = ROLE_ADMIN)
+    void getUserDetails_WillChangeETag_WhenUserDiffersAtSameVersionAfterReplay() throws Exception {
+        var rebuiltUser = versioned(ORG_2_USER_1, 3L);
+        rebuiltUser.setDisplayName("rebuilt-display-name");
+        when(usersReadService.getById(ORG_2_USER_1.getId())).thenReturn(versioned(ORG_2_USER_1, 3L), rebuiltUser);
+        var etag = userETag(ORG_2_USER_1.getId());
+
+        mockMvc.perform(get("/api/users/{userId}", ORG_2_USER_1.getId()).header(IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.displayName", is("rebuilt-display-name")));
+    }
+
     @Test
     @WithMockUser(username = USER_USERNAME, roles = ROLE_ORGANIZATION_USER)
     void getUserOfOtherOrganization_WillThrow() throws Exception {
         User targetUser = new User(randomUUID(), randomUUID(), "other@umbrella.com", "other");
-        when(usersReadService.getById(targetUser.getId())).thenReturn(targetUser);
+        when(usersReadService.getPermissionView(targetUser.getId())).thenReturn(targetUser.toPermissionView());
         mockMvc.perform(get("/api/users/{userId}", targetUser.getId()))
                 .andExpect(status().isForbidden());
     }
@@ -190,8 +276,8 @@ class UsersControllerTest {
     void updateUser_WillDelegate() throws Exception {
         User authUser = MockAuthenticationContextProvider.getAuthUser();
         UUID targetUserId = randomUUID();
-        when(usersReadService.getById(targetUserId)).thenReturn(
-                new User(targetUserId, authUser.getOrganizationId(), "some@umbrella.com", ""));
+        when(usersReadService.getPermissionView(targetUserId)).thenReturn(
+                new UserPermissionView(targetUserId, authUser.getOrganizationId(), false));
         mockMvc.perform(put("/api/users/{userId}", targetUserId)
                 .contentType(APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(new UpdateUserRequest("new", null, null))))
@@ -212,4 +298,13 @@ class UsersControllerTest {
     void updateUserAccountStatus_WillDelegate() {
         // TODO
     }
+
+    private String userETag(UUID userId) throws Exception {
+        return mockMvc.perform(get("/api/users/{userId}", userId)).andReturn().getResponse().getHeader(ETAG);
+    }
+
+    private static User versioned(User user, long version) {
+        return new User(user.getId(), user.getOrganizationId(), user.getUsername(), user.getDisplayName(), user.getEmail(),
+                user.isDisabled(), user.getRoles(), version);
+    }
 }
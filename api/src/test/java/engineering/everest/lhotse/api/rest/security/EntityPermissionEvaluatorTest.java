@@ -1,10 +1,13 @@
 package engineering.everest.lhotse.api.rest.security;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
 import engineering.everest.lhotse.axon.common.domain.Identifiable;
 import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.axon.common.services.ReadService;
 import engineering.everest.lhotse.axon.common.services.ReadServiceProvider;
 import engineering.everest.lhotse.security.AuthenticationContextProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,9 +16,12 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,15 +38,22 @@ class EntityPermissionEvaluatorTest {
     private ReadService<? extends Identifiable> readService;
     @Mock
     private Identifiable identifiable;
+    @Mock
+    private ChangeChannel changeChannel;
 
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionViewCache permissionViewCache;
     private EntityPermissionEvaluator entityPermissionEvaluator;
 
     @BeforeEach
     void setUp() {
         when(authenticationContextProvider.getUser()).thenReturn(user);
         Mockito.<ReadService<? extends Identifiable>>when(readServiceProvider.getService(anyString())).thenReturn(readService);
-        Mockito.<Identifiable>when(readService.getById(any())).thenReturn(identifiable);
-        entityPermissionEvaluator = new EntityPermissionEvaluator(authenticationContextProvider, readServiceProvider);
+        Mockito.<Identifiable>when(readService.getPermissionView(any())).thenReturn(identifiable);
+        meterRegistry = new SimpleMeterRegistry();
+        permissionViewCache = new PermissionViewCache(changeChannel, meterRegistry, 100, 60);
+        entityPermissionEvaluator = new EntityPermissionEvaluator(authenticationContextProvider, readServiceProvider,
+                permissionViewCache, meterRegistry);
     }
 
     @Test
@@ -72,4 +85,54 @@ class EntityPermissionEvaluatorTest {
         assertThrows(IllegalArgumentException.class,
                 () -> entityPermissionEvaluator.hasPermission(null, randomUUID(), "Entity", "blah"));
     }
+
+    @Test
+    void hasPermission_WillReuseCachedPermissionView_WhenTargetIsCheckedRepeatedly() {
+        var targetId = randomUUID();
+
+        entityPermissionEvaluator.hasPermission(null, targetId, "Entity", "read");
+        entityPermissionEvaluator.hasPermission(null, targetId, "Entity", "update");
+
+        verify(readService, times(1)).getPermissionView(targetId);
+        verify(readService, never()).getById(any());
+    }
+
+    @Test
+    void hasPermission_WillReloadPermissionView_WhenTargetHasBeenInvalidated() {
+        var targetId = randomUUID();
+
+        entityPermissionEvaluator.hasPermission(null, targetId, "Entity", "read");
+        permissionViewCache.invalidate(targetId);
+        entityPermissionEvaluator.hasPermission(null, targetId, "Entity", "read");
+
+        verify(readService, times(2)).getPermissionView(targetId);
+    }
+
+    @Test
+    void hasPermission_WillLoadPermissionViewPerTargetType_WhenTargetsShareAnId() {
+        var targetId = randomUUID();
+
+        entityPermissionEvaluator.hasPermission(null, targetId, "Entity", "read");
+        entityPermissionEvaluator.hasPermission(null, targetId, "OtherEntity", "read");
+
+        verify(readService, times(2)).getPermissionView(targetId);
+    }
+
+    @Test
+    void hasPermission_WillRecordCheckDuration() {
+        entityPermissionEvaluator.hasPermission(null, randomUUID(), "Entity", "read");
+
+        assertEquals(1, meterRegistry.get("security.permission.checks").tag("type", "Entity").timer().count());
+    }
+
+    @Test
+    void hasPermission_WillRecordChecksOfEachTargetTypeOnOneTimer() {
+        entityPermissionEvaluator.hasPermission(null, randomUUID(), "Entity", "read");
+        entityPermissionEvaluator.hasPermission(null, randomUUID(), "Entity", "update");
+        entityPermissionEvaluator.hasPermission(null, randomUUID(), "OtherEntity", "read");
+
+        assertEquals(2, meterRegistry.get("security.permission.checks").tag("type", "Entity").timer().count());
+        assertEquals(1, meterRegistry.get("security.permission.checks").tag("type", "OtherEntity").timer().count());
+        assertEquals(2, meterRegistry.get("security.permission.checks").timers().size());
+    }
 }
@@ -0,0 +1,115 @@
+package engineering.everest.lhotse.axon;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.messaging.Message;
+import org.axonframework.monitoring.MessageMonitor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class MicrometerMessageMonitor implements MessageMonitor<Message<?>> {
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final String IGNORED = "ignored";
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String component;
+    private final String name;
+    private final boolean eventProcessor;
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> projectionLagTimers = new ConcurrentHashMap<>();
+
+    public MicrometerMessageMonitor(MeterRegistry meterRegistry, Clock clock, Class<?> componentType, String name) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.component = componentType.getSimpleName();
+        this.name = name;
+        this.eventProcessor = EventProcessor.class.isAssignableFrom(componentType);
+    }
+
+    @Override
+    public MonitorCallback onMessageIngested(Message<?> message) {
+        var payloadType = message.getPayloadType().getSimpleName();
+        if (message instanceof EventMessage) {
+            var lag = Duration.between(((EventMessage<?>) message).getTimestamp(), clock.instant());
+            lagTimers.computeIfAbsent(payloadType, this::lagTimer).record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+        long ingestedAt = System.nanoTime();
+        return new MonitorCallback() {
+            @Override
+            public void reportSuccess() {
+                record(payloadType, SUCCESS, ingestedAt);
+                if (eventProcessor && message instanceof EventMessage) {
+                    recordProjectionLag(payloadType, (EventMessage<?>) message);
+                }
+            }
+
+            @Override
+            public void reportFailure(Throwable cause) {
+                record(payloadType, FAILURE, ingestedAt);
+            }
+
+            @Override
+            public void reportIgnored() {
+                record(payloadType, IGNORED, ingestedAt);
+            }
+        };
+    }
+
+    private void record(String payloadType, String outcome, long ingestedAt) {
+        processingTimers.computeIfAbsent(payloadType + '/' + outcome, key -> processingTimer(payloadType, outcome))
+                .record(System.nanoTime() - ingestedAt, NANOSECONDS);
+    }
+
+    private void recordProjectionLag(String payloadType, EventMessage<?> eventMessage) {
+        var lag = Duration.between(eventMessage.getTimestamp(), clock.instant());
+        projectionLagTimers.computeIfAbsent(payloadType, this::projectionLagTimer)
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    private Timer processingTimer(String payloadType, String outcome) {
+        return Timer.builder("axon.messages.processing")
+                .description("Time from a message being ingested by a component until it has been handled")
+                .tag("component", component)
+                .tag("name", name)
+                .tag("payloadType", payloadType)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private Timer lagTimer(String payloadType) {
+        // Replays by tracking processors show up here as lag spanning the age of the replayed events
+        return Timer.builder("axon.messages.lag")
+                .description("Time from an event being created until a component ingested it")
+                .tag("component", component)
+                .tag("name", name)
+                .tag("payloadType", payloadType)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
+
+    private Timer projectionLagTimer(String payloadType) {
+        // Events are stamped while the command is handled, so this is the delay a caller waits to read their write
+        return Timer.builder("axon.projections.lag")
+                .description("Time from a command applying an event until an event processor finished handling it")
+                .tag("component", component)
+                .tag("name", name)
+                .tag("payloadType", payloadType)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package engineering.everest.lhotse.axon.changes;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.topic.ReliableMessageListener;
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.changes.ChangedEntityType;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Component
+@Log4j2
+public class HazelcastChangeChannel implements ChangeChannel {
+
+    static final String TOPIC_NAME = "lhotse-changes";
+
+    private final ITopic<ChangeMessage> topic;
+
+    @Autowired
+    public HazelcastChangeChannel(HazelcastInstance hazelcastInstance) {
+        // Backed by a ringbuffer, whose sequence numbers every change in the same order on every member
+        this.topic = hazelcastInstance.getReliableTopic(TOPIC_NAME);
+    }
+
+    @Override
+    public void broadcast(ChangedEntityType entityType, UUID entityId, UUID organizationId) {
+        topic.publish(new ChangeMessage(entityType, entityId, organizationId));
+    }
+
+    @Override
+    public String addListener(Consumer<ChangeNotification> listener) {
+        return topic.addMessageListener(new SequencingListener(listener));
+    }
+
+    @Override
+    public void removeListener(String registrationId) {
+        topic.removeMessageListener(registrationId);
+    }
+
+    @Value
+    static class ChangeMessage implements Serializable {
+        ChangedEntityType entityType;
+        UUID entityId;
+        UUID organizationId;
+    }
+
+    static class SequencingListener implements ReliableMessageListener<ChangeMessage> {
+        private final Consumer<ChangeNotification> listener;
+        private long sequence;
+
+        SequencingListener(Consumer<ChangeNotification> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public long retrieveInitialSequence() {
+            // Starts with the next change published, earlier ones are only ever resumed from a member that saw them
+            return -1;
+        }
+
+        @Override
+        public void storeSequence(long sequence) {
+            // Called with the ringbuffer sequence of each message just before it is handed to onMessage
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean isLossTolerant() {
+            // Skips ahead when overtaken, the feed sees the jump in sequence and resets its subscribers
+            return true;
+        }
+
+        @Override
+        public boolean isTerminal(Throwable failure) {
+            LOGGER.warn("Change listener failed on sequence {}", sequence, failure);
+            return false;
+        }
+
+        @Override
+        public void onMessage(Message<ChangeMessage> message) {
+            var change = message.getMessageObject();
+            listener.accept(new ChangeNotification(sequence, change.getEntityType(), change.getEntityId(),
+                    change.getOrganizationId()));
+        }
+    }
+}
@@ -2,7 +2,11 @@ package engineering.everest.lhotse.axon.config;
 
 import engineering.everest.lhotse.axon.CommandValidatingMessageHandlerInterceptor;
 import engineering.everest.lhotse.axon.LoggingMessageHandlerInterceptor;
+import engineering.everest.lhotse.axon.MicrometerMessageMonitor;
+import engineering.everest.lhotse.axon.deadletters.DeadLetterQueue;
+import engineering.everest.lhotse.axon.deadletters.DeadLetteringInterceptor;
 import engineering.everest.lhotse.axon.replay.SwitchingEventProcessorBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.commandhandling.CommandMessage;
@@ -11,7 +15,9 @@ import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
 import org.axonframework.commandhandling.gateway.IntervalRetryScheduler;
 import org.axonframework.commandhandling.gateway.RetryScheduler;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.ConfigurerModule;
 import org.axonframework.config.EventProcessingModule;
+import org.axonframework.eventhandling.PropagatingErrorHandler;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.axonframework.messaging.interceptors.CorrelationDataInterceptor;
 import org.axonframework.modelling.command.AnnotationCommandTargetResolver;
@@ -21,6 +27,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Clock;
 import java.util.List;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
@@ -64,12 +73,28 @@ public class AxonConfig {
         return simpleCommandBus;
     }
 
+    @Bean
+    public ConfigurerModule micrometerMessageMonitors(MeterRegistry meterRegistry, Clock clock) {
+        // Backs every messageMonitor(...) lookup, so the command bus, event store and both processor modes report
+        return configurer -> configurer.configureMessageMonitor(configuration -> (componentType, componentName) ->
+                new MicrometerMessageMonitor(meterRegistry, clock, componentType, componentName));
+    }
+
     @Autowired
     public void configure(AxonConfiguration axonConfiguration,
-                          EventProcessingModule eventProcessingModule) {
+                          EventProcessingModule eventProcessingModule,
+                          DeadLetterQueue deadLetterQueue,
+                          EntityManagerFactory entityManagerFactory,
+                          DataSource dataSource,
+                          @Value("${application.axon.replay.batch-size:100}") int replayBatchSize) {
         eventProcessingModule.byDefaultAssignTo("default");
+        // Handler failures reach the dead-lettering interceptor, which parks the event so it stops holding up its processor.
+        // The primary entity manager factory and data source are the projections', whose writes it rolls back.
+        eventProcessingModule.registerDefaultListenerInvocationErrorHandler(configuration -> PropagatingErrorHandler.instance());
+        eventProcessingModule.registerDefaultHandlerInterceptor((configuration, processorName) ->
+                new DeadLetteringInterceptor(processorName, deadLetterQueue, entityManagerFactory, dataSource));
         eventProcessingModule.registerEventProcessorFactory(
-                new SwitchingEventProcessorBuilder(axonConfiguration, eventProcessingModule));
+                new SwitchingEventProcessorBuilder(axonConfiguration, eventProcessingModule, replayBatchSize));
     }
 
     @Bean
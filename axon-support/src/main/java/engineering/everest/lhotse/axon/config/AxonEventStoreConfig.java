@@ -1,6 +1,5 @@
 package engineering.everest.lhotse.axon.config;
 
-import com.zaxxer.hikari.HikariConfig;
 import liquibase.integration.spring.SpringLiquibase;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
@@ -17,6 +16,7 @@ import org.axonframework.serialization.Serializer;
 import org.axonframework.spring.config.AxonConfiguration;
 import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -26,6 +26,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.transaction.ChainedTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.SharedEntityManagerCreator;
@@ -50,13 +51,6 @@ public class AxonEventStoreConfig {
         return DataSourceBuilder.create().build();
     }
 
-    @Bean
-    @Qualifier(EVENT_STORE_AUTO_CONFIG_QUALIFIER)
-    @ConfigurationProperties(prefix = EVENT_STORE_AUTO_CONFIG_QUALIFIER + ".datasource.hikari")
-    public HikariConfig hikariConfig() {
-        return new HikariConfig();
-    }
-
     @Bean
     @Qualifier(EVENT_STORE_AUTO_CONFIG_QUALIFIER)
     @ConfigurationProperties(prefix = EVENT_STORE_AUTO_CONFIG_QUALIFIER + ".jpa")
@@ -71,7 +65,7 @@ public class AxonEventStoreConfig {
             @Qualifier(EVENT_STORE_AUTO_CONFIG_QUALIFIER) DataSource dataSource,
             @Qualifier(EVENT_STORE_AUTO_CONFIG_QUALIFIER) JpaProperties jpaProperties) {
         return builder
-                .dataSource(dataSource)
+                .dataSource(new LazyConnectionDataSourceProxy(dataSource))
                 .properties(jpaProperties.getProperties())
                 .packages("org.axonframework.eventsourcing.eventstore.jpa",
                         "org.axonframework.eventhandling.tokenstore.jpa")
@@ -120,7 +114,15 @@ public class AxonEventStoreConfig {
                                                   Serializer eventSerializer,
                                                   AxonConfiguration configuration,
                                                   @Qualifier(EVENT_STORE_AUTO_CONFIG_QUALIFIER) EntityManagerProvider entityManagerProvider,
-                                                  SpringTransactionManager transactionManager) {
+                                                  SpringTransactionManager transactionManager,
+                                                  @Value("${application.axon.event-store.batch-size:100}") int batchSize,
+                                                  @Value("${application.axon.event-store.gap-timeout-millis:60000}") int gapTimeout,
+                                                  @Value("${application.axon.event-store.max-gap-offset:10000}") int maxGapOffset,
+                                                  @Value("${application.axon.event-store.gap-cleaning-threshold:250}")
+                                                          int gapCleaningThreshold) {
+        // Tracking processors read a batch per query, so replays of a large store are bound by this batch size
+        // together with the hibernate.jdbc.fetch_size the event-store persistence unit streams each batch with.
+        // Every query also re-reads the gaps the reading token carries, which the gap settings keep bounded
         return JpaEventStorageEngine.builder()
                 .snapshotSerializer(defaultSerializer)
                 .upcasterChain(configuration.upcasterChain())
@@ -128,6 +130,10 @@ public class AxonEventStoreConfig {
                 .eventSerializer(eventSerializer)
                 .entityManagerProvider(entityManagerProvider)
                 .transactionManager(transactionManager)
+                .batchSize(batchSize)
+                .gapTimeout(gapTimeout)
+                .maxGapOffset(maxGapOffset)
+                .gapCleaningThreshold(gapCleaningThreshold)
                 .build();
     }
 
@@ -0,0 +1,115 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+@Component
+@Log4j2
+public class DeadLetterQueue {
+
+    private static final int MAX_CAUSE_LENGTH = 1024;
+
+    private final DeadLettersRepository deadLettersRepository;
+    private final TransactionTemplate newTransactionTemplate;
+    private final Clock clock;
+    private final Set<String> parkedAggregates = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public DeadLetterQueue(DeadLettersRepository deadLettersRepository,
+                           PlatformTransactionManager transactionManager,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.deadLettersRepository = deadLettersRepository;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        Gauge.builder("axon.dead.letters.aggregates", parkedAggregates, Set::size)
+                .description("Aggregates whose events are parked in the dead-letter queue")
+                .register(meterRegistry);
+    }
+
+    public boolean isParked(String processorName, String aggregateIdentifier) {
+        return parkedAggregates.contains(key(processorName, aggregateIdentifier));
+    }
+
+    public void park(String processorName, DomainEventMessage<?> event, String cause) {
+        // Committed on its own, so the event stays parked when the unit of work it failed in rolls back
+        synchronized (this) {
+            newTransactionTemplate.executeWithoutResult(status -> {
+                if (!deadLettersRepository.existsByProcessorNameAndAggregateIdentifierAndSequenceNumber(
+                        processorName, event.getAggregateIdentifier(), event.getSequenceNumber())) {
+                    deadLettersRepository.save(new PersistableDeadLetter(randomUUID(), processorName,
+                            event.getAggregateIdentifier(), event.getSequenceNumber(), event.getPayloadType().getName(),
+                            truncate(cause), clock.instant()));
+                }
+            });
+            parkedAggregates.add(key(processorName, event.getAggregateIdentifier()));
+        }
+        LOGGER.warn("{} parked event {} of aggregate {}: {}", processorName, event.getSequenceNumber(),
+                event.getAggregateIdentifier(), cause);
+    }
+
+    public List<PersistableDeadLetter> deadLetters() {
+        return deadLettersRepository.findAllByOrderByProcessorNameAscAggregateIdentifierAscSequenceNumberAsc();
+    }
+
+    public void remove(PersistableDeadLetter deadLetter) {
+        deadLettersRepository.delete(deadLetter);
+    }
+
+    public void discard(String processorName, String aggregateIdentifier) {
+        synchronized (this) {
+            newTransactionTemplate.executeWithoutResult(status ->
+                    deadLettersRepository.deleteByProcessorNameAndAggregateIdentifier(processorName, aggregateIdentifier));
+            parkedAggregates.remove(key(processorName, aggregateIdentifier));
+        }
+    }
+
+    public void discard(String processorName) {
+        synchronized (this) {
+            newTransactionTemplate.executeWithoutResult(status -> deadLettersRepository.deleteByProcessorName(processorName));
+            parkedAggregates.removeIf(key -> key.startsWith(processorName + '/'));
+        }
+    }
+
+    // Picks up events parked, redelivered or skipped by other nodes sharing the projections database
+    @Scheduled(fixedDelayString = "${application.axon.dead-letters.refresh-interval-millis:5000}")
+    public void refresh() {
+        synchronized (this) {
+            try {
+                var persistedKeys = deadLettersRepository.findAll().stream()
+                        .map(deadLetter -> key(deadLetter.getProcessorName(), deadLetter.getAggregateIdentifier()))
+                        .collect(toSet());
+                parkedAggregates.retainAll(persistedKeys);
+                parkedAggregates.addAll(persistedKeys);
+            } catch (DataAccessException e) {
+                LOGGER.warn("Unable to refresh parked aggregates", e);
+            }
+        }
+    }
+
+    private static String key(String processorName, String aggregateIdentifier) {
+        return processorName + '/' + aggregateIdentifier;
+    }
+
+    private static String truncate(String cause) {
+        return cause == null || cause.length() <= MAX_CAUSE_LENGTH ? cause : cause.substring(0, MAX_CAUSE_LENGTH);
+    }
+}
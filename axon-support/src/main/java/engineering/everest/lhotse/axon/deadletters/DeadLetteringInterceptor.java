@@ -0,0 +1,121 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import lombok.extern.log4j.Log4j2;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Log4j2
+public class DeadLetteringInterceptor implements MessageHandlerInterceptor<EventMessage<?>> {
+
+    private final String processorName;
+    private final DeadLetterQueue deadLetterQueue;
+    private final EntityManagerFactory projectionsEntityManagerFactory;
+    private final DataSource projectionsDataSource;
+    private final String pendingParkedAggregatesResource;
+
+    public DeadLetteringInterceptor(String processorName,
+                                    DeadLetterQueue deadLetterQueue,
+                                    EntityManagerFactory projectionsEntityManagerFactory,
+                                    DataSource projectionsDataSource) {
+        this.processorName = processorName;
+        this.deadLetterQueue = deadLetterQueue;
+        this.projectionsEntityManagerFactory = projectionsEntityManagerFactory;
+        this.projectionsDataSource = projectionsDataSource;
+        this.pendingParkedAggregatesResource = DeadLetteringInterceptor.class.getName() + ".pending." + processorName;
+    }
+
+    @Override
+    public Object handle(UnitOfWork<? extends EventMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+        var eventMessage = unitOfWork.getMessage();
+        if (!(eventMessage instanceof DomainEventMessage)) {
+            return eventMessage instanceof TrackedEventMessage
+                    ? interceptorChain.proceed()
+                    : proceedWithinSavepoint(interceptorChain, e -> LOGGER.error("{} failed to handle {}",
+                            processorName, eventMessage.getPayloadType().getSimpleName(), e));
+        }
+        var domainEventMessage = (DomainEventMessage<?>) eventMessage;
+        var aggregateIdentifier = domainEventMessage.getAggregateIdentifier();
+        // Later events of a parked aggregate are parked behind it so they are never applied out of order
+        if (deadLetterQueue.isParked(processorName, aggregateIdentifier)
+                || pendingParkedAggregates(unitOfWork).contains(aggregateIdentifier)) {
+            park(unitOfWork, domainEventMessage, "An earlier event of this aggregate is parked");
+            return null;
+        }
+        if (domainEventMessage instanceof TrackedEventMessage) {
+            return proceedParkingFailures(domainEventMessage, interceptorChain);
+        }
+        return proceedWithinSavepoint(interceptorChain, e -> park(unitOfWork, domainEventMessage, e.toString()));
+    }
+
+    private Object proceedParkingFailures(DomainEventMessage<?> event, InterceptorChain interceptorChain) throws Exception {
+        try {
+            return interceptorChain.proceed();
+        } catch (Exception e) {
+            // Parked on its own transaction, then the batch rolls back with everything it wrote and is retried
+            // from the last committed token, skipping this aggregate from now on
+            deadLetterQueue.park(processorName, event, e.toString());
+            throw e;
+        }
+    }
+
+    // Published events are projected in the transaction appending them, so projections never commit ahead of the
+    // event store. A failure is rolled back to a savepoint taken before the handlers ran and handed to the consumer.
+    private Object proceedWithinSavepoint(InterceptorChain interceptorChain, Consumer<Exception> onRolledBack) throws Exception {
+        var entityManagerHolder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(projectionsEntityManagerFactory);
+        var connectionHolder = (ConnectionHolder) TransactionSynchronizationManager.getResource(projectionsDataSource);
+        if (entityManagerHolder == null || connectionHolder == null) {
+            // Without a projections transaction there is nothing to roll back to, so failures fail the publisher
+            return interceptorChain.proceed();
+        }
+        var entityManager = entityManagerHolder.getEntityManager();
+        // Earlier work is written out first, so clearing the persistence context on failure only discards this event's
+        entityManager.flush();
+        var savepoint = connectionHolder.createSavepoint();
+        Object result;
+        try {
+            result = interceptorChain.proceed();
+            // Write failures surface here rather than when the command commits, where they could not be told apart
+            entityManager.flush();
+        } catch (Exception e) {
+            if (entityManager.getTransaction().getRollbackOnly()) {
+                // A failed JPA write marks the whole transaction rollback-only, which a savepoint cannot undo, so
+                // the unit of work fails together with its event store append and nothing is parked
+                throw e;
+            }
+            entityManager.clear();
+            connectionHolder.getConnection().rollback(savepoint);
+            onRolledBack.accept(e);
+            return null;
+        }
+        connectionHolder.getConnection().releaseSavepoint(savepoint);
+        return result;
+    }
+
+    private void park(UnitOfWork<? extends EventMessage<?>> unitOfWork, DomainEventMessage<?> event, String cause) {
+        if (event instanceof TrackedEventMessage) {
+            // Read back from the event store, so the event exists even if this batch is rolled back and retried
+            deadLetterQueue.park(processorName, event, cause);
+        } else {
+            // Published in the transaction appending it, which can still roll back and take the event with it
+            pendingParkedAggregates(unitOfWork).add(event.getAggregateIdentifier());
+            unitOfWork.afterCommit(committed -> deadLetterQueue.park(processorName, event, cause));
+        }
+    }
+
+    private Set<String> pendingParkedAggregates(UnitOfWork<?> unitOfWork) {
+        return unitOfWork.root().getOrComputeResource(pendingParkedAggregatesResource, key -> new HashSet<>());
+    }
+}
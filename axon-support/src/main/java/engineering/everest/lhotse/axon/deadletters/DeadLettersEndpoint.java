@@ -0,0 +1,111 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import engineering.everest.lhotse.axon.replay.SwitchingEventProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+
+@Slf4j
+@Component
+@Endpoint(id = "deadletters")
+public class DeadLettersEndpoint {
+
+    private final AxonConfiguration axonConfiguration;
+    private final DeadLetterQueue deadLetterQueue;
+    private final TransactionManager transactionManager;
+
+    @Autowired
+    public DeadLettersEndpoint(AxonConfiguration axonConfiguration,
+                               DeadLetterQueue deadLetterQueue,
+                               TransactionManager transactionManager) {
+        this.axonConfiguration = axonConfiguration;
+        this.deadLetterQueue = deadLetterQueue;
+        this.transactionManager = transactionManager;
+    }
+
+    @ReadOperation
+    public List<PersistableDeadLetter> deadLetters() {
+        return deadLetterQueue.deadLetters();
+    }
+
+    @WriteOperation
+    public Map<String, Object> retry(@Nullable String processorName, @Nullable String aggregateIdentifier) {
+        var deadLetters = deadLetterQueue.deadLetters().stream()
+                .filter(e -> processorName == null || processorName.equals(e.getProcessorName()))
+                .filter(e -> aggregateIdentifier == null || aggregateIdentifier.equals(e.getAggregateIdentifier()))
+                .collect(toList());
+
+        // Dead letters come ordered by aggregate and sequence, so a failure leaves the rest of its aggregate parked
+        Set<String> stillParkedAggregates = new HashSet<>();
+        int redelivered = 0;
+        for (var deadLetter : deadLetters) {
+            var aggregateKey = deadLetter.getProcessorName() + '/' + deadLetter.getAggregateIdentifier();
+            if (!stillParkedAggregates.contains(aggregateKey)) {
+                if (redeliver(deadLetter)) {
+                    redelivered++;
+                } else {
+                    stillParkedAggregates.add(aggregateKey);
+                }
+            }
+        }
+        deadLetterQueue.refresh();
+        return Map.of("redelivered", redelivered, "stillParked", deadLetters.size() - redelivered);
+    }
+
+    @DeleteOperation
+    public void skip(@Selector String processorName, @Selector String aggregateIdentifier) {
+        LOGGER.warn("Skipping parked events of aggregate {} for {}", aggregateIdentifier, processorName);
+        deadLetterQueue.discard(processorName, aggregateIdentifier);
+    }
+
+    private boolean redeliver(PersistableDeadLetter deadLetter) {
+        var eventProcessor = axonConfiguration.eventProcessingConfiguration()
+                .eventProcessor(deadLetter.getProcessorName(), SwitchingEventProcessor.class);
+        var event = readEvent(deadLetter);
+        if (eventProcessor.isEmpty() || event.isEmpty()) {
+            LOGGER.warn("Cannot redeliver event {} of aggregate {} to {}", deadLetter.getSequenceNumber(),
+                    deadLetter.getAggregateIdentifier(), deadLetter.getProcessorName());
+            return false;
+        }
+
+        var unitOfWork = DefaultUnitOfWork.startAndGet(event.get());
+        unitOfWork.attachTransaction(transactionManager);
+        var result = unitOfWork.executeWithResult(() -> {
+            eventProcessor.get().redeliver(event.get());
+            deadLetterQueue.remove(deadLetter);
+            return null;
+        });
+        if (result.isExceptional()) {
+            LOGGER.warn("Redelivering event {} of aggregate {} to {} failed again", deadLetter.getSequenceNumber(),
+                    deadLetter.getAggregateIdentifier(), deadLetter.getProcessorName(), result.exceptionResult());
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<? extends DomainEventMessage<?>> readEvent(PersistableDeadLetter deadLetter) {
+        return axonConfiguration.eventStore()
+                .readEvents(deadLetter.getAggregateIdentifier(), deadLetter.getSequenceNumber())
+                .asStream()
+                .filter(e -> e.getSequenceNumber() == deadLetter.getSequenceNumber())
+                .findFirst();
+    }
+}
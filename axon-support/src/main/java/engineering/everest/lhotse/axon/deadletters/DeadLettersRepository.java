@@ -0,0 +1,23 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeadLettersRepository extends JpaRepository<PersistableDeadLetter, UUID> {
+
+    boolean existsByProcessorNameAndAggregateIdentifierAndSequenceNumber(String processorName, String aggregateIdentifier,
+                                                                         long sequenceNumber);
+
+    List<PersistableDeadLetter> findAllByOrderByProcessorNameAscAggregateIdentifierAscSequenceNumberAsc();
+
+    List<PersistableDeadLetter> findByProcessorNameAndAggregateIdentifierOrderBySequenceNumberAsc(String processorName,
+                                                                                                   String aggregateIdentifier);
+
+    void deleteByProcessorNameAndAggregateIdentifier(String processorName, String aggregateIdentifier);
+
+    void deleteByProcessorName(String processorName);
+}
@@ -0,0 +1,26 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "deadletters")
+public class PersistableDeadLetter {
+
+    @Id
+    private UUID id;
+    private String processorName;
+    private String aggregateIdentifier;
+    private long sequenceNumber;
+    private String payloadType;
+    private String cause;
+    private Instant parkedAt;
+}
@@ -0,0 +1,84 @@
+package engineering.everest.lhotse.axon.replay;
+
+import engineering.everest.lhotse.axon.common.ProjectionPositions;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+public class ReplayAwareProjectionPositions implements ProjectionPositions {
+
+    private static final long INITIAL_POLL_INTERVAL_MILLIS = 10;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 200;
+
+    private final AxonConfiguration axonConfiguration;
+    private final ScheduledExecutorService pollScheduler;
+
+    @Autowired
+    public ReplayAwareProjectionPositions(AxonConfiguration axonConfiguration) {
+        this.axonConfiguration = axonConfiguration;
+        // Every pending wait polls on this one thread, rather than holding on to the request thread that asked
+        this.pollScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "projection-positions-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollScheduler.shutdownNow();
+    }
+
+    @Override
+    public long headPosition() {
+        var headToken = axonConfiguration.eventStore().createHeadToken();
+        return headToken == null ? -1 : headToken.position().orElse(-1);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> whenProcessed(long position, Duration timeout) {
+        if (position < 0 || hasProcessed(position)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        var processed = new CompletableFuture<Boolean>();
+        schedulePoll(position, System.nanoTime() + timeout.toNanos(), INITIAL_POLL_INTERVAL_MILLIS, processed);
+        return processed;
+    }
+
+    private void schedulePoll(long position, long deadline, long pollIntervalMillis, CompletableFuture<Boolean> processed) {
+        long remainingMillis = NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+            processed.complete(false);
+            return;
+        }
+        pollScheduler.schedule(() -> {
+            try {
+                if (hasProcessed(position)) {
+                    processed.complete(true);
+                } else {
+                    schedulePoll(position, deadline, Math.min(pollIntervalMillis * 2, MAX_POLL_INTERVAL_MILLIS), processed);
+                }
+            } catch (RuntimeException e) {
+                processed.completeExceptionally(e);
+            }
+        }, Math.min(pollIntervalMillis, remainingMillis), MILLISECONDS);
+    }
+
+    private boolean hasProcessed(long position) {
+        // Outside of a replay projections are updated while the command's events are published, so only
+        // processors that are tracking the event store can still be behind a position the caller was given
+        return axonConfiguration.eventProcessingConfiguration().eventProcessors().values().stream()
+                .filter(e -> e instanceof SwitchingEventProcessor)
+                .allMatch(e -> ((SwitchingEventProcessor) e).hasProcessed(position));
+    }
+}
@@ -1,5 +1,6 @@
 package engineering.everest.lhotse.axon.replay;
 
+import engineering.everest.lhotse.axon.deadletters.DeadLetterQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.eventhandling.DisallowReplay;
 import org.axonframework.eventhandling.EventHandler;
@@ -31,14 +32,17 @@ public class ReplayEndpoint {
     private final AxonConfiguration axonConfiguration;
     private final List<ReplayCompletionAware> resetCompletionAwares;
     private final TaskExecutor taskExecutor;
+    private final DeadLetterQueue deadLetterQueue;
 
     @Autowired
     public ReplayEndpoint(AxonConfiguration axonConfiguration,
                           List<ReplayCompletionAware> resetCompletionAwares,
-                          TaskExecutor taskExecutor) {
+                          TaskExecutor taskExecutor,
+                          DeadLetterQueue deadLetterQueue) {
         this.axonConfiguration = axonConfiguration;
         this.resetCompletionAwares = resetCompletionAwares;
         this.taskExecutor = taskExecutor;
+        this.deadLetterQueue = deadLetterQueue;
     }
 
     @ReadOperation
@@ -67,6 +71,8 @@ public class ReplayEndpoint {
             var trackingToken = startTime == null
                     ? eventStore.createTailToken() : eventStore.createTokenAt(startTime.toInstant());
 
+            // Replays rebuild the projections, which would otherwise park every event of already parked aggregates
+            switchingEventProcessors.forEach(p -> deadLetterQueue.discard(p.getName()));
             switchingEventProcessors.forEach(p -> p.startReplay(trackingToken));
             axonConfiguration.eventGateway().publish(new ReplayMarkerEvent(randomUUID()));
         }
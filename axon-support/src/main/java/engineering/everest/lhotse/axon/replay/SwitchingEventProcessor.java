@@ -2,8 +2,11 @@ package engineering.everest.lhotse.axon.replay;
 
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.common.Registration;
+import org.axonframework.eventhandling.EventHandlerInvoker;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.SubscribingEventProcessor;
 import org.axonframework.eventhandling.TrackingEventProcessor;
 import org.axonframework.eventhandling.TrackingToken;
@@ -12,7 +15,9 @@ import org.axonframework.lifecycle.StartHandler;
 import org.axonframework.messaging.MessageHandlerInterceptor;
 
 import java.util.List;
+import java.util.Objects;
 
+import static java.util.stream.Collectors.toList;
 import static org.axonframework.lifecycle.Phase.LOCAL_MESSAGE_HANDLER_REGISTRATIONS;
 
 @Slf4j
@@ -20,13 +25,16 @@ public class SwitchingEventProcessor implements EventProcessor {
 
     private final SubscribingEventProcessor subscribingEventProcessor;
     private final TrackingEventProcessor trackingEventProcessor;
+    private final EventHandlerInvoker eventHandlerInvoker;
 
     private EventProcessor currentEventProcessor;
 
     public SwitchingEventProcessor(SubscribingEventProcessor subscribingEventProcessor,
-                                   TrackingEventProcessor trackingEventProcessor) {
+                                   TrackingEventProcessor trackingEventProcessor,
+                                   EventHandlerInvoker eventHandlerInvoker) {
         this.subscribingEventProcessor = subscribingEventProcessor;
         this.trackingEventProcessor = trackingEventProcessor;
+        this.eventHandlerInvoker = eventHandlerInvoker;
         this.currentEventProcessor = subscribingEventProcessor;
     }
 
@@ -56,6 +64,33 @@ public class SwitchingEventProcessor implements EventProcessor {
         return currentEventProcessor == trackingEventProcessor;
     }
 
+    public boolean hasProcessed(long position) {
+        if (!isRelaying()) {
+            return true;
+        }
+        // Only the index is compared, as a gap-aware token never covers a position while gaps below it are still open,
+        // and transactions that rolled back leave such gaps open until they time out
+        var trackerStatuses = trackingEventProcessor.processingStatus().values();
+        return !trackerStatuses.isEmpty() && trackerStatuses.stream()
+                .allMatch(status -> status.getTrackingToken() != null
+                        && status.getTrackingToken().position().orElse(-1) >= position);
+    }
+
+    public List<TrackingToken> trackingTokens() {
+        if (!isRelaying()) {
+            return List.of();
+        }
+        return trackingEventProcessor.processingStatus().values().stream()
+                .map(EventTrackerStatus::getTrackingToken)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    public void redeliver(EventMessage<?> eventMessage) throws Exception {
+        // Bypasses the processors' interceptors, so failures reach the caller instead of being parked again
+        eventHandlerInvoker.handle(eventMessage, Segment.ROOT_SEGMENT);
+    }
+
     @Override
     public String getName() {
         return currentEventProcessor.getName();
@@ -80,6 +115,12 @@ public class SwitchingEventProcessor implements EventProcessor {
 
     @Override
     public Registration registerHandlerInterceptor(MessageHandlerInterceptor<? super EventMessage<?>> handlerInterceptor) {
-        return currentEventProcessor.registerHandlerInterceptor(handlerInterceptor);
+        // Interceptors are registered once when the processor is built, so both modes need them from the start
+        var subscribingRegistration = subscribingEventProcessor.registerHandlerInterceptor(handlerInterceptor);
+        var trackingRegistration = trackingEventProcessor.registerHandlerInterceptor(handlerInterceptor);
+        return () -> {
+            boolean subscribingCancelled = subscribingRegistration.cancel();
+            return trackingRegistration.cancel() && subscribingCancelled;
+        };
     }
 }
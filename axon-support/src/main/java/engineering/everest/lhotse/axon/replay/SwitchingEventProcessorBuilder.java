@@ -20,7 +20,8 @@ public class SwitchingEventProcessorBuilder implements EventProcessorBuilder {
 
     @SuppressWarnings("unchecked")
     public SwitchingEventProcessorBuilder(AxonConfiguration axonConfiguration,
-                                          EventProcessingModule eventProcessingModule) {
+                                          EventProcessingModule eventProcessingModule,
+                                          int replayBatchSize) {
         subscribingEventProcessorBuilder = (name, configuration, eventHandlerInvoker) ->
                 SubscribingEventProcessor.builder()
                         .name(name)
@@ -44,7 +45,9 @@ public class SwitchingEventProcessorBuilder implements EventProcessorBuilder {
                         .transactionManager(eventProcessingModule.transactionManager(name))
                         .trackingEventProcessorConfiguration(axonConfiguration.getComponent(
                                 TrackingEventProcessorConfiguration.class,
-                                TrackingEventProcessorConfiguration::forSingleThreadedProcessing))
+                                // Replayed events share a unit of work per batch, so their projection writes are JDBC batched
+                                () -> TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                        .andBatchSize(replayBatchSize)))
                         .build();
     }
 
@@ -52,6 +55,7 @@ public class SwitchingEventProcessorBuilder implements EventProcessorBuilder {
     public EventProcessor build(String name, Configuration configuration, EventHandlerInvoker eventHandlerInvoker) {
         return new SwitchingEventProcessor(
                 (SubscribingEventProcessor) subscribingEventProcessorBuilder.build(name, configuration, eventHandlerInvoker),
-                (TrackingEventProcessor) trackingEventProcessorBuilder.build(name, configuration, eventHandlerInvoker));
+                (TrackingEventProcessor) trackingEventProcessorBuilder.build(name, configuration, eventHandlerInvoker),
+                eventHandlerInvoker);
     }
 }
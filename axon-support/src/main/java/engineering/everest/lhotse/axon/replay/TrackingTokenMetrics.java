@@ -0,0 +1,58 @@
+package engineering.everest.lhotse.axon.replay;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Component
+public class TrackingTokenMetrics {
+
+    private final AxonConfiguration axonConfiguration;
+
+    @Autowired
+    public TrackingTokenMetrics(AxonConfiguration axonConfiguration, MeterRegistry meterRegistry) {
+        this.axonConfiguration = axonConfiguration;
+        // Every gap is re-queried with each batch a tracking processor reads and stored in its token entry
+        Gauge.builder("axon.tracking.token.gaps", this, TrackingTokenMetrics::maxGaps)
+                .description("Most gaps in the global event sequence carried by a tracking token of a replaying processor")
+                .register(meterRegistry);
+        Gauge.builder("axon.tracking.token.size", this, TrackingTokenMetrics::maxSerializedBytes)
+                .description("Largest serialized tracking token of a replaying processor")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    double maxGaps() {
+        return trackingTokens()
+                .mapToInt(trackingToken -> gaps(trackingToken).size())
+                .max().orElse(0);
+    }
+
+    double maxSerializedBytes() {
+        var serializer = axonConfiguration.serializer();
+        return trackingTokens()
+                .mapToInt(trackingToken -> serializer.serialize(trackingToken, byte[].class).getData().length)
+                .max().orElse(0);
+    }
+
+    private Stream<TrackingToken> trackingTokens() {
+        return axonConfiguration.eventProcessingConfiguration().eventProcessors().values().stream()
+                .filter(e -> e instanceof SwitchingEventProcessor)
+                .flatMap(e -> ((SwitchingEventProcessor) e).trackingTokens().stream());
+    }
+
+    private static Set<Long> gaps(TrackingToken trackingToken) {
+        if (trackingToken instanceof ReplayToken) {
+            return gaps(((ReplayToken) trackingToken).getCurrentToken());
+        }
+        return trackingToken instanceof GapAwareTrackingToken ? ((GapAwareTrackingToken) trackingToken).getGaps() : Set.of();
+    }
+}
@@ -0,0 +1,96 @@
+package engineering.everest.lhotse.axon;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.SubscribingEventProcessor;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MicrometerMessageMonitorTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void onMessageIngested_WillTimeHandlingByPayloadTypeAndOutcome() {
+        var monitor = new MicrometerMessageMonitor(meterRegistry, Clock.fixed(NOW, UTC), CommandBus.class, "commandBus");
+
+        monitor.onMessageIngested(asCommandMessage(new TestCommand())).reportSuccess();
+        monitor.onMessageIngested(asCommandMessage(new TestCommand())).reportSuccess();
+        monitor.onMessageIngested(asCommandMessage(new TestCommand())).reportFailure(new IllegalStateException());
+
+        assertEquals(2, processingCount("CommandBus", "commandBus", "success"));
+        assertEquals(1, processingCount("CommandBus", "commandBus", "failure"));
+        assertNull(meterRegistry.find("axon.messages.lag").timer());
+        assertNull(meterRegistry.find("axon.projections.lag").timer());
+    }
+
+    @Test
+    void onMessageIngested_WillRecordLagSinceEventWasCreated() {
+        var monitor = new MicrometerMessageMonitor(meterRegistry, Clock.fixed(NOW, UTC),
+                TrackingEventProcessor.class, "default");
+        var event = new GenericEventMessage<>(randomUUID().toString(), new TestEvent(), Map.of(), NOW.minusSeconds(3));
+
+        monitor.onMessageIngested(event).reportIgnored();
+
+        var lagTimer = meterRegistry.get("axon.messages.lag")
+                .tag("component", "TrackingEventProcessor")
+                .tag("name", "default")
+                .tag("payloadType", "TestEvent")
+                .timer();
+        assertEquals(1, lagTimer.count());
+        assertEquals(3, lagTimer.totalTime(SECONDS));
+        assertEquals(1, processingCount("TrackingEventProcessor", "default", "ignored"));
+    }
+
+    @Test
+    void onMessageIngested_WillRecordProjectionLag_WhenAnEventProcessorHandledTheEvent() {
+        var monitor = new MicrometerMessageMonitor(meterRegistry, Clock.fixed(NOW, UTC),
+                SubscribingEventProcessor.class, "default");
+        var event = new GenericEventMessage<>(randomUUID().toString(), new TestEvent(), Map.of(), NOW.minusSeconds(2));
+
+        monitor.onMessageIngested(event).reportSuccess();
+        monitor.onMessageIngested(event).reportFailure(new IllegalStateException());
+
+        var projectionLagTimer = meterRegistry.get("axon.projections.lag")
+                .tag("component", "SubscribingEventProcessor")
+                .tag("name", "default")
+                .tag("payloadType", "TestEvent")
+                .timer();
+        assertEquals(1, projectionLagTimer.count());
+        assertEquals(2, projectionLagTimer.totalTime(SECONDS));
+    }
+
+    private long processingCount(String component, String name, String outcome) {
+        return meterRegistry.get("axon.messages.processing")
+                .tag("component", component)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private static class TestCommand {
+    }
+
+    private static class TestEvent {
+    }
+}
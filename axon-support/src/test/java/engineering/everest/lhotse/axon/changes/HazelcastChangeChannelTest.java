@@ -0,0 +1,96 @@
+package engineering.everest.lhotse.axon.changes;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.topic.ReliableMessageListener;
+import engineering.everest.lhotse.axon.changes.HazelcastChangeChannel.ChangeMessage;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.axon.changes.HazelcastChangeChannel.TOPIC_NAME;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HazelcastChangeChannelTest {
+
+    private static final UUID USER_ID = randomUUID();
+    private static final UUID ORGANIZATION_ID = randomUUID();
+
+    private HazelcastChangeChannel hazelcastChangeChannel;
+
+    @Mock
+    private HazelcastInstance hazelcastInstance;
+    @Mock
+    private ITopic<ChangeMessage> topic;
+
+    @BeforeEach
+    void setUp() {
+        when(hazelcastInstance.<ChangeMessage>getReliableTopic(TOPIC_NAME)).thenReturn(topic);
+        hazelcastChangeChannel = new HazelcastChangeChannel(hazelcastInstance);
+    }
+
+    @Test
+    void broadcast_WillPublishOnReliableTopic() {
+        hazelcastChangeChannel.broadcast(USER, USER_ID, ORGANIZATION_ID);
+
+        verify(topic).publish(new ChangeMessage(USER, USER_ID, ORGANIZATION_ID));
+    }
+
+    @Test
+    void addListener_WillNumberChangesWithRingbufferSequence() {
+        List<ChangeNotification> received = new ArrayList<>();
+        var listener = registerListener(received);
+
+        listener.storeSequence(41);
+        listener.onMessage(message(new ChangeMessage(USER, USER_ID, ORGANIZATION_ID)));
+
+        assertEquals(List.of(new ChangeNotification(41, USER, USER_ID, ORGANIZATION_ID)), received);
+    }
+
+    @Test
+    void addListener_WillStartFromNextChangeAndTolerateLoss() {
+        var listener = registerListener(new ArrayList<>());
+
+        assertEquals(-1, listener.retrieveInitialSequence());
+        assertTrue(listener.isLossTolerant());
+        assertFalse(listener.isTerminal(new RuntimeException()));
+    }
+
+    @Test
+    void removeListener_WillDelegate() {
+        hazelcastChangeChannel.removeListener("registration");
+
+        verify(topic).removeMessageListener("registration");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReliableMessageListener<ChangeMessage> registerListener(List<ChangeNotification> received) {
+        when(topic.addMessageListener(any())).thenReturn("registration");
+        assertEquals("registration", hazelcastChangeChannel.addListener(received::add));
+
+        var listenerCaptor = ArgumentCaptor.forClass(ReliableMessageListener.class);
+        verify(topic).addMessageListener(listenerCaptor.capture());
+        return listenerCaptor.getValue();
+    }
+
+    private static Message<ChangeMessage> message(ChangeMessage changeMessage) {
+        return new Message<>(TOPIC_NAME, changeMessage, 0L, null);
+    }
+}
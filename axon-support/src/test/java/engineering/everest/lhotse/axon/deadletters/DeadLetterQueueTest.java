@@ -0,0 +1,95 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterQueueTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final GenericDomainEventMessage<String> EVENT =
+            new GenericDomainEventMessage<>("Aggregate", "aggregate-1", 3, "payload");
+
+    @Mock
+    private DeadLettersRepository deadLettersRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadLetterQueue deadLetterQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetterQueue = new DeadLetterQueue(deadLettersRepository, transactionManager, Clock.fixed(NOW, UTC), meterRegistry);
+    }
+
+    @Test
+    void park_WillPersistTheEventAndParkItsAggregate() {
+        deadLetterQueue.park("default", EVENT, "missing row");
+
+        var deadLetter = ArgumentCaptor.forClass(PersistableDeadLetter.class);
+        verify(deadLettersRepository).save(deadLetter.capture());
+        assertEquals("aggregate-1", deadLetter.getValue().getAggregateIdentifier());
+        assertEquals(3, deadLetter.getValue().getSequenceNumber());
+        assertEquals(String.class.getName(), deadLetter.getValue().getPayloadType());
+        assertEquals(NOW, deadLetter.getValue().getParkedAt());
+        assertTrue(deadLetterQueue.isParked("default", "aggregate-1"));
+        assertFalse(deadLetterQueue.isParked("other", "aggregate-1"));
+        assertEquals(1, meterRegistry.get("axon.dead.letters.aggregates").gauge().value());
+    }
+
+    @Test
+    void park_WillNotPersistAnEventTwice() {
+        when(deadLettersRepository.existsByProcessorNameAndAggregateIdentifierAndSequenceNumber("default", "aggregate-1", 3))
+                .thenReturn(true);
+
+        deadLetterQueue.park("default", EVENT, "missing row");
+
+        verify(deadLettersRepository, never()).save(any());
+        assertTrue(deadLetterQueue.isParked("default", "aggregate-1"));
+    }
+
+    @Test
+    void refresh_WillReleaseAggregatesWhoseEventsWereRedeliveredElsewhere() {
+        deadLetterQueue.park("default", EVENT, "missing row");
+        when(deadLettersRepository.findAll()).thenReturn(List.of(
+                new PersistableDeadLetter(randomUUID(), "default", "aggregate-2", 0, "Payload", "cause", NOW)));
+
+        deadLetterQueue.refresh();
+
+        assertFalse(deadLetterQueue.isParked("default", "aggregate-1"));
+        assertTrue(deadLetterQueue.isParked("default", "aggregate-2"));
+    }
+
+    @Test
+    void discard_WillReleaseEveryAggregateOfTheProcessor() {
+        deadLetterQueue.park("default", EVENT, "missing row");
+
+        deadLetterQueue.discard("default");
+
+        verify(deadLettersRepository).deleteByProcessorName("default");
+        assertFalse(deadLetterQueue.isParked("default", "aggregate-1"));
+    }
+}
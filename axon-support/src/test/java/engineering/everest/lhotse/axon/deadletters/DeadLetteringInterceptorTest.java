@@ -0,0 +1,246 @@
+package engineering.everest.lhotse.axon.deadletters;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GenericTrackedDomainEventMessage;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Savepoint;
+
+import static java.util.Collections.emptySet;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetteringInterceptorTest {
+
+    private static final String PROCESSOR_NAME = "default";
+    private static final String AGGREGATE_ID = "aggregate-1";
+
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
+    @Mock
+    private InterceptorChain interceptorChain;
+    @Mock
+    private EntityManagerFactory projectionsEntityManagerFactory;
+    @Mock
+    private DataSource projectionsDataSource;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private EntityTransaction entityTransaction;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Savepoint savepoint;
+
+    private DeadLetteringInterceptor deadLetteringInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        deadLetteringInterceptor = new DeadLetteringInterceptor(PROCESSOR_NAME, deadLetterQueue,
+                projectionsEntityManagerFactory, projectionsDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(projectionsEntityManagerFactory);
+        TransactionSynchronizationManager.unbindResourceIfPossible(projectionsDataSource);
+    }
+
+    @Test
+    void handle_WillProceed_WhenAggregateIsNotParked() throws Exception {
+        when(interceptorChain.proceed()).thenReturn("handled");
+
+        assertEquals("handled", deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(trackedEvent(0)), interceptorChain));
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+    }
+
+    @Test
+    void handle_WillParkTrackedEventsThatFail_AndRollBackTheirBatch() throws Exception {
+        var event = trackedEvent(0);
+        var failure = new IllegalStateException("missing row");
+        when(interceptorChain.proceed()).thenThrow(failure);
+
+        var thrown = assertThrows(IllegalStateException.class,
+                () -> deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(event), interceptorChain));
+        assertSame(failure, thrown);
+        verify(deadLetterQueue).park(PROCESSOR_NAME, event, "java.lang.IllegalStateException: missing row");
+    }
+
+    @Test
+    void handle_WillHandleTrackedEventsWithoutASavepoint() throws Exception {
+        bindProjectionsTransaction();
+
+        deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(trackedEvent(0)), interceptorChain);
+
+        verify(interceptorChain).proceed();
+        verify(connection, never()).setSavepoint(anyString());
+    }
+
+    @Test
+    void handle_WillReleaseTheSavepoint_WhenAPublishedEventIsHandled() throws Exception {
+        bindProjectionsTransaction();
+        when(connection.setSavepoint(anyString())).thenReturn(savepoint);
+        when(interceptorChain.proceed()).thenReturn("handled");
+        var unitOfWork = DefaultUnitOfWork.startAndGet(new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first"));
+
+        assertEquals("handled", deadLetteringInterceptor.handle(unitOfWork, interceptorChain));
+        verify(entityManager, times(2)).flush();
+        verify(connection).releaseSavepoint(savepoint);
+        verify(connection, never()).rollback(any(Savepoint.class));
+    }
+
+    @Test
+    void handle_WillRollBackToTheSavepointAndClearThePersistenceContext_WhenAPublishedEventFails() throws Exception {
+        var event = new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first");
+        bindProjectionsTransaction();
+        when(connection.setSavepoint(anyString())).thenReturn(savepoint);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("missing row"));
+        var unitOfWork = DefaultUnitOfWork.startAndGet(event);
+
+        assertNull(deadLetteringInterceptor.handle(unitOfWork, interceptorChain));
+        verify(entityManager).clear();
+        verify(connection).rollback(savepoint);
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+
+        unitOfWork.commit();
+        verify(deadLetterQueue).park(PROCESSOR_NAME, event, "java.lang.IllegalStateException: missing row");
+    }
+
+    @Test
+    void handle_WillFailTheUnitOfWorkWithoutParking_WhenAFailedWriteLeftTheTransactionRollbackOnly() throws Exception {
+        bindProjectionsTransaction();
+        when(connection.setSavepoint(anyString())).thenReturn(savepoint);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityTransaction.getRollbackOnly()).thenReturn(true);
+        var failure = new PersistenceException("duplicate key");
+        doNothing().doThrow(failure).when(entityManager).flush();
+        var unitOfWork = DefaultUnitOfWork.startAndGet(new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first"));
+
+        var thrown = assertThrows(PersistenceException.class, () -> deadLetteringInterceptor.handle(unitOfWork, interceptorChain));
+        assertSame(failure, thrown);
+        verify(connection, never()).rollback(any(Savepoint.class));
+
+        unitOfWork.rollback();
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+    }
+
+    @Test
+    void handle_WillPropagateFailuresOfPublishedEvents_WhenThereIsNoProjectionsTransaction() throws Exception {
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("missing row"));
+        var unitOfWork = DefaultUnitOfWork.startAndGet(new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first"));
+
+        assertThrows(IllegalStateException.class, () -> deadLetteringInterceptor.handle(unitOfWork, interceptorChain));
+    }
+
+    @Test
+    void handle_WillParkLaterEventsOfAParkedAggregate_WithoutHandlingThem() throws Exception {
+        var event = trackedEvent(1);
+        when(deadLetterQueue.isParked(PROCESSOR_NAME, AGGREGATE_ID)).thenReturn(true);
+
+        deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(event), interceptorChain);
+
+        verify(interceptorChain, never()).proceed();
+        verify(deadLetterQueue).park(eq(PROCESSOR_NAME), eq(event), anyString());
+    }
+
+    @Test
+    void handle_WillParkPublishedEventsOnlyOnceTheirUnitOfWorkCommits() throws Exception {
+        var firstEvent = new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first");
+        var secondEvent = new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 1, "second");
+        bindProjectionsTransaction();
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("missing row"));
+        var unitOfWork = DefaultUnitOfWork.startAndGet(firstEvent);
+
+        deadLetteringInterceptor.handle(unitOfWork, interceptorChain);
+        deadLetteringInterceptor.handle(unitOfWork.transformMessage(m -> secondEvent), interceptorChain);
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+
+        unitOfWork.commit();
+        verify(deadLetterQueue).park(eq(PROCESSOR_NAME), eq(firstEvent), anyString());
+        verify(deadLetterQueue).park(eq(PROCESSOR_NAME), eq(secondEvent), anyString());
+    }
+
+    @Test
+    void handle_WillNotParkPublishedEvents_WhenTheirUnitOfWorkRollsBack() throws Exception {
+        bindProjectionsTransaction();
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("missing row"));
+        var unitOfWork = DefaultUnitOfWork.startAndGet(new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, 0, "first"));
+
+        deadLetteringInterceptor.handle(unitOfWork, interceptorChain);
+        unitOfWork.rollback();
+
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+    }
+
+    @Test
+    void handle_WillLogAndContinue_WhenAPublishedEventWithoutAggregateFails() throws Exception {
+        EventMessage<?> event = asEventMessage("payload");
+        bindProjectionsTransaction();
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("failed"));
+
+        assertNull(deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(event), interceptorChain));
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+    }
+
+    @Test
+    void handle_WillPropagateFailures_WhenATrackedEventWithoutAggregateFails() throws Exception {
+        EventMessage<?> event = new GenericTrackedEventMessage<>(GapAwareTrackingToken.newInstance(0, emptySet()),
+                asEventMessage("payload"));
+        when(interceptorChain.proceed()).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class,
+                () -> deadLetteringInterceptor.handle(DefaultUnitOfWork.startAndGet(event), interceptorChain));
+        verify(deadLetterQueue, never()).park(anyString(), any(), anyString());
+    }
+
+    private void bindProjectionsTransaction() {
+        TransactionSynchronizationManager.bindResource(projectionsEntityManagerFactory, new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.bindResource(projectionsDataSource, new ConnectionHolder(connection));
+    }
+
+    private static DomainEventMessage<?> trackedEvent(long sequenceNumber) {
+        return new GenericTrackedDomainEventMessage<>(GapAwareTrackingToken.newInstance(sequenceNumber, emptySet()),
+                new GenericDomainEventMessage<>("Aggregate", AGGREGATE_ID, sequenceNumber, "payload"));
+    }
+}
@@ -0,0 +1,108 @@
+package engineering.everest.lhotse.axon.replay;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplayAwareProjectionPositionsTest {
+
+    @Mock
+    private AxonConfiguration axonConfiguration;
+    @Mock
+    private EventProcessingConfiguration eventProcessingConfiguration;
+    @Mock
+    private SwitchingEventProcessor switchingEventProcessor;
+    @Mock
+    private EventStore eventStore;
+
+    private ReplayAwareProjectionPositions replayAwareProjectionPositions;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(axonConfiguration.eventProcessingConfiguration()).thenReturn(eventProcessingConfiguration);
+        lenient().when(eventProcessingConfiguration.eventProcessors()).thenReturn(Map.of("default", switchingEventProcessor));
+        replayAwareProjectionPositions = new ReplayAwareProjectionPositions(axonConfiguration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayAwareProjectionPositions.shutdown();
+    }
+
+    @Test
+    void headPosition_WillBeTheGlobalIndexOfTheLatestEvent() {
+        when(axonConfiguration.eventStore()).thenReturn(eventStore);
+        when(eventStore.createHeadToken()).thenReturn(GapAwareTrackingToken.newInstance(42, emptySet()));
+
+        assertEquals(42, replayAwareProjectionPositions.headPosition());
+    }
+
+    @Test
+    void headPosition_WillBeNegative_WhenTheEventStoreIsEmpty() {
+        when(axonConfiguration.eventStore()).thenReturn(eventStore);
+
+        assertEquals(-1, replayAwareProjectionPositions.headPosition());
+    }
+
+    @Test
+    void whenProcessed_WillBeCompleteAlready_WhenEveryProcessorHasCaughtUp() {
+        when(switchingEventProcessor.hasProcessed(42)).thenReturn(true);
+
+        var processed = replayAwareProjectionPositions.whenProcessed(42, Duration.ofSeconds(5));
+
+        assertTrue(processed.isDone());
+        assertTrue(processed.join());
+    }
+
+    @Test
+    void whenProcessed_WillCompleteOnceEveryProcessorHasCaughtUp() throws Exception {
+        when(switchingEventProcessor.hasProcessed(42)).thenReturn(false, false, true);
+
+        assertTrue(replayAwareProjectionPositions.whenProcessed(42, Duration.ofSeconds(5)).get(5, SECONDS));
+    }
+
+    @Test
+    void whenProcessed_WillGiveUp_WhenTheTimeoutElapses() throws Exception {
+        when(switchingEventProcessor.hasProcessed(42)).thenReturn(false);
+
+        assertFalse(replayAwareProjectionPositions.whenProcessed(42, Duration.ofMillis(50)).get(5, SECONDS));
+    }
+
+    @Test
+    void whenProcessed_WillFail_WhenCheckingProcessorsFails() {
+        when(switchingEventProcessor.hasProcessed(42)).thenReturn(false).thenThrow(new IllegalStateException());
+
+        var processed = replayAwareProjectionPositions.whenProcessed(42, Duration.ofSeconds(5));
+
+        var exception = assertThrows(ExecutionException.class, () -> processed.get(5, SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void whenProcessed_WillNotWait_WhenNoPositionWasGiven() {
+        assertTrue(replayAwareProjectionPositions.whenProcessed(-1, Duration.ofSeconds(5)).join());
+        verifyNoInteractions(switchingEventProcessor);
+    }
+}
@@ -1,5 +1,6 @@
 package engineering.everest.lhotse.axon.replay;
 
+import engineering.everest.lhotse.axon.deadletters.DeadLetterQueue;
 import org.axonframework.config.EventProcessingConfiguration;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventhandling.gateway.EventGateway;
@@ -46,6 +47,8 @@ class ReplayEndpointTest {
     private EventGateway eventGateway;
     @Mock
     private TrackingToken trackingToken;
+    @Mock
+    private DeadLetterQueue deadLetterQueue;
 
     private ReplayEndpoint replayEndpoint;
 
@@ -54,7 +57,7 @@ class ReplayEndpointTest {
         lenient().when(axonConfiguration.eventProcessingConfiguration()).thenReturn(eventProcessingConfiguration);
         lenient().when(eventProcessingConfiguration.eventProcessors()).thenReturn(Map.of("default", switchingEventProcessor));
         lenient().when(switchingEventProcessor.isRelaying()).thenReturn(false);
-        replayEndpoint = new ReplayEndpoint(axonConfiguration, List.of(replayCompletionAware), taskExecutor);
+        replayEndpoint = new ReplayEndpoint(axonConfiguration, List.of(replayCompletionAware), taskExecutor, deadLetterQueue);
     }
 
     @Test
@@ -68,7 +71,9 @@ class ReplayEndpointTest {
         when(axonConfiguration.eventStore()).thenReturn(eventStore);
         when(axonConfiguration.eventGateway()).thenReturn(eventGateway);
         when(eventStore.createTailToken()).thenReturn(trackingToken);
+        when(switchingEventProcessor.getName()).thenReturn("default");
         replayEndpoint.startReplay(null, null);
+        verify(deadLetterQueue).discard("default");
         verify(switchingEventProcessor).startReplay(trackingToken);
         verify(eventGateway).publish(any(ReplayMarkerEvent.class));
     }
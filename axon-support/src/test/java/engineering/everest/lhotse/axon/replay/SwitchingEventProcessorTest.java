@@ -1,10 +1,17 @@
 package engineering.everest.lhotse.axon.replay;
 
+import org.axonframework.eventhandling.EventHandlerInvoker;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.SubscribingEventProcessor;
 import org.axonframework.eventhandling.TrackingEventProcessor;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.lifecycle.ShutdownHandler;
 import org.axonframework.lifecycle.StartHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +19,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static java.util.Collections.emptySet;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,12 +41,14 @@ class SwitchingEventProcessorTest {
     private TrackingEventProcessor trackingEventProcessor;
     @Mock
     private TrackingToken trackingToken;
+    @Mock
+    private EventHandlerInvoker eventHandlerInvoker;
 
     private SwitchingEventProcessor switchingEventProcessor;
 
     @BeforeEach
     void setUp() {
-        switchingEventProcessor = new SwitchingEventProcessor(subscribingEventProcessor, trackingEventProcessor);
+        switchingEventProcessor = new SwitchingEventProcessor(subscribingEventProcessor, trackingEventProcessor, eventHandlerInvoker);
     }
 
     @Test
@@ -59,6 +74,87 @@ class SwitchingEventProcessorTest {
         assertTrue(switchingEventProcessor.isRelaying());
     }
 
+    @Test
+    void hasProcessed_WillBeTrue_WhenNotReplaying() {
+        assertTrue(switchingEventProcessor.hasProcessed(42));
+    }
+
+    @Test
+    void hasProcessed_WillCompareWithTrackedPosition_WhenReplaying() {
+        var trackerStatus = mock(EventTrackerStatus.class);
+        when(trackerStatus.getTrackingToken()).thenReturn(GapAwareTrackingToken.newInstance(10, emptySet()));
+        when(trackingEventProcessor.processingStatus()).thenReturn(Map.of(0, trackerStatus));
+        switchingEventProcessor.startReplay(trackingToken);
+
+        assertTrue(switchingEventProcessor.hasProcessed(10));
+        assertFalse(switchingEventProcessor.hasProcessed(11));
+    }
+
+    @Test
+    void hasProcessed_WillBeTrue_WhenTrackedTokenHasGapsBelowThePosition() {
+        var trackerStatus = mock(EventTrackerStatus.class);
+        when(trackerStatus.getTrackingToken()).thenReturn(GapAwareTrackingToken.newInstance(10, Set.of(7L)));
+        when(trackingEventProcessor.processingStatus()).thenReturn(Map.of(0, trackerStatus));
+        switchingEventProcessor.startReplay(trackingToken);
+
+        assertTrue(switchingEventProcessor.hasProcessed(9));
+    }
+
+    @Test
+    void hasProcessed_WillCompareWithCurrentPosition_WhenTrackedTokenIsAReplayToken() {
+        var trackerStatus = mock(EventTrackerStatus.class);
+        when(trackerStatus.getTrackingToken()).thenReturn(ReplayToken.createReplayToken(
+                GapAwareTrackingToken.newInstance(20, emptySet()), GapAwareTrackingToken.newInstance(10, emptySet())));
+        when(trackingEventProcessor.processingStatus()).thenReturn(Map.of(0, trackerStatus));
+        switchingEventProcessor.startReplay(trackingToken);
+
+        assertTrue(switchingEventProcessor.hasProcessed(10));
+        assertFalse(switchingEventProcessor.hasProcessed(11));
+    }
+
+    @Test
+    void hasProcessed_WillBeFalse_WhenReplayHasNotClaimedASegmentYet() {
+        when(trackingEventProcessor.processingStatus()).thenReturn(Map.of());
+        switchingEventProcessor.startReplay(trackingToken);
+
+        assertFalse(switchingEventProcessor.hasProcessed(0));
+    }
+
+    @Test
+    void trackingTokens_WillBeEmpty_WhenNotReplaying() {
+        assertTrue(switchingEventProcessor.trackingTokens().isEmpty());
+    }
+
+    @Test
+    void trackingTokens_WillBeThoseOfClaimedSegments_WhenReplaying() {
+        var trackedToken = GapAwareTrackingToken.newInstance(10, emptySet());
+        var claimedStatus = mock(EventTrackerStatus.class);
+        var startingStatus = mock(EventTrackerStatus.class);
+        when(claimedStatus.getTrackingToken()).thenReturn(trackedToken);
+        when(trackingEventProcessor.processingStatus()).thenReturn(Map.of(0, claimedStatus, 1, startingStatus));
+        switchingEventProcessor.startReplay(trackingToken);
+
+        assertEquals(List.of(trackedToken), switchingEventProcessor.trackingTokens());
+    }
+
+    @Test
+    void registerHandlerInterceptor_WillRegisterWithBothProcessingModes() {
+        MessageHandlerInterceptor<EventMessage<?>> handlerInterceptor = (unitOfWork, interceptorChain) -> interceptorChain.proceed();
+        when(subscribingEventProcessor.registerHandlerInterceptor(handlerInterceptor)).thenReturn(() -> true);
+        when(trackingEventProcessor.registerHandlerInterceptor(handlerInterceptor)).thenReturn(() -> true);
+
+        assertTrue(switchingEventProcessor.registerHandlerInterceptor(handlerInterceptor).cancel());
+    }
+
+    @Test
+    void redeliver_WillInvokeEventHandlersDirectly() throws Exception {
+        var eventMessage = asEventMessage("payload");
+
+        switchingEventProcessor.redeliver(eventMessage);
+
+        verify(eventHandlerInvoker).handle(eventMessage, Segment.ROOT_SEGMENT);
+    }
+
     @Test
     void getName_WillDelegate() {
         when(subscribingEventProcessor.getName()).thenReturn("Jim");
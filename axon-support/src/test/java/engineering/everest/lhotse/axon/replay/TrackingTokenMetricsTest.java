@@ -0,0 +1,79 @@
+package engineering.everest.lhotse.axon.replay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingTokenMetricsTest {
+
+    @Mock
+    private AxonConfiguration axonConfiguration;
+    @Mock
+    private EventProcessingConfiguration eventProcessingConfiguration;
+    @Mock
+    private SwitchingEventProcessor switchingEventProcessor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(axonConfiguration.eventProcessingConfiguration()).thenReturn(eventProcessingConfiguration);
+        lenient().when(eventProcessingConfiguration.eventProcessors()).thenReturn(Map.of("default", switchingEventProcessor));
+        lenient().when(axonConfiguration.serializer()).thenReturn(JacksonSerializer.builder().build());
+        new TrackingTokenMetrics(axonConfiguration, meterRegistry);
+    }
+
+    @Test
+    void gapsGauge_WillReportTheMostGapsOfAnyReplayToken() {
+        var fewGaps = GapAwareTrackingToken.newInstance(100, List.of(90L));
+        var manyGaps = GapAwareTrackingToken.newInstance(100, List.of(10L, 20L, 30L));
+        when(switchingEventProcessor.trackingTokens()).thenReturn(List.of(fewGaps,
+                ReplayToken.createReplayToken(GapAwareTrackingToken.newInstance(200, emptySet()), manyGaps)));
+
+        assertEquals(3, meterRegistry.get("axon.tracking.token.gaps").gauge().value());
+    }
+
+    @Test
+    void sizeGauge_WillGrowWithTheGapsCarried() {
+        when(switchingEventProcessor.trackingTokens())
+                .thenReturn(List.of(GapAwareTrackingToken.newInstance(1000, emptySet())));
+        double sizeWithoutGaps = meterRegistry.get("axon.tracking.token.size").gauge().value();
+
+        var gaps = LongStream.range(0, 500).boxed().collect(Collectors.toList());
+        when(switchingEventProcessor.trackingTokens())
+                .thenReturn(List.of(GapAwareTrackingToken.newInstance(1000, gaps)));
+        double sizeWithGaps = meterRegistry.get("axon.tracking.token.size").gauge().value();
+
+        assertTrue(sizeWithoutGaps > 0);
+        assertTrue(sizeWithGaps > sizeWithoutGaps);
+    }
+
+    @Test
+    void gauges_WillReportZero_WhenNothingIsReplaying() {
+        when(switchingEventProcessor.trackingTokens()).thenReturn(List.of());
+
+        assertEquals(0, meterRegistry.get("axon.tracking.token.gaps").gauge().value());
+        assertEquals(0, meterRegistry.get("axon.tracking.token.size").gauge().value());
+    }
+}
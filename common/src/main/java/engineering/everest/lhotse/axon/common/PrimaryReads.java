@@ -0,0 +1,25 @@
+package engineering.everest.lhotse.axon.common;
+
+import java.util.function.Supplier;
+
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> false);
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> reads) {
+        boolean previouslyRequired = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(true);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_REQUIRED.set(previouslyRequired);
+        }
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get();
+    }
+}
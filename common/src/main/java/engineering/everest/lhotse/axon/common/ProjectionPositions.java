@@ -0,0 +1,11 @@
+package engineering.everest.lhotse.axon.common;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ProjectionPositions {
+
+    long headPosition();
+
+    CompletableFuture<Boolean> whenProcessed(long position, Duration timeout);
+}
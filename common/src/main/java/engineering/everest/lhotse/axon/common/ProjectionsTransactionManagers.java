@@ -0,0 +1,11 @@
+package engineering.everest.lhotse.axon.common;
+
+public final class ProjectionsTransactionManagers {
+
+    // Projections only, without the event store. Starts its own transaction synchronization, so read-only work is
+    // visible to replica routing.
+    public static final String PROJECTIONS_ONLY = "projectionsOnlyTransactionManager";
+
+    private ProjectionsTransactionManagers() {
+    }
+}
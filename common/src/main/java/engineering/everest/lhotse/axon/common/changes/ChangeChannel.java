@@ -0,0 +1,14 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface ChangeChannel {
+
+    void broadcast(ChangedEntityType entityType, UUID entityId, UUID organizationId);
+
+    // Every listener on every node receives every broadcast change, numbered in one cluster-wide order
+    String addListener(Consumer<ChangeNotification> listener);
+
+    void removeListener(String registrationId);
+}
@@ -0,0 +1,206 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+@Log4j2
+public class ChangeFeed {
+
+    private static final long NO_SEQUENCE = -1;
+
+    private final ChangeChannel changeChannel;
+    private final Deque<ChangeNotification> retainedChanges = new ArrayDeque<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService deliveryExecutor;
+    private final int retainedChangesLimit;
+    private final int subscriberQueueCapacity;
+    private long lastSequence = NO_SEQUENCE;
+    private String channelRegistration;
+
+    @Autowired
+    public ChangeFeed(ChangeChannel changeChannel,
+                      @Value("${application.changes.retained:1000}") int retainedChangesLimit,
+                      @Value("${application.changes.subscriber-queue-capacity:100}") int subscriberQueueCapacity) {
+        this(changeChannel, retainedChangesLimit, subscriberQueueCapacity, newDeliveryExecutor());
+    }
+
+    ChangeFeed(ChangeChannel changeChannel, int retainedChangesLimit, int subscriberQueueCapacity, ExecutorService deliveryExecutor) {
+        this.changeChannel = changeChannel;
+        this.retainedChangesLimit = retainedChangesLimit;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    @PostConstruct
+    public void start() {
+        channelRegistration = changeChannel.addListener(this::receive);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        changeChannel.removeListener(channelRegistration);
+        deliveryExecutor.shutdownNow();
+    }
+
+    public void publish(ChangedEntityType entityType, UUID entityId, UUID organizationId) {
+        changeChannel.broadcast(entityType, entityId, organizationId);
+    }
+
+    public Subscription subscribe(Long lastSeenSequence, Predicate<ChangeNotification> filter, ChangeListener listener) {
+        var subscription = new Subscription(filter, listener);
+        synchronized (this) {
+            if (lastSeenSequence != null) {
+                var missedChanges = isRetainedAfter(lastSeenSequence) ? retainedChangesAfter(lastSeenSequence, filter) : null;
+                if (missedChanges == null || missedChanges.size() > subscriberQueueCapacity) {
+                    // Before any change can be delivered, and before the caller has handed its client anything to wait on
+                    listener.onReset();
+                } else {
+                    missedChanges.forEach(subscription::offer);
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        return subscription;
+    }
+
+    private void receive(ChangeNotification change) {
+        synchronized (this) {
+            if (lastSequence != NO_SEQUENCE && change.getSequence() != lastSequence + 1) {
+                // This node fell behind the channel, or the channel restarted, so nobody here can resume across the gap
+                LOGGER.warn("Change feed skipped from sequence {} to {}, resetting {} subscriptions",
+                        lastSequence, change.getSequence(), subscriptions.size());
+                retainedChanges.clear();
+                subscriptions.forEach(Subscription::reset);
+            }
+            lastSequence = change.getSequence();
+            retainedChanges.addLast(change);
+            if (retainedChanges.size() > retainedChangesLimit) {
+                retainedChanges.removeFirst();
+            }
+            subscriptions.forEach(subscription -> subscription.offer(change));
+        }
+    }
+
+    private static ExecutorService newDeliveryExecutor() {
+        var threadCount = new AtomicInteger();
+        // Grows with the subscribers that have changes pending, since each may be blocked writing to its client
+        return Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "change-feed-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private boolean isRetainedAfter(long sequence) {
+        if (lastSequence == NO_SEQUENCE || sequence > lastSequence) {
+            return false;
+        }
+        var oldestRetained = retainedChanges.isEmpty() ? lastSequence + 1 : retainedChanges.getFirst().getSequence();
+        return sequence >= oldestRetained - 1;
+    }
+
+    private List<ChangeNotification> retainedChangesAfter(long sequence, Predicate<ChangeNotification> filter) {
+        return retainedChanges.stream()
+                .filter(change -> change.getSequence() > sequence)
+                .filter(filter)
+                .collect(toList());
+    }
+
+    public final class Subscription {
+        private final Predicate<ChangeNotification> filter;
+        private final ChangeListener listener;
+        private final BlockingQueue<ChangeNotification> pendingChanges;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resetPending;
+        private volatile boolean dropped;
+        private volatile boolean cancelled;
+        private volatile boolean droppedNotified;
+
+        private Subscription(Predicate<ChangeNotification> filter, ChangeListener listener) {
+            this.filter = filter;
+            this.listener = listener;
+            this.pendingChanges = new ArrayBlockingQueue<>(subscriberQueueCapacity);
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            pendingChanges.clear();
+        }
+
+        private void offer(ChangeNotification change) {
+            if (cancelled || !filter.test(change)) {
+                return;
+            }
+            if (!pendingChanges.offer(change)) {
+                // Never waits on a slow client, which instead reconnects and resumes or resets from its last event id
+                dropped = true;
+                cancel();
+            }
+            scheduleDrain();
+        }
+
+        private void reset() {
+            pendingChanges.clear();
+            resetPending = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        // Runs on one delivery thread at a time per subscription, so a slow client only holds up itself
+        private void drain() {
+            try {
+                if (dropped) {
+                    if (!droppedNotified) {
+                        droppedNotified = true;
+                        listener.onDropped();
+                    }
+                    return;
+                }
+                if (resetPending) {
+                    resetPending = false;
+                    listener.onReset();
+                }
+                ChangeNotification change = pendingChanges.poll();
+                while (change != null && !cancelled) {
+                    listener.onChange(change);
+                    change = pendingChanges.poll();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.debug("Cancelling change feed subscription after failed delivery", e);
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            if (dropped ? !droppedNotified : !cancelled && (resetPending || !pendingChanges.isEmpty())) {
+                scheduleDrain();
+            }
+        }
+    }
+}
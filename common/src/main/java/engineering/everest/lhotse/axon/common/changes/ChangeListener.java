@@ -0,0 +1,12 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+public interface ChangeListener {
+
+    void onChange(ChangeNotification change);
+
+    // Changes since the last one seen can no longer be delivered, so current state has to be re-read
+    void onReset();
+
+    // Fell too far behind and has been unsubscribed, the client should reconnect from its last seen change
+    void onDropped();
+}
@@ -0,0 +1,13 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+public class ChangeNotification {
+    long sequence;
+    ChangedEntityType entityType;
+    UUID entityId;
+    UUID organizationId;
+}
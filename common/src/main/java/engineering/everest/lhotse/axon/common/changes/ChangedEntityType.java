@@ -0,0 +1,6 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+public enum ChangedEntityType {
+    ORGANIZATION,
+    USER
+}
@@ -2,14 +2,13 @@ package engineering.everest.lhotse.axon.common.domain;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.Arrays;
 import java.util.Set;
 import java.util.UUID;
 
-import static engineering.everest.lhotse.axon.common.domain.Role.ADMIN;
-import static engineering.everest.lhotse.axon.common.domain.Role.ORG_ADMIN;
 import static engineering.everest.lhotse.axon.common.domain.Role.ORG_USER;
 
 @Data
@@ -25,6 +24,9 @@ public class User implements Identifiable {
     private String email;
     private boolean disabled;
     private Set<Role> roles;
+    // Version of the projection row this user was read from, so conditional requests are answered from the same read
+    @EqualsAndHashCode.Exclude
+    private long version;
 
     public User(UUID id, UUID organizationId, String username, String displayName) {
         this(id, organizationId, username, displayName, false);
@@ -34,6 +36,11 @@ public class User implements Identifiable {
         this(id, organizationId, username, displayName, username, disabled, Set.of(ORG_USER));
     }
 
+    public User(UUID id, UUID organizationId, String username, String displayName, String email, boolean disabled,
+                Set<Role> roles) {
+        this(id, organizationId, username, displayName, email, disabled, roles, 0L);
+    }
+
     public boolean hasRole(Role role) {
         return roles.contains(role);
     }
@@ -42,13 +49,17 @@ public class User implements Identifiable {
         return Arrays.stream(roles).anyMatch(this::hasRole);
     }
 
+    public UserPermissionView toPermissionView() {
+        return new UserPermissionView(id, organizationId, disabled);
+    }
+
     @Override
-    public boolean canUpdate(User user) {
-        return isAdminOrAdminOfOrganization(user);
+    public boolean canRead(User user) {
+        return toPermissionView().canRead(user);
     }
 
-    private boolean isAdminOrAdminOfOrganization(User user) {
-        return user.hasRole(ADMIN)
-                || user.hasRole(ORG_ADMIN) && user.getOrganizationId().equals(organizationId);
+    @Override
+    public boolean canUpdate(User user) {
+        return toPermissionView().canUpdate(user);
     }
 }
@@ -0,0 +1,27 @@
+package engineering.everest.lhotse.axon.common.domain;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+import static engineering.everest.lhotse.axon.common.domain.Role.ADMIN;
+import static engineering.everest.lhotse.axon.common.domain.Role.ORG_ADMIN;
+
+@Value
+public class UserPermissionView implements Identifiable {
+    UUID id;
+    UUID organizationId;
+    boolean disabled;
+
+    @Override
+    public boolean canRead(User user) {
+        return user.hasRole(ADMIN)
+                || organizationId != null && organizationId.equals(user.getOrganizationId());
+    }
+
+    @Override
+    public boolean canUpdate(User user) {
+        return user.hasRole(ADMIN)
+                || user.hasRole(ORG_ADMIN) && user.getOrganizationId().equals(organizationId);
+    }
+}
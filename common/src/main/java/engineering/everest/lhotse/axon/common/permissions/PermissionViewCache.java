@@ -0,0 +1,110 @@
+package engineering.everest.lhotse.axon.common.permissions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.domain.Identifiable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@Component
+@Log4j2
+public class PermissionViewCache {
+
+    private static final long NO_SEQUENCE = -1;
+
+    private final ChangeChannel changeChannel;
+    private final Cache<Key, Identifiable> permissionViews;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private long lastSequence = NO_SEQUENCE;
+    private String entityChanges;
+
+    @Autowired
+    public PermissionViewCache(ChangeChannel changeChannel,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.permissions.cache.maximum-size:50000}") long maximumSize,
+                               @Value("${application.permissions.cache.expire-after-write-seconds:30}") long expireAfterWriteSeconds) {
+        this.changeChannel = changeChannel;
+        this.permissionViews = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, permissionViews, "permission-views");
+    }
+
+    // Views decide access, so changes made on any node must evict them everywhere rather than wait for expiry
+    @PostConstruct
+    public void subscribeToEntityChanges() {
+        entityChanges = changeChannel.addListener(this::onChange);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromEntityChanges() {
+        changeChannel.removeListener(entityChanges);
+    }
+
+    public Identifiable get(String targetType, UUID entityId, Supplier<? extends Identifiable> loader) {
+        var key = new Key(targetType, entityId);
+        var permissionView = permissionViews.getIfPresent(key);
+        if (permissionView != null) {
+            return permissionView;
+        }
+        long invalidationCountBeforeLoad = invalidationCount.get();
+        permissionView = loader.get();
+        synchronized (this) {
+            // Never cache a view read before an invalidation that happened while it was loading
+            if (invalidationCount.get() == invalidationCountBeforeLoad) {
+                permissionViews.put(key, permissionView);
+            }
+        }
+        return permissionView;
+    }
+
+    // Evicts the entity's views under every target type, since changes only identify the entity
+    public void invalidate(UUID entityId) {
+        synchronized (this) {
+            invalidationCount.incrementAndGet();
+            permissionViews.asMap().keySet().removeIf(key -> entityId.equals(key.getId()));
+        }
+    }
+
+    public void invalidateAll() {
+        LOGGER.info("Invalidating all cached permission views");
+        synchronized (this) {
+            invalidationCount.incrementAndGet();
+            permissionViews.invalidateAll();
+        }
+    }
+
+    private void onChange(ChangeNotification change) {
+        synchronized (this) {
+            if (lastSequence != NO_SEQUENCE && change.getSequence() != lastSequence + 1) {
+                LOGGER.warn("Permission view cache missed changes {} to {}, dropping all views",
+                        lastSequence + 1, change.getSequence() - 1);
+                invalidateAll();
+            }
+            lastSequence = change.getSequence();
+        }
+        invalidate(change.getEntityId());
+    }
+
+    @lombok.Value
+    private static class Key {
+        String targetType;
+        UUID id;
+    }
+}
@@ -6,4 +6,9 @@ import java.util.UUID;
 
 public interface ReadService<T extends Identifiable> {
     T getById(UUID id);
+
+    // Just enough of the entity to evaluate its permission rules; services override this with a cheaper query
+    default Identifiable getPermissionView(UUID id) {
+        return getById(id);
+    }
 }
@@ -0,0 +1,36 @@
+package engineering.everest.lhotse.axon.common;
+
+import org.junit.jupiter.api.Test;
+
+import static engineering.everest.lhotse.axon.common.PrimaryReads.isPrimaryRequired;
+import static engineering.everest.lhotse.axon.common.PrimaryReads.onPrimary;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimaryReadsTest {
+
+    @Test
+    void onPrimary_WillRequirePrimaryOnlyWhileReading() {
+        assertFalse(isPrimaryRequired());
+        assertTrue(onPrimary(PrimaryReads::isPrimaryRequired));
+        assertFalse(isPrimaryRequired());
+    }
+
+    @Test
+    void onPrimary_WillStillRequirePrimary_WhenNestedReadsComplete() {
+        assertEquals(true, onPrimary(() -> {
+            onPrimary(() -> null);
+            return isPrimaryRequired();
+        }));
+    }
+
+    @Test
+    void onPrimary_WillRestorePreviousState_WhenReadsFail() {
+        assertThrows(IllegalStateException.class, () -> onPrimary(() -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(isPrimaryRequired());
+    }
+}
@@ -0,0 +1,238 @@
+package engineering.everest.lhotse.axon.common.changes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+
+    private static final UUID ORGANIZATION_ID = randomUUID();
+    private static final UUID OTHER_ORGANIZATION_ID = randomUUID();
+    private static final int RETAINED_CHANGES = 3;
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 2;
+
+    private FakeChangeChannel changeChannel;
+    private ExecutorService deliveryExecutor;
+    private ChangeFeed changeFeed;
+    private RecordingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        changeChannel = new FakeChangeChannel();
+        deliveryExecutor = Executors.newSingleThreadExecutor();
+        changeFeed = new ChangeFeed(changeChannel, RETAINED_CHANGES, SUBSCRIBER_QUEUE_CAPACITY, deliveryExecutor);
+        changeFeed.start();
+        listener = new RecordingListener();
+    }
+
+    @Test
+    void publish_WillBroadcastOnChannel() {
+        var userId = randomUUID();
+
+        changeFeed.publish(USER, userId, ORGANIZATION_ID);
+
+        assertEquals(List.of(new ChangeNotification(0, USER, userId, ORGANIZATION_ID)), changeChannel.broadcast);
+    }
+
+    @Test
+    void subscribe_WillReceiveChangesFromChannel_WhenFilterMatches() throws InterruptedException {
+        changeFeed.subscribe(null, change -> ORGANIZATION_ID.equals(change.getOrganizationId()), listener);
+
+        changeFeed.publish(USER, randomUUID(), ORGANIZATION_ID);
+        changeFeed.publish(ORGANIZATION, OTHER_ORGANIZATION_ID, OTHER_ORGANIZATION_ID);
+        awaitDelivery();
+
+        assertEquals(List.of(changeChannel.broadcast.get(0)), listener.changes);
+        assertEquals(0, listener.resets);
+    }
+
+    @Test
+    void subscribe_WillReplayRetainedChanges_WhenResumingFromLastEventId() throws InterruptedException {
+        changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        changeFeed.publish(USER, randomUUID(), ORGANIZATION_ID);
+
+        changeFeed.subscribe(0L, change -> true, listener);
+        awaitDelivery();
+
+        assertEquals(List.of(changeChannel.broadcast.get(1)), listener.changes);
+        assertEquals(0, listener.resets);
+    }
+
+    @Test
+    void subscribe_WillResetListener_WhenLastEventIdIsNoLongerRetained() throws InterruptedException {
+        for (int i = 0; i < RETAINED_CHANGES + 1; i++) {
+            changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        }
+
+        changeFeed.subscribe(-1L, change -> true, listener);
+        awaitDelivery();
+
+        assertEquals(1, listener.resets);
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    void subscribe_WillResetListener_WhenMoreChangesWereMissedThanItsQueueHolds() throws InterruptedException {
+        for (int i = 0; i < RETAINED_CHANGES; i++) {
+            changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        }
+
+        changeFeed.subscribe(-1L, change -> true, listener);
+        awaitDelivery();
+
+        assertEquals(1, listener.resets);
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    void subscribe_WillResetListener_WhenLastEventIdPredatesThisNodeJoiningTheChannel() {
+        changeFeed.subscribe(42L, change -> true, listener);
+
+        assertEquals(1, listener.resets);
+    }
+
+    @Test
+    void receive_WillResetSubscribers_WhenChannelSkipsSequences() throws InterruptedException {
+        changeFeed.subscribe(null, change -> true, listener);
+        changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        var afterGap = new ChangeNotification(5, ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+
+        changeChannel.deliver(afterGap);
+        awaitDelivery();
+
+        assertEquals(1, listener.resets);
+        assertEquals(afterGap, listener.changes.get(listener.changes.size() - 1));
+    }
+
+    @Test
+    void receive_WillDropSubscriber_WhenItsQueueIsFull() throws InterruptedException {
+        var blockDelivery = new CountDownLatch(1);
+        deliveryExecutor.execute(() -> awaitQuietly(blockDelivery));
+        changeFeed.subscribe(null, change -> true, listener);
+
+        for (int i = 0; i < SUBSCRIBER_QUEUE_CAPACITY + 1; i++) {
+            changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        }
+        blockDelivery.countDown();
+        awaitDelivery();
+
+        assertEquals(1, listener.drops);
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    void receive_WillKeepDeliveringToOtherSubscribers_WhenOneIsDropped() throws InterruptedException {
+        var blockDelivery = new CountDownLatch(1);
+        var slowListener = new RecordingListener();
+        changeFeed.subscribe(null, change -> true, slowListener);
+        deliveryExecutor.execute(() -> awaitQuietly(blockDelivery));
+        changeFeed.subscribe(null, change -> ORGANIZATION_ID.equals(change.getOrganizationId()), listener);
+
+        changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        for (int i = 0; i < SUBSCRIBER_QUEUE_CAPACITY; i++) {
+            changeFeed.publish(ORGANIZATION, OTHER_ORGANIZATION_ID, OTHER_ORGANIZATION_ID);
+        }
+        blockDelivery.countDown();
+        awaitDelivery();
+
+        assertEquals(1, slowListener.drops);
+        assertEquals(List.of(changeChannel.broadcast.get(0)), listener.changes);
+        assertEquals(0, listener.drops);
+    }
+
+    @Test
+    void cancel_WillStopDelivery() throws InterruptedException {
+        var subscription = changeFeed.subscribe(null, change -> true, listener);
+        subscription.cancel();
+
+        changeFeed.publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+        awaitDelivery();
+
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    void shutdown_WillStopListeningOnChannel() {
+        changeFeed.shutdown();
+
+        assertTrue(changeChannel.listeners.isEmpty());
+    }
+
+    private void awaitDelivery() throws InterruptedException {
+        deliveryExecutor.shutdown();
+        assertTrue(deliveryExecutor.awaitTermination(5, SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingListener implements ChangeListener {
+        private final List<ChangeNotification> changes = new ArrayList<>();
+        private int resets;
+        private int drops;
+
+        @Override
+        public void onChange(ChangeNotification change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onReset() {
+            resets++;
+        }
+
+        @Override
+        public void onDropped() {
+            drops++;
+        }
+    }
+
+    private static class FakeChangeChannel implements ChangeChannel {
+        private final Map<String, Consumer<ChangeNotification>> listeners = new HashMap<>();
+        private final List<ChangeNotification> broadcast = new ArrayList<>();
+
+        @Override
+        public void broadcast(ChangedEntityType entityType, UUID entityId, UUID organizationId) {
+            var change = new ChangeNotification(broadcast.size(), entityType, entityId, organizationId);
+            broadcast.add(change);
+            deliver(change);
+        }
+
+        @Override
+        public String addListener(Consumer<ChangeNotification> listener) {
+            var registrationId = randomUUID().toString();
+            listeners.put(registrationId, listener);
+            return registrationId;
+        }
+
+        @Override
+        public void removeListener(String registrationId) {
+            listeners.remove(registrationId);
+        }
+
+        void deliver(ChangeNotification change) {
+            listeners.values().forEach(listener -> listener.accept(change));
+        }
+    }
+}
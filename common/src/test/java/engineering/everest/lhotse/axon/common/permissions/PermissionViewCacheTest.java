@@ -0,0 +1,159 @@
+package engineering.everest.lhotse.axon.common.permissions;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.domain.Identifiable;
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionViewCacheTest {
+
+    private static final String USER_TYPE = "User";
+    private static final UUID USER_ID = randomUUID();
+    private static final UserPermissionView USER_VIEW = new UserPermissionView(USER_ID, randomUUID(), false);
+    private static final UserPermissionView MOVED_USER_VIEW = new UserPermissionView(USER_ID, randomUUID(), false);
+
+    @Mock
+    private Supplier<Identifiable> loader;
+    @Mock
+    private ChangeChannel changeChannel;
+    @Captor
+    private ArgumentCaptor<Consumer<ChangeNotification>> changeListener;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionViewCache permissionViewCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        permissionViewCache = new PermissionViewCache(changeChannel, meterRegistry, 100, 60);
+        permissionViewCache.subscribeToEntityChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+    }
+
+    @Test
+    void get_WillLoadOnce_WhenViewIsRequestedRepeatedly() {
+        when(loader.get()).thenReturn(USER_VIEW);
+
+        assertEquals(USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+        assertEquals(USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+
+        verify(loader, times(1)).get();
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "permission-views").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_WillReload_WhenViewHasBeenInvalidated() {
+        when(loader.get()).thenReturn(USER_VIEW, MOVED_USER_VIEW);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        permissionViewCache.invalidate(USER_ID);
+
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillReload_WhenAllViewsHaveBeenInvalidated() {
+        when(loader.get()).thenReturn(USER_VIEW, MOVED_USER_VIEW);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        permissionViewCache.invalidateAll();
+
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillNotCacheLoadedView_WhenInvalidatedWhileLoading() {
+        when(loader.get()).thenAnswer(invocation -> {
+            permissionViewCache.invalidate(USER_ID);
+            return USER_VIEW;
+        }).thenReturn(MOVED_USER_VIEW);
+
+        assertEquals(USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillCacheViewsPerTargetType_WhenEntitiesShareAnId() {
+        var otherView = new UserPermissionView(USER_ID, randomUUID(), false);
+        when(loader.get()).thenReturn(USER_VIEW, otherView);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+
+        assertEquals(otherView, permissionViewCache.get("OtherType", USER_ID, loader));
+        assertEquals(USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillReloadViewsOfEveryTargetType_WhenTheEntityHasBeenInvalidated() {
+        when(loader.get()).thenReturn(USER_VIEW, USER_VIEW, MOVED_USER_VIEW, MOVED_USER_VIEW);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        permissionViewCache.get("OtherType", USER_ID, loader);
+        permissionViewCache.invalidate(USER_ID);
+
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get("OtherType", USER_ID, loader));
+    }
+
+    @Test
+    void get_WillReload_WhenAnyNodeChangedTheEntity() {
+        when(loader.get()).thenReturn(USER_VIEW, MOVED_USER_VIEW);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(1, USER, USER_ID, randomUUID()));
+
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillKeepCachedView_WhenOtherEntitiesChange() {
+        when(loader.get()).thenReturn(USER_VIEW);
+
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(1, ORGANIZATION, randomUUID(), randomUUID()));
+
+        assertEquals(USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void get_WillReload_WhenChangesWereMissed() {
+        when(loader.get()).thenReturn(USER_VIEW, MOVED_USER_VIEW);
+
+        changeListener.getValue().accept(new ChangeNotification(1, ORGANIZATION, randomUUID(), randomUUID()));
+        permissionViewCache.get(USER_TYPE, USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(5, ORGANIZATION, randomUUID(), randomUUID()));
+
+        assertEquals(MOVED_USER_VIEW, permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+
+    @Test
+    void get_WillPropagateLoaderFailures() {
+        when(loader.get()).thenThrow(NoSuchElementException.class);
+
+        assertThrows(NoSuchElementException.class, () -> permissionViewCache.get(USER_TYPE, USER_ID, loader));
+    }
+}
@@ -0,0 +1,41 @@
+package engineering.everest.lhotse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import engineering.everest.lhotse.persistence.StatementTimingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class DataSourceMetricsConfig {
+
+    // Each persistence unit builds its own pool, so every one is named, measured and has its statements timed here
+    // rather than relying on it being the single pool Spring Boot would have auto-configured
+    @Bean
+    public static BeanPostProcessor dataSourceMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${application.persistence.slow-statement-threshold-millis:500}") long slowStatementThresholdMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource)) {
+                    return bean;
+                }
+                var hikariDataSource = (HikariDataSource) bean;
+                if (hikariDataSource.getPoolName() == null) {
+                    hikariDataSource.setPoolName(beanName);
+                }
+                if (hikariDataSource.getMetricRegistry() == null && hikariDataSource.getMetricsTrackerFactory() == null) {
+                    hikariDataSource.setMetricRegistry(meterRegistry.getObject());
+                }
+                return new StatementTimingDataSource(hikariDataSource, hikariDataSource.getPoolName(),
+                        meterRegistry.getObject(), Duration.ofMillis(slowStatementThresholdMillis));
+            }
+        };
+    }
+}
@@ -1,6 +1,5 @@
 package engineering.everest.lhotse.config;
 
-import com.zaxxer.hikari.HikariConfig;
 import liquibase.integration.spring.SpringLiquibase;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -43,13 +42,6 @@ public class FileMappingsJpaConfig {
         return DataSourceBuilder.create().build();
     }
 
-    @Bean
-    @Qualifier(FILE_MAPPINGS_AUTO_CONFIG_QUALIFIER)
-    @ConfigurationProperties(prefix = FILE_MAPPINGS_AUTO_CONFIG_QUALIFIER + ".datasource.hikari")
-    public HikariConfig hikariConfig() {
-        return new HikariConfig();
-    }
-
     @Bean
     @Qualifier(FILE_MAPPINGS_AUTO_CONFIG_QUALIFIER)
     @ConfigurationProperties(prefix = FILE_MAPPINGS_AUTO_CONFIG_QUALIFIER + ".jpa")
@@ -1,12 +1,14 @@
 package engineering.everest.lhotse.config;
 
-import com.zaxxer.hikari.HikariConfig;
+import engineering.everest.lhotse.axon.common.ProjectionsTransactionManagers;
 import liquibase.integration.spring.SpringLiquibase;
+import engineering.everest.lhotse.persistence.ReplicaRoutingDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.common.jpa.SimpleEntityManagerProvider;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
@@ -18,6 +20,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.transaction.ChainedTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.SharedEntityManagerCreator;
@@ -37,17 +40,20 @@ public class ProjectionsJpaConfig {
     private static final String PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME = "projections";
 
     @Bean
-    @Primary
+    @Qualifier(PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME)
     @ConfigurationProperties(prefix = PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME + ".datasource.hikari")
-    public DataSource dataSource() {
+    public DataSource projectionsPrimaryDataSource() {
         return DataSourceBuilder.create().build();
     }
 
     @Bean
-    @Qualifier(PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME)
-    @ConfigurationProperties(prefix = PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME + ".datasource.hikari")
-    public HikariConfig hikariConfig() {
-        return new HikariConfig();
+    @Primary
+    public DataSource dataSource(@Qualifier(PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME) DataSource primaryDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        // Connections are only taken from the pool once a statement runs, so a chained transaction that never
+        // touches the projections holds no connection here, and replica routing sees the read-only flag in time
+        DataSource routingDataSource = replicaRoutingDataSource.getIfAvailable();
+        return new LazyConnectionDataSourceProxy(routingDataSource == null ? primaryDataSource : routingDataSource);
     }
 
     @Bean
@@ -75,11 +81,18 @@ public class ProjectionsJpaConfig {
     @Primary
     public ChainedTransactionManager platformTransactionManager(
             EntityManagerFactory entityManagerFactory,
-            @Qualifier("file-mappings") PlatformTransactionManager fileMappingsTxManager,
             @Qualifier("event-store") PlatformTransactionManager eventsTxManager) {
 
+        // File mappings repositories run in their own transactions, so only photo uploads touch that pool
         var projectionsTxManager = new JpaTransactionManager(entityManagerFactory);
-        return new ChainedTransactionManager(eventsTxManager, projectionsTxManager, fileMappingsTxManager);
+        return new ChainedTransactionManager(eventsTxManager, projectionsTxManager);
+    }
+
+    @Bean(name = ProjectionsTransactionManagers.PROJECTIONS_ONLY)
+    public PlatformTransactionManager projectionsOnlyTransactionManager(EntityManagerFactory entityManagerFactory) {
+        // The chained manager initialises synchronization before its delegates begin, so they never publish the
+        // read-only flag that replica routing depends on. Joins a surrounding projections transaction if there is one.
+        return new JpaTransactionManager(entityManagerFactory);
     }
 
     @Bean
@@ -109,7 +122,8 @@ public class ProjectionsJpaConfig {
 
     @Bean
     @Primary
-    public SpringLiquibase primaryLiquibase(DataSource dataSource, LiquibaseProperties properties) {
+    public SpringLiquibase primaryLiquibase(@Qualifier(PROJECTIONS_AUTO_CONFIG_QUALIFIER_NAME) DataSource dataSource,
+                                            LiquibaseProperties properties) {
         SpringLiquibase liquibase = new SpringLiquibase();
         liquibase.setDataSource(dataSource);
         liquibase.setChangeLog(properties.getChangeLog());
@@ -0,0 +1,56 @@
+package engineering.everest.lhotse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import engineering.everest.lhotse.persistence.ReplicaRoutingDataSource;
+import engineering.everest.lhotse.persistence.StatementTimingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "projections.replicas.enabled", havingValue = "true")
+public class ProjectionsReadReplicasConfig {
+
+    private static final String REPLICA_POOL_NAME_PREFIX = "HikariPool-projections-replica-";
+
+    @Bean
+    @ConfigurationProperties(prefix = "projections.replicas")
+    public ProjectionsReplicasProperties projectionsReplicasProperties() {
+        return new ProjectionsReplicasProperties();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("projections") DataSource primaryDataSource,
+                                                             ProjectionsReplicasProperties properties,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${application.persistence.slow-statement-threshold-millis:500}") long slowStatementThresholdMillis) {
+        if (properties.getDatasources().isEmpty()) {
+            throw new IllegalStateException("Projection replicas are enabled but no replica datasources are configured");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getDatasources().size(); i++) {
+            var hikariConfig = properties.getDatasources().get(i);
+            if (hikariConfig.getPoolName() == null) {
+                hikariConfig.setPoolName(REPLICA_POOL_NAME_PREFIX + i);
+            }
+            hikariConfig.setReadOnly(true);
+            hikariConfig.setMetricRegistry(meterRegistry);
+            replicas.put(hikariConfig.getPoolName(), new StatementTimingDataSource(new HikariDataSource(hikariConfig),
+                    hikariConfig.getPoolName(), meterRegistry, Duration.ofMillis(slowStatementThresholdMillis)));
+        }
+        LOGGER.info("Routing read-only projection transactions across {} replicas", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                properties.getLagQuery(), properties.getMaxLagSeconds(), meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package engineering.everest.lhotse.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProjectionsReplicasProperties {
+    private boolean enabled;
+    private List<HikariConfig> datasources = new ArrayList<>();
+    private long maxLagSeconds = 5;
+    private String lagQuery = "SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)";
+}
@@ -0,0 +1,139 @@
+package engineering.everest.lhotse.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static engineering.everest.lhotse.axon.common.PrimaryReads.isPrimaryRequired;
+
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY_ROUTE = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, Map<String, DataSource> replicaDataSources,
+                                    String lagQuery, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targetDataSources = new HashMap<>(replicaDataSources);
+        targetDataSources.put(PRIMARY_ROUTE, primaryDataSource);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primaryDataSource);
+
+        registerRoute(PRIMARY_ROUTE, meterRegistry);
+        replicaDataSources.forEach((name, dataSource) -> {
+            var replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            registerRoute(name, meterRegistry);
+            Gauge.builder("projections.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Replication lag of a projections read replica")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var route = selectRoute();
+        routedConnections.get(route).increment();
+        return route;
+    }
+
+    @Scheduled(fixedDelayString = "${projections.replicas.lag-check-interval-milli-seconds:5000}")
+    public void checkReplicationLag() {
+        replicas.forEach(this::measureLag);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof Closeable) {
+                ((Closeable) replica.getDataSource()).close();
+            }
+        }
+    }
+
+    private String selectRoute() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || isPrimaryRequired()) {
+            return PRIMARY_ROUTE;
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            var replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.getLagSeconds() <= maxLagSeconds) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY_ROUTE;
+    }
+
+    private void measureLag(Replica replica) {
+        try (var connection = replica.getDataSource().getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(lagQuery)) {
+            resultSet.next();
+            replica.setLagSeconds(resultSet.getDouble(1));
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to determine replication lag of {}, routing reads to the primary", replica.getName(), e);
+            replica.setLagSeconds(Double.POSITIVE_INFINITY);
+        }
+    }
+
+    private void registerRoute(String route, MeterRegistry meterRegistry) {
+        routedConnections.put(route, Counter.builder("projections.datasource.connections")
+                .description("Projection connections handed out per route")
+                .tag("route", route)
+                .register(meterRegistry));
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Unknown until first measured, so reads stay on the primary until then
+        private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        void setLagSeconds(double lagSeconds) {
+            this.lagSeconds = lagSeconds;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package engineering.everest.lhotse.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Log4j2
+public class StatementTimingDataSource extends DelegatingDataSource implements Closeable {
+
+    private final Map<String, Timer> timersByOperation;
+    private final String poolName;
+    private final long slowStatementThresholdNanos;
+
+    public StatementTimingDataSource(DataSource targetDataSource, String poolName, MeterRegistry meterRegistry,
+                                     Duration slowStatementThreshold) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.slowStatementThresholdNanos = slowStatementThreshold.toNanos();
+        this.timersByOperation = Map.of(
+                "query", statementTimer(meterRegistry, poolName, "query"),
+                "update", statementTimer(meterRegistry, poolName, "update"),
+                "batch", statementTimer(meterRegistry, poolName, "batch"),
+                "execute", statementTimer(meterRegistry, poolName, "execute"));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    if (isWrapperMethod(method)) {
+                        return unwrap(proxy, connection, method, args);
+                    }
+                    var result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        var sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return timed((Statement) result, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object timed(Statement statement, Class<?> statementType, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (isWrapperMethod(method)) {
+                return unwrap(proxy, statement, method, args);
+            }
+            var operation = operation(method.getName());
+            if (operation == null) {
+                return invoke(statement, method, args);
+            }
+            var sql = preparedSql == null && args != null && args.length > 0 ? String.valueOf(args[0]) : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                record(operation, sql, System.nanoTime() - start);
+            }
+        };
+        return Proxy.newProxyInstance(statementType.getClassLoader(), new Class<?>[]{statementType}, handler);
+    }
+
+    private void record(String operation, String sql, long elapsedNanos) {
+        timersByOperation.get(operation).record(elapsedNanos, NANOSECONDS);
+        if (elapsedNanos >= slowStatementThresholdNanos) {
+            LOGGER.warn("Slow {} on {} took {}ms: {}", operation, poolName, NANOSECONDS.toMillis(elapsedNanos), sql);
+        }
+    }
+
+    private static String operation(String methodName) {
+        switch (methodName) {
+            case "executeQuery":
+                return "query";
+            case "executeUpdate":
+            case "executeLargeUpdate":
+                return "update";
+            case "executeBatch":
+            case "executeLargeBatch":
+                return "batch";
+            case "execute":
+                return "execute";
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return "equals".equals(method.getName()) || "hashCode".equals(method.getName());
+    }
+
+    // Proxies are only equal to themselves, so pooled connections keep working as map keys and in holder checks
+    private static Object identity(Object proxy, Method method, Object... args) {
+        if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+        }
+        return System.identityHashCode(proxy);
+    }
+
+    private static boolean isWrapperMethod(Method method) {
+        return "unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName());
+    }
+
+    // The pool would otherwise hand callers unwrapping to the JDBC interfaces its raw connection, whose statements go untimed
+    private static Object unwrap(Object proxy, Object target, Method method, Object... args) throws Throwable {
+        if (((Class<?>) args[0]).isInstance(proxy)) {
+            return "unwrap".equals(method.getName()) ? proxy : Boolean.TRUE;
+        }
+        return invoke(target, method, args);
+    }
+
+    private static Object invoke(Object target, Method method, Object... args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Timer statementTimer(MeterRegistry meterRegistry, String poolName, String operation) {
+        return Timer.builder("persistence.statements")
+                .description("JDBC statement execution time per connection pool")
+                .tag("pool", poolName)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
@@ -38,10 +38,7 @@ public class ApiRestTestClient {
     }
 
     public void login(String username, String password) {
-        Map<String, String> results = webTestClient.post().uri(AUTHENTICATION_ENDPOINT)
-                .contentType(APPLICATION_FORM_URLENCODED)
-                .body(fromValue(String.format("grant_type=password&username=%s&password=%s&client_id=web-app-ui", username, password)))
-                .exchange()
+        Map<String, String> results = requestToken(username, password)
                 .expectStatus().isEqualTo(OK)
                 .returnResult(new ParameterizedTypeReference<Map<String, String>>() {
                 })
@@ -52,6 +49,10 @@ public class ApiRestTestClient {
         this.accessToken = accessToken;
     }
 
+    public HttpStatus attemptLogin(String username, String password) {
+        return requestToken(username, password).returnResult(String.class).getStatus();
+    }
+
     public UserResponse getUser(UUID organizationId, UUID userId, HttpStatus expectedHttpStatus) {
         return webTestClient.get().uri("/api/users/{userId}", userId)
                 .header("Authorization", "Bearer " + accessToken)
@@ -112,4 +113,11 @@ public class ApiRestTestClient {
                 .exchange()
                 .expectStatus().isEqualTo(expectedHttpStatus);
     }
+
+    private ResponseSpec requestToken(String username, String password) {
+        return webTestClient.post().uri(AUTHENTICATION_ENDPOINT)
+                .contentType(APPLICATION_FORM_URLENCODED)
+                .body(fromValue(String.format("grant_type=password&username=%s&password=%s&client_id=web-app-ui", username, password)))
+                .exchange();
+    }
 }
@@ -8,6 +8,8 @@ import engineering.everest.lhotse.api.rest.security.EntityPermissionEvaluator;
 import engineering.everest.lhotse.axon.CommandValidatingMessageHandlerInterceptor;
 import engineering.everest.lhotse.functionaltests.helpers.ApiRestTestClient;
 import engineering.everest.lhotse.users.persistence.UsersRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,8 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
@@ -35,6 +39,8 @@ class ApplicationFunctionalTests {
     private AdminProvisionTask adminProvisionTask;
     @Autowired
     private WebTestClient webTestClient;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private ApiRestTestClient apiRestTestClient;
 
@@ -69,4 +75,24 @@ class ApplicationFunctionalTests {
         var userId = apiRestTestClient.createUser(organizationId, newUserRequest, CREATED);
         apiRestTestClient.getUser(organizationId, userId, OK);
     }
+
+    @Test
+    void organizationAndUserCommandsWillNotAcquireFileMappingsConnections() {
+        apiRestTestClient.createAdminUserAndLogin();
+        var newOrganizationRequest = new NewOrganizationRequest("ACME", "123 King St", "Melbourne",
+                "Vic", "Oz", "3000", null, null, null, null);
+        long fileMappingsAcquisitionsBefore = connectionAcquisitions("HikariPool-file-mappings");
+
+        var organizationId = apiRestTestClient.createOrganization(newOrganizationRequest, CREATED);
+        apiRestTestClient.createUser(organizationId, new NewUserRequest("other@example.com", "password", "Other"), CREATED);
+
+        assertEquals(fileMappingsAcquisitionsBefore, connectionAcquisitions("HikariPool-file-mappings"));
+    }
+
+    private long connectionAcquisitions(String poolName) {
+        Timer acquisitions = meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        // A missing timer would make both counts zero and the comparison vacuous, so its absence fails the test
+        assertNotNull(acquisitions, "No hikaricp.connections.acquire timer is registered for " + poolName);
+        return acquisitions.count();
+    }
 }
@@ -0,0 +1,133 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.AdminProvisionTask;
+import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.api.rest.requests.NewOrganizationRequest;
+import engineering.everest.lhotse.api.rest.requests.NewUserRequest;
+import engineering.everest.lhotse.axon.deadletters.DeadLetterQueue;
+import engineering.everest.lhotse.axon.deadletters.DeadLettersEndpoint;
+import engineering.everest.lhotse.functionaltests.helpers.ApiRestTestClient;
+import engineering.everest.lhotse.users.domain.events.UserCreatedByAdminEvent;
+import engineering.everest.lhotse.users.persistence.UsersRepository;
+import org.axonframework.eventhandling.EventHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = Launcher.class)
+@ActiveProfiles("standalone")
+class DeadLetterFunctionalTests {
+
+    private static final String PROCESSOR_NAME = "default";
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private AdminProvisionTask adminProvisionTask;
+    @Autowired
+    private UsersRepository usersRepository;
+    @Autowired
+    private DeadLetterQueue deadLetterQueue;
+    @Autowired
+    private DeadLettersEndpoint deadLettersEndpoint;
+    @Autowired
+    private ConflictingUserProjection conflictingUserProjection;
+
+    private ApiRestTestClient apiRestTestClient;
+
+    @BeforeEach
+    void setUp() {
+        apiRestTestClient = new ApiRestTestClient(webTestClient, adminProvisionTask);
+        apiRestTestClient.createAdminUserAndLogin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        conflictingUserProjection.failure = Failure.NONE;
+    }
+
+    @Test
+    void commandWillSucceedAndItsEventBeParkedUnapplied_WhenAProjectionFailsAfterWriting() {
+        var organizationId = apiRestTestClient.createOrganization(new NewOrganizationRequest("ACME", "123 King St",
+                "Melbourne", "Vic", "Oz", "3000", null, null, null, null), CREATED);
+        conflictingUserProjection.failure = Failure.AFTER_WRITING;
+
+        var userId = apiRestTestClient.createUser(organizationId,
+                new NewUserRequest("parked@example.com", "password", "Parked"), CREATED);
+
+        assertTrue(usersRepository.findByOrganizationId(organizationId).isEmpty());
+        assertTrue(deadLetterQueue.isParked(PROCESSOR_NAME, userId.toString()));
+
+        conflictingUserProjection.failure = Failure.NONE;
+        var retried = deadLettersEndpoint.retry(PROCESSOR_NAME, userId.toString());
+
+        assertEquals(1, retried.get("redelivered"));
+        assertFalse(deadLetterQueue.isParked(PROCESSOR_NAME, userId.toString()));
+        assertEquals(1, usersRepository.findByOrganizationId(organizationId).size());
+    }
+
+    @Test
+    void commandWillFailWithNothingAppliedOrParked_WhenAProjectionWriteFails() {
+        var organizationId = apiRestTestClient.createOrganization(new NewOrganizationRequest("ACME", "123 King St",
+                "Melbourne", "Vic", "Oz", "3000", null, null, null, null), CREATED);
+        var parkedBefore = deadLetterQueue.deadLetters().size();
+        conflictingUserProjection.failure = Failure.ON_FLUSH;
+
+        apiRestTestClient.createUser(organizationId, new NewUserRequest("rejected@example.com", "password", "Rejected"),
+                BAD_REQUEST);
+
+        assertTrue(usersRepository.findByOrganizationId(organizationId).isEmpty());
+        assertEquals(parkedBefore, deadLetterQueue.deadLetters().size());
+    }
+
+    @TestConfiguration
+    static class DeadLetterTestConfig {
+        @Bean
+        ConflictingUserProjection conflictingUserProjection(UsersRepository usersRepository) {
+            return new ConflictingUserProjection(usersRepository);
+        }
+    }
+
+    enum Failure {
+        NONE, AFTER_WRITING, ON_FLUSH
+    }
+
+    static class ConflictingUserProjection {
+        private final UsersRepository usersRepository;
+        private volatile Failure failure = Failure.NONE;
+
+        ConflictingUserProjection(UsersRepository usersRepository) {
+            this.usersRepository = usersRepository;
+        }
+
+        @EventHandler
+        void on(UserCreatedByAdminEvent event) {
+            if (failure == Failure.AFTER_WRITING) {
+                usersRepository.createUser(randomUUID(), event.getOrganizationId(), event.getUserDisplayName(),
+                        randomUUID() + "@example.com", event.getEncodedPassword(), Instant.now());
+                throw new IllegalStateException("Failed after writing");
+            }
+            if (failure == Failure.ON_FLUSH) {
+                // Shares the new user's email, so the unique index only rejects it when the projections are flushed
+                usersRepository.createUser(randomUUID(), event.getOrganizationId(), event.getUserDisplayName(),
+                        event.getUserEmail(), event.getEncodedPassword(), Instant.now());
+            }
+        }
+    }
+}
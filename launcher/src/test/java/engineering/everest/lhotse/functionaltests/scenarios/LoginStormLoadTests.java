@@ -0,0 +1,124 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.AdminProvisionTask;
+import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.functionaltests.helpers.ApiRestTestClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED;
+import static org.springframework.web.reactive.function.BodyInserters.fromValue;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = Launcher.class)
+@ActiveProfiles("standalone")
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class LoginStormLoadTests {
+
+    // More than Tomcat's request threads, so only the bound on hashing keeps some free for the reads
+    private static final int STORM_CLIENTS_BEYOND_REQUEST_THREADS = 50;
+    private static final int MEASURED_READS = 200;
+    private static final long ALLOWED_P95_INCREASE_NANOS = 50_000_000L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private AdminProvisionTask adminProvisionTask;
+    @Value("${application.setup.admin.username}")
+    private String adminUsername;
+    @Value("${application.setup.admin.password}")
+    private String adminPassword;
+    @Value("${server.tomcat.max-threads:200}")
+    private int requestThreads;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private int stormClientCount;
+    private ExecutorService stormClients;
+    private AtomicBoolean storming;
+
+    @BeforeEach
+    void setUp() {
+        new ApiRestTestClient(webTestClient, adminProvisionTask).createAdminUserAndLogin();
+        stormClientCount = requestThreads + STORM_CLIENTS_BEYOND_REQUEST_THREADS;
+        stormClients = Executors.newFixedThreadPool(stormClientCount);
+        storming = new AtomicBoolean(true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        storming.set(false);
+        stormClients.shutdown();
+        stormClients.awaitTermination(30, SECONDS);
+    }
+
+    @Test
+    void readLatencyWillStayStable_DuringLoginStorm() {
+        measureReadsP95Nanos();
+        long baselineP95 = measureReadsP95Nanos();
+
+        var attemptedLogins = new AtomicLong();
+        for (int i = 0; i < stormClientCount; i++) {
+            stormClients.submit(() -> {
+                while (storming.get()) {
+                    login();
+                    attemptedLogins.incrementAndGet();
+                }
+            });
+        }
+        long stormP95 = measureReadsP95Nanos();
+        storming.set(false);
+
+        assertTrue(attemptedLogins.get() > 0);
+        assertTrue(meterRegistry.get("security.password.hashing.rejections").tag("reason", "queue-full").counter().count() > 0,
+                "The storm never filled the hashing queue");
+        assertTrue(stormP95 <= Math.max(3 * baselineP95, baselineP95 + ALLOWED_P95_INCREASE_NANOS),
+                String.format("Read p95 went from %dus to %dus during the login storm", baselineP95 / 1000, stormP95 / 1000));
+    }
+
+    private void login() {
+        try {
+            // Logins that are turned away while hashing is saturated are expected, so only the attempt matters
+            webTestClient.post().uri("/oauth/token")
+                    .contentType(APPLICATION_FORM_URLENCODED)
+                    .body(fromValue(String.format("grant_type=password&username=%s&password=%s&client_id=web-app-ui",
+                            adminUsername, adminPassword)))
+                    .exchange()
+                    .returnResult(String.class)
+                    .getResponseBody().blockLast();
+        } catch (RuntimeException e) {
+            // Client side timeouts count as attempts too
+        }
+    }
+
+    private long measureReadsP95Nanos() {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < MEASURED_READS; i++) {
+            long start = System.nanoTime();
+            webTestClient.get().uri("/api/version")
+                    .exchange()
+                    .expectStatus().isOk();
+            latencies.add(System.nanoTime() - start);
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1);
+    }
+}
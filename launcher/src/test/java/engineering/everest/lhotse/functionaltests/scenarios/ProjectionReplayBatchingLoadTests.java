@@ -0,0 +1,136 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.users.domain.events.UserCreatedByAdminEvent;
+import engineering.everest.lhotse.users.eventhandlers.UsersEventHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(classes = Launcher.class)
+@ActiveProfiles("standalone")
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class ProjectionReplayBatchingLoadTests {
+
+    private static final String REPLAY_PROCESSOR_NAME = "users-replay-benchmark";
+    private static final String PROJECTIONS_POOL = "HikariPool-projections";
+    private static final int REPLAYED_USERS = 5000;
+    private static final int UNBATCHED_REPLAY_BATCH_SIZE = 1;
+    private static final Duration MAX_REPLAY_DURATION = Duration.ofMinutes(10);
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+    @Autowired
+    private TransactionManager transactionManager;
+    @Autowired
+    @Qualifier("event-store")
+    private PlatformTransactionManager eventStoreTransactionManager;
+    @Autowired
+    private UsersEventHandler usersEventHandler;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${application.axon.replay.batch-size:100}")
+    private int replayBatchSize;
+
+    @Test
+    void replayBatchSizeWillCutProjectionRoundTrips_WhenReplayingUserCreations() throws InterruptedException {
+        seedUserCreations();
+
+        long unbatchedRoundTrips = replayRoundTrips(UNBATCHED_REPLAY_BATCH_SIZE);
+        long batchedRoundTrips = replayRoundTrips(replayBatchSize);
+
+        // Each unit of work flushes at least once, so one event per unit of work caps JDBC batches at a single insert
+        assertTrue(unbatchedRoundTrips >= REPLAYED_USERS,
+                String.format("Unbatched replay took only %d projection round trips", unbatchedRoundTrips));
+        assertTrue(batchedRoundTrips * 10 <= unbatchedRoundTrips,
+                String.format("Replaying %d user creations took %d projection round trips one event per unit of work "
+                        + "and %d with %d events per unit of work",
+                        REPLAYED_USERS, unbatchedRoundTrips, batchedRoundTrips, replayBatchSize));
+    }
+
+    // Appended straight to the storage engine, so no live processor sees them until a replay reads the store
+    private void seedUserCreations() {
+        var organizationId = randomUUID();
+        var adminId = randomUUID();
+        List<DomainEventMessage<?>> events = new ArrayList<>(REPLAYED_USERS);
+        for (int i = 0; i < REPLAYED_USERS; i++) {
+            var userId = randomUUID();
+            events.add(new GenericDomainEventMessage<>("UserAggregate", userId.toString(), 0,
+                    new UserCreatedByAdminEvent(userId, organizationId, adminId, "Replayed user " + i,
+                            userId + "@example.com", "encoded-password")));
+        }
+        new TransactionTemplate(eventStoreTransactionManager).executeWithoutResult(status -> eventStorageEngine.appendEvents(events));
+    }
+
+    // Replays the whole store into the users projection as the application's tracking processor would after a reset,
+    // counting every statement sent over the projections pool until the processor reaches the head of the store
+    private long replayRoundTrips(int batchSize) throws InterruptedException {
+        usersEventHandler.prepareForReplay();
+        var headPosition = eventStorageEngine.createHeadToken().position().orElse(0);
+        var tokenStore = new InMemoryTokenStore();
+        tokenStore.initializeTokenSegments(REPLAY_PROCESSOR_NAME, 1);
+        var eventStore = EmbeddedEventStore.builder().storageEngine(eventStorageEngine).build();
+        var trackingEventProcessor = TrackingEventProcessor.builder()
+                .name(REPLAY_PROCESSOR_NAME)
+                .eventHandlerInvoker(SimpleEventHandlerInvoker.builder().eventHandlers(usersEventHandler).build())
+                .messageSource(eventStore)
+                .tokenStore(tokenStore)
+                .transactionManager(transactionManager)
+                .trackingEventProcessorConfiguration(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                        .andBatchSize(batchSize))
+                .build();
+
+        long statementsBefore = projectionStatements();
+        long deadline = System.nanoTime() + MAX_REPLAY_DURATION.toNanos();
+        trackingEventProcessor.start();
+        try {
+            while (replayedPosition(tokenStore) < headPosition) {
+                if (System.nanoTime() > deadline) {
+                    fail(String.format("Replay reached position %d of %d within %s",
+                            replayedPosition(tokenStore), headPosition, MAX_REPLAY_DURATION));
+                }
+                Thread.sleep(50);
+            }
+        } finally {
+            trackingEventProcessor.shutDown();
+            eventStore.shutDown();
+        }
+        return projectionStatements() - statementsBefore;
+    }
+
+    private static long replayedPosition(InMemoryTokenStore tokenStore) {
+        var token = tokenStore.fetchToken(REPLAY_PROCESSOR_NAME, 0);
+        return token == null ? -1 : token.position().orElse(-1);
+    }
+
+    private long projectionStatements() {
+        return meterRegistry.find("persistence.statements").tag("pool", PROJECTIONS_POOL).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
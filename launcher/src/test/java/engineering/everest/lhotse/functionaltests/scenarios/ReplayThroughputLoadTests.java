@@ -0,0 +1,178 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.Launcher;
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jpa.JpaEventStorageEngine;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Runs in the default profile, against the Postgres and MongoDB containers the build composes for load tests,
+// since the server-side cursors the event-store fetch size relies on do not exist in H2
+@SpringBootTest(classes = Launcher.class)
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class ReplayThroughputLoadTests {
+
+    private static final String BENCHMARK_AGGREGATE_TYPE = "BenchmarkAggregate";
+    private static final int EVENTS_PER_AGGREGATE = 1000;
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int MEASURED_ROUNDS = 2;
+    private static final Duration MAX_REPLAY_DURATION = Duration.ofHours(1);
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+    @Autowired
+    private AxonConfiguration axonConfiguration;
+    @Autowired
+    @Qualifier("event-store")
+    private EntityManagerProvider entityManagerProvider;
+    @Autowired
+    @Qualifier("event-store")
+    private SpringTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("event-store")
+    private PlatformTransactionManager platformTransactionManager;
+    @Value("${replay-benchmark.events:10000000}")
+    private long seededEvents;
+    @Value("${application.axon.replay.batch-size:100}")
+    private int replayBatchSize;
+
+    @Test
+    void tunedEventStoreReadsWillOutpaceDefaultBatches_WhenReplayingALargeStore() throws InterruptedException {
+        long benchmarkEvents = seedEvents();
+        // Same persistence unit and serializers, only the batch size Axon would otherwise have used differs
+        var defaultEventStorageEngine = JpaEventStorageEngine.builder()
+                .snapshotSerializer(axonConfiguration.serializer())
+                .eventSerializer(axonConfiguration.eventSerializer())
+                .upcasterChain(axonConfiguration.upcasterChain())
+                .entityManagerProvider(entityManagerProvider)
+                .transactionManager(transactionManager)
+                .batchSize(DEFAULT_BATCH_SIZE)
+                .build();
+
+        long defaultEventsPerSecond = 0;
+        long tunedEventsPerSecond = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            defaultEventsPerSecond = Math.max(defaultEventsPerSecond, replayEventsPerSecond(defaultEventStorageEngine, benchmarkEvents));
+            tunedEventsPerSecond = Math.max(tunedEventsPerSecond, replayEventsPerSecond(eventStorageEngine, benchmarkEvents));
+        }
+
+        assertTrue(tunedEventsPerSecond > defaultEventsPerSecond,
+                String.format("Replaying %d events handled %d events/s with default batches and %d events/s tuned",
+                        benchmarkEvents, defaultEventsPerSecond, tunedEventsPerSecond));
+    }
+
+    // The composed database outlives a run, so only the events still missing are appended
+    private long seedEvents() {
+        var transactionTemplate = new TransactionTemplate(platformTransactionManager);
+        long storedEvents = countBenchmarkEvents(transactionTemplate);
+        var aggregateId = randomUUID().toString();
+        for (long seeded = storedEvents; seeded < seededEvents; seeded += SEED_BATCH_SIZE) {
+            List<DomainEventMessage<?>> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (long i = seeded; i < Math.min(seeded + SEED_BATCH_SIZE, seededEvents); i++) {
+                if (i == seeded || i % EVENTS_PER_AGGREGATE == 0) {
+                    aggregateId = randomUUID().toString();
+                }
+                batch.add(new GenericDomainEventMessage<>(BENCHMARK_AGGREGATE_TYPE, aggregateId, i % EVENTS_PER_AGGREGATE,
+                        new BenchmarkEvent(aggregateId, i)));
+            }
+            transactionTemplate.executeWithoutResult(status -> eventStorageEngine.appendEvents(batch));
+        }
+        return countBenchmarkEvents(transactionTemplate);
+    }
+
+    private long countBenchmarkEvents(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> entityManagerProvider.getEntityManager()
+                .createQuery("SELECT COUNT(e) FROM DomainEventEntry e WHERE e.type = :type", Long.class)
+                .setParameter("type", BENCHMARK_AGGREGATE_TYPE)
+                .getSingleResult());
+    }
+
+    // A tracking processor starting without a token, as each one does after a replay resets it, configured like
+    // the application's own so the measurement covers the gap-aware batches, deserialisation and unit of work
+    private long replayEventsPerSecond(EventStorageEngine engine, long benchmarkEvents) throws InterruptedException {
+        var handledEvents = new AtomicLong();
+        var eventStore = EmbeddedEventStore.builder().storageEngine(engine).build();
+        var trackingEventProcessor = TrackingEventProcessor.builder()
+                .name("replay-benchmark")
+                .eventHandlerInvoker(SimpleEventHandlerInvoker.builder()
+                        .eventHandlers(new BenchmarkEventCounter(handledEvents))
+                        .build())
+                .messageSource(eventStore)
+                .tokenStore(new InMemoryTokenStore())
+                .transactionManager(transactionManager)
+                .trackingEventProcessorConfiguration(TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                        .andBatchSize(replayBatchSize))
+                .build();
+
+        long start = System.nanoTime();
+        long deadline = start + MAX_REPLAY_DURATION.toNanos();
+        trackingEventProcessor.start();
+        try {
+            while (handledEvents.get() < benchmarkEvents) {
+                if (System.nanoTime() > deadline) {
+                    fail(String.format("Replay handled only %d of %d events within %s",
+                            handledEvents.get(), benchmarkEvents, MAX_REPLAY_DURATION));
+                }
+                Thread.sleep(50);
+            }
+        } finally {
+            trackingEventProcessor.shutDown();
+            eventStore.shutDown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return benchmarkEvents * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+
+    public static class BenchmarkEvent {
+        public String aggregateId;
+        public long ordinal;
+
+        public BenchmarkEvent() {
+        }
+
+        BenchmarkEvent(String aggregateId, long ordinal) {
+            this.aggregateId = aggregateId;
+            this.ordinal = ordinal;
+        }
+    }
+
+    public static class BenchmarkEventCounter {
+        private final AtomicLong handledEvents;
+
+        BenchmarkEventCounter(AtomicLong handledEvents) {
+            this.handledEvents = handledEvents;
+        }
+
+        @EventHandler
+        public void on(BenchmarkEvent event) {
+            handledEvents.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.persistence.ReplicaRoutingDataSource;
+import engineering.everest.lhotse.users.services.UsersReadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The replica is the standalone projections database itself, so only the routing decision differs
+@SpringBootTest(classes = Launcher.class, properties = {
+        "projections.replicas.enabled=true",
+        "projections.replicas.datasources[0].jdbcUrl=jdbc:h2:mem:projections",
+        "projections.replicas.datasources[0].driverClassName=org.h2.Driver",
+        "projections.replicas.datasources[0].poolName=" + ReplicaRoutingFunctionalTests.REPLICA,
+        "projections.replicas.lag-query=SELECT 0"})
+@ActiveProfiles("standalone")
+class ReplicaRoutingFunctionalTests {
+
+    static final String REPLICA = "HikariPool-projections-replica-0";
+    private static final String PRIMARY = "primary";
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired
+    private UsersReadService usersReadService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        replicaRoutingDataSource.checkReplicationLag();
+    }
+
+    @Test
+    void readOnlyServiceCallsWillReachAReplica() {
+        double replicaConnectionsBefore = routedConnections(REPLICA);
+        double primaryConnectionsBefore = routedConnections(PRIMARY);
+
+        usersReadService.getUsers(null, 10);
+
+        assertEquals(replicaConnectionsBefore + 1, routedConnections(REPLICA));
+        assertEquals(primaryConnectionsBefore, routedConnections(PRIMARY));
+    }
+
+    @Test
+    void serviceCallsOutsideReadOnlyTransactionsWillStayOnThePrimary() {
+        double replicaConnectionsBefore = routedConnections(REPLICA);
+
+        usersReadService.getUsers();
+
+        assertEquals(replicaConnectionsBefore, routedConnections(REPLICA));
+    }
+
+    private double routedConnections(String route) {
+        return meterRegistry.get("projections.datasource.connections").tag("route", route).counter().count();
+    }
+}
@@ -1,6 +1,11 @@
 package engineering.everest.lhotse.functionaltests.scenarios;
 
+import engineering.everest.lhotse.AdminProvisionTask;
 import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.api.rest.requests.NewOrganizationRequest;
+import engineering.everest.lhotse.api.rest.requests.NewUserRequest;
+import engineering.everest.lhotse.api.rest.requests.UpdateUserRequest;
+import engineering.everest.lhotse.functionaltests.helpers.ApiRestTestClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,16 +18,26 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.OK;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT, classes = Launcher.class)
 @ActiveProfiles("standalone")
 class SecurityFunctionalTests {
 
+    private static final Duration INVALIDATION_TIMEOUT = Duration.ofSeconds(5);
+
     @Autowired
     private WebTestClient webClient;
+    @Autowired
+    private AdminProvisionTask adminProvisionTask;
 
     @Value("${springfox.documentation.swagger.v2.path}")
     private String swaggerApiDocPath;
@@ -58,4 +73,26 @@ class SecurityFunctionalTests {
                 .exchange()
                 .expectStatus().isUnauthorized();
     }
+
+    @Test
+    void loginWithOldPasswordWillFail_WhenPasswordHasChanged() throws InterruptedException {
+        var adminClient = new ApiRestTestClient(webClient, adminProvisionTask);
+        adminClient.createAdminUserAndLogin();
+        var organizationId = adminClient.createOrganization(new NewOrganizationRequest("ACME", "123 King St",
+                "Melbourne", "Vic", "Oz", "3000", null, null, null, null), CREATED);
+        var userId = adminClient.createUser(organizationId,
+                new NewUserRequest("password-change@example.com", "old-password", "Password Change"), CREATED);
+        var userClient = new ApiRestTestClient(webClient, adminProvisionTask);
+        userClient.login("password-change@example.com", "old-password");
+
+        adminClient.updateUser(organizationId, userId, new UpdateUserRequest(null, null, "new-password"), OK);
+
+        // Invalidation reaches every node's principal cache through the change channel, asynchronously
+        var deadline = Instant.now().plus(INVALIDATION_TIMEOUT);
+        while (userClient.attemptLogin("password-change@example.com", "old-password") == OK && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+        assertNotEquals(OK, userClient.attemptLogin("password-change@example.com", "old-password"));
+        assertEquals(OK, userClient.attemptLogin("password-change@example.com", "new-password"));
+    }
 }
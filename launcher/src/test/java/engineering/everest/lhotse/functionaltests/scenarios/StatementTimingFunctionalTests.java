@@ -0,0 +1,41 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.Launcher;
+import engineering.everest.lhotse.users.services.UsersReadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = Launcher.class)
+@ActiveProfiles("standalone")
+class StatementTimingFunctionalTests {
+
+    private static final String PROJECTIONS_POOL = "HikariPool-projections";
+
+    @Autowired
+    private UsersReadService usersReadService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Hibernate reaches the pool through the transaction manager and its connection provider, not the data source directly
+    @Test
+    void queriesRunThroughHibernateWillBeTimed() {
+        long queriesBefore = projectionQueries();
+
+        usersReadService.getUsers();
+
+        assertTrue(projectionQueries() > queriesBefore,
+                String.format("Loading users left %d timed projection queries unchanged", queriesBefore));
+    }
+
+    private long projectionQueries() {
+        return meterRegistry.find("persistence.statements").tag("pool", PROJECTIONS_POOL).tag("operation", "query").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
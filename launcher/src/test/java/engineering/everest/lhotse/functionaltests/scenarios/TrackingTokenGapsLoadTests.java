@@ -0,0 +1,190 @@
+package engineering.everest.lhotse.functionaltests.scenarios;
+
+import engineering.everest.lhotse.Launcher;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.spring.config.AxonConfiguration;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = Launcher.class, properties = {
+        "application.axon.event-store.gap-timeout-millis=" + TrackingTokenGapsLoadTests.GAP_TIMEOUT_MILLIS,
+        "application.axon.event-store.max-gap-offset=" + TrackingTokenGapsLoadTests.MAX_GAP_OFFSET,
+        "application.axon.event-store.gap-cleaning-threshold=" + TrackingTokenGapsLoadTests.GAP_CLEANING_THRESHOLD,
+        "event-store.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("standalone")
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class TrackingTokenGapsLoadTests {
+
+    static final int GAP_TIMEOUT_MILLIS = 2000;
+    static final int MAX_GAP_OFFSET = 1000;
+    static final int GAP_CLEANING_THRESHOLD = 50;
+
+    private static final int APPENDERS = 16;
+    private static final int TRANSACTIONS_PER_APPENDER = 200;
+    private static final int EVENTS_PER_TRANSACTION = 5;
+    private static final int ROLLED_BACK_EVERY = 5;
+    private static final String GAPS_PARAMETER = ":gaps";
+    private static final String GAP_CLEANING_PARAMETER = ":firstGapOffset";
+
+    @Autowired
+    private EventStorageEngine eventStorageEngine;
+    @Autowired
+    private AxonConfiguration axonConfiguration;
+    @Autowired
+    @Qualifier("event-store")
+    private PlatformTransactionManager platformTransactionManager;
+    @Autowired
+    @Qualifier("event-store")
+    private EntityManagerFactory entityManagerFactory;
+
+    private ExecutorService appenders;
+    private Statistics statistics;
+    private Serializer serializer;
+    private TrackingToken trackingToken;
+    private int maxGaps;
+    private int maxTokenBytes;
+
+    @BeforeEach
+    void setUp() {
+        appenders = Executors.newFixedThreadPool(APPENDERS);
+        serializer = axonConfiguration.serializer();
+        trackingToken = eventStorageEngine.createHeadToken();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        appenders.shutdownNow();
+        appenders.awaitTermination(30, SECONDS);
+    }
+
+    @Test
+    void trackingTokensWillStayBounded_WhenConcurrentAppendsRollBack() throws Exception {
+        List<Future<?>> appending = new ArrayList<>();
+        for (int i = 0; i < APPENDERS; i++) {
+            appending.add(appenders.submit(this::appendWithRollbacks));
+        }
+        while (!appending.stream().allMatch(Future::isDone)) {
+            trackNewEvents();
+        }
+        for (var appender : appending) {
+            appender.get();
+        }
+        trackNewEvents();
+
+        var boundaryToken = GapAwareTrackingToken.newInstance(Long.MAX_VALUE,
+                LongStream.range(0, MAX_GAP_OFFSET).boxed().collect(Collectors.toList()));
+        int boundaryTokenBytes = serializer.serialize(boundaryToken, byte[].class).getData().length;
+        assertTrue(maxGaps <= MAX_GAP_OFFSET, String.format("Tracking token carried %d gaps", maxGaps));
+        assertTrue(maxTokenBytes <= boundaryTokenBytes,
+                String.format("Tracking token grew to %d bytes, beyond the %d bytes of a token at the gap offset limit",
+                        maxTokenBytes, boundaryTokenBytes));
+
+        // Rolled back inserts never fill their gaps, so once they have timed out the next read has to drop them
+        Thread.sleep(2L * GAP_TIMEOUT_MILLIS);
+        append(false);
+        trackNewEvents();
+        int remainingGaps = gaps(trackingToken);
+        assertTrue(remainingGaps <= GAP_CLEANING_THRESHOLD,
+                String.format("%d timed out gaps were still re-queried after cleaning", remainingGaps));
+        assertTrue(queryExecutions(GAPS_PARAMETER) > 0, "Rolled back appends never left gaps to re-query");
+
+        // Once cleaned, an idle poll re-reads the remaining gaps within its single fetch and never cleans them again
+        statistics.clear();
+        trackNewEvents();
+        assertEquals(0, queryExecutions(GAP_CLEANING_PARAMETER));
+        assertTrue(queryExecutions(GAPS_PARAMETER) <= (remainingGaps == 0 ? 0 : 1),
+                String.format("An idle poll re-queried %d gaps in %d queries", remainingGaps, queryExecutions(GAPS_PARAMETER)));
+    }
+
+    private void appendWithRollbacks() {
+        for (int i = 0; i < TRANSACTIONS_PER_APPENDER; i++) {
+            append(i % ROLLED_BACK_EVERY == 0);
+        }
+    }
+
+    private void append(boolean rolledBack) {
+        var aggregateId = randomUUID().toString();
+        List<DomainEventMessage<?>> events = new ArrayList<>(EVENTS_PER_TRANSACTION);
+        for (int sequenceNumber = 0; sequenceNumber < EVENTS_PER_TRANSACTION; sequenceNumber++) {
+            events.add(new GenericDomainEventMessage<>("GapsAggregate", aggregateId, sequenceNumber,
+                    new GapsEvent(aggregateId)));
+        }
+        new TransactionTemplate(platformTransactionManager).executeWithoutResult(status -> {
+            eventStorageEngine.appendEvents(events);
+            if (rolledBack) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private void trackNewEvents() {
+        try (var events = eventStorageEngine.readEvents(trackingToken, false)) {
+            events.map(TrackedEventMessage::trackingToken).forEach(this::track);
+        }
+    }
+
+    private void track(TrackingToken token) {
+        trackingToken = token;
+        int gaps = gaps(token);
+        if (gaps > maxGaps) {
+            maxGaps = gaps;
+            maxTokenBytes = Math.max(maxTokenBytes, serializer.serialize(token, byte[].class).getData().length);
+        }
+    }
+
+    // Axon's gap-aware fetches bind the token's gaps to :gaps, and its gap cleaning reads from :firstGapOffset
+    private long queryExecutions(String parameter) {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains(parameter))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+
+    private static int gaps(TrackingToken token) {
+        return token instanceof GapAwareTrackingToken ? ((GapAwareTrackingToken) token).getGaps().size() : 0;
+    }
+
+    public static class GapsEvent {
+        public String aggregateId;
+
+        public GapsEvent() {
+        }
+
+        GapsEvent(String aggregateId) {
+            this.aggregateId = aggregateId;
+        }
+    }
+}
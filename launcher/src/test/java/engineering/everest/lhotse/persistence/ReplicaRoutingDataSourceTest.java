@@ -0,0 +1,118 @@
+package engineering.everest.lhotse.persistence;
+
+import engineering.everest.lhotse.axon.common.PrimaryReads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setActualTransactionActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setCurrentTransactionReadOnly;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag";
+    private static final String REPLICA = "replica-0";
+
+    @Mock
+    private DataSource primaryDataSource;
+    @Mock
+    private DataSource replicaDataSource;
+    @Mock
+    private Connection replicaConnection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primaryDataSource,
+                Map.of(REPLICA, replicaDataSource), LAG_QUERY, 5, meterRegistry);
+        replicaRoutingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        setActualTransactionActive(false);
+        setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void determineCurrentLookupKey_WillRouteToReplica_WhenTransactionIsReadOnlyAndReplicaIsCaughtUp() throws SQLException {
+        givenReplicationLag(1);
+        replicaRoutingDataSource.checkReplicationLag();
+        givenReadOnlyTransaction();
+
+        assertEquals(REPLICA, replicaRoutingDataSource.determineCurrentLookupKey());
+        assertEquals(1, meterRegistry.get("projections.datasource.connections").tag("route", REPLICA).counter().count());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WillRouteToPrimary_WhenTransactionIsReadWrite() throws SQLException {
+        givenReplicationLag(1);
+        replicaRoutingDataSource.checkReplicationLag();
+        setActualTransactionActive(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_ROUTE, replicaRoutingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WillRouteToPrimary_WhenReplicaLagExceedsMaximum() throws SQLException {
+        givenReplicationLag(30);
+        replicaRoutingDataSource.checkReplicationLag();
+        givenReadOnlyTransaction();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_ROUTE, replicaRoutingDataSource.determineCurrentLookupKey());
+        assertEquals(30, meterRegistry.get("projections.replica.lag").tag("replica", REPLICA).gauge().value());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WillRouteToPrimary_WhenLagCannotBeMeasured() throws SQLException {
+        when(replicaDataSource.getConnection()).thenThrow(SQLException.class);
+        replicaRoutingDataSource.checkReplicationLag();
+        givenReadOnlyTransaction();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_ROUTE, replicaRoutingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WillRouteToPrimary_WhenPrimaryReadIsRequired() throws SQLException {
+        givenReplicationLag(1);
+        replicaRoutingDataSource.checkReplicationLag();
+        givenReadOnlyTransaction();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_ROUTE,
+                PrimaryReads.onPrimary(() -> replicaRoutingDataSource.determineCurrentLookupKey()));
+    }
+
+    private void givenReadOnlyTransaction() {
+        setActualTransactionActive(true);
+        setCurrentTransactionReadOnly(true);
+    }
+
+    private void givenReplicationLag(double lagSeconds) throws SQLException {
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+    }
+}
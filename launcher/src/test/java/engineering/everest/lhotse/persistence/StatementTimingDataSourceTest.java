@@ -0,0 +1,113 @@
+package engineering.everest.lhotse.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementTimingDataSourceTest {
+
+    private static final String POOL_NAME = "HikariPool-test";
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementTimingDataSource statementTimingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var targetDataSource = new DriverManagerDataSource("jdbc:h2:mem:" + randomUUID() + ";DB_CLOSE_DELAY=-1");
+        statementTimingDataSource = new StatementTimingDataSource(targetDataSource, POOL_NAME, meterRegistry, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void getConnection_WillTimeStatementsByOperation() throws SQLException {
+        try (var connection = statementTimingDataSource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.execute("create table things (id int)");
+            try (var insert = connection.prepareStatement("insert into things (id) values (?)")) {
+                insert.setInt(1, 1);
+                insert.executeUpdate();
+                insert.setInt(1, 2);
+                insert.addBatch();
+                insert.setInt(1, 3);
+                insert.addBatch();
+                insert.executeBatch();
+            }
+            try (var resultSet = statement.executeQuery("select count(*) from things")) {
+                resultSet.next();
+                assertEquals(3, resultSet.getInt(1));
+            }
+        }
+
+        assertEquals(1, statementCount("execute"));
+        assertEquals(1, statementCount("update"));
+        assertEquals(1, statementCount("batch"));
+        assertEquals(1, statementCount("query"));
+    }
+
+    @Test
+    void getConnection_WillTimeFailedStatements() throws SQLException {
+        try (var connection = statementTimingDataSource.getConnection();
+             var statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.executeQuery("select * from missing_table"));
+        }
+
+        assertEquals(1, statementCount("query"));
+    }
+
+    @Test
+    void getConnection_WillReturnConnectionsThatAreOnlyEqualToThemselves() throws SQLException {
+        try (var connection = statementTimingDataSource.getConnection();
+             var otherConnection = statementTimingDataSource.getConnection()) {
+            assertTrue(connection.equals(connection));
+            assertNotEquals(connection, otherConnection);
+            assertEquals(System.identityHashCode(connection), connection.hashCode());
+        }
+    }
+
+    @Test
+    void getConnection_WillKeepTimingStatements_WhenConnectionIsUnwrapped() throws SQLException {
+        try (var connection = statementTimingDataSource.getConnection()) {
+            assertTrue(connection.isWrapperFor(Connection.class));
+            var unwrapped = connection.unwrap(Connection.class);
+            assertSame(connection, unwrapped);
+            try (var statement = unwrapped.createStatement()) {
+                statement.execute("select 1");
+            }
+        }
+
+        assertEquals(1, statementCount("execute"));
+    }
+
+    @Test
+    void getConnection_WillKeepTimingStatements_WhenStatementIsUnwrapped() throws SQLException {
+        try (var connection = statementTimingDataSource.getConnection();
+             var statement = connection.prepareStatement("select 1")) {
+            assertTrue(statement.isWrapperFor(PreparedStatement.class));
+            var unwrapped = statement.unwrap(PreparedStatement.class);
+            assertSame(statement, unwrapped);
+            unwrapped.executeQuery().close();
+        }
+
+        assertEquals(1, statementCount("query"));
+    }
+
+    private long statementCount(String operation) {
+        return meterRegistry.get("persistence.statements")
+                .tag("pool", POOL_NAME)
+                .tag("operation", operation)
+                .timer().count();
+    }
+}
@@ -3,6 +3,7 @@ package engineering.everest.lhotse.organizations;
 import engineering.everest.lhotse.axon.common.domain.Identifiable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.UUID;
@@ -20,5 +21,12 @@ public class Organization implements Identifiable {
     private String phoneNumber;
     private String emailAddress;
     private boolean deregistered;
+    // Version of the projection row this organization was read from, so conditional requests are answered from the same read
+    @EqualsAndHashCode.Exclude
+    private long version;
 
+    public Organization(UUID id, String organizationName, OrganizationAddress organizationAddress, String websiteUrl,
+                        String contactName, String phoneNumber, String emailAddress, boolean deregistered) {
+        this(id, organizationName, organizationAddress, websiteUrl, contactName, phoneNumber, emailAddress, deregistered, 0L);
+    }
 }
@@ -5,10 +5,15 @@ import engineering.everest.lhotse.organizations.Organization;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface OrganizationsReadService extends ReadService<Organization> {
 
     List<Organization> getOrganizations();
 
+    List<Organization> getOrganizations(UUID afterOrganizationId, int pageSize);
+
+    void forEachOrganization(Consumer<Organization> action);
+
     boolean exists(UUID organizationId);
 }
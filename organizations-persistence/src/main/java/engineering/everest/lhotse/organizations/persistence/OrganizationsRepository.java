@@ -1,15 +1,25 @@
 package engineering.everest.lhotse.organizations.persistence;
 
 import engineering.everest.lhotse.organizations.OrganizationAddress;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface OrganizationsRepository extends JpaRepository<PersistableOrganization, UUID> {
 
+    String STREAM_FETCH_SIZE = "500";
+
     default void createOrganization(UUID id, String organizationName, OrganizationAddress organizationAddress,
                                     String websiteUrl, String contactName, String phoneNumber, String emailAddress,
                                     Instant registeredOn) {
@@ -19,4 +29,18 @@ public interface OrganizationsRepository extends JpaRepository<PersistableOrgani
         save(new PersistableOrganization(id, organizationName, address, websiteUrl, contactName, phoneNumber, emailAddress,
                 registeredOn));
     }
+
+    default List<PersistableOrganization> findPage(UUID afterOrganizationId, int pageSize) {
+        var pageable = PageRequest.of(0, pageSize);
+        return afterOrganizationId == null
+                ? findByOrderByIdAsc(pageable)
+                : findByIdGreaterThanOrderByIdAsc(afterOrganizationId, pageable);
+    }
+
+    List<PersistableOrganization> findByOrderByIdAsc(Pageable pageable);
+
+    List<PersistableOrganization> findByIdGreaterThanOrderByIdAsc(UUID afterOrganizationId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<PersistableOrganization> streamAllByOrderByIdAsc();
 }
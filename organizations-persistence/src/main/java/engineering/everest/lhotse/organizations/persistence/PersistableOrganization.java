@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -23,6 +24,9 @@ public class PersistableOrganization {
     private String phoneNumber;
     private String emailAddress;
     private boolean deregistered;
+    // Null until first persisted, so Spring Data inserts new rows instead of merging them with a select first
+    @Version
+    private Long version;
 
     public PersistableOrganization(UUID id, String organizationName, Address address, String websiteUrl,
                                    String contactName, String phoneNumber, String emailAddress, Instant registeredOn) {
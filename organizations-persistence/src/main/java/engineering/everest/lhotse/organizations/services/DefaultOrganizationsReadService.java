@@ -6,46 +6,84 @@ import engineering.everest.lhotse.organizations.Organization;
 import engineering.everest.lhotse.organizations.OrganizationAddress;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
 
+import static engineering.everest.lhotse.axon.common.PrimaryReads.onPrimary;
+import static engineering.everest.lhotse.axon.common.ProjectionsTransactionManagers.PROJECTIONS_ONLY;
+import static java.util.Objects.requireNonNullElse;
 import static java.util.stream.Collectors.toList;
 
 @Service
 public class DefaultOrganizationsReadService implements OrganizationsReadService {
 
     private final OrganizationsRepository organizationsRepository;
+    private final OrganizationsCache organizationsCache;
+    private final EntityManager entityManager;
 
     @Autowired
-    public DefaultOrganizationsReadService(OrganizationsRepository organizationsRepository) {
+    public DefaultOrganizationsReadService(OrganizationsRepository organizationsRepository,
+                                           OrganizationsCache organizationsCache,
+                                           EntityManager entityManager) {
         this.organizationsRepository = organizationsRepository;
+        this.organizationsCache = organizationsCache;
+        this.entityManager = entityManager;
     }
 
     @Override
     public boolean exists(UUID organizationId) {
-        return organizationsRepository.findById(organizationId).isPresent();
+        return organizationsCache.getCurrentSnapshot()
+                .map(snapshot -> snapshot.getOrganizationsById().containsKey(organizationId))
+                .orElseGet(() -> organizationsRepository.existsById(organizationId));
     }
 
     @Override
     public Organization getById(UUID id) {
-        return convert(organizationsRepository.findById(id).orElseThrow());
+        return organizationsCache.getCurrentSnapshot()
+                .map(snapshot -> Optional.ofNullable(snapshot.getOrganizationsById().get(id)))
+                .orElseGet(() -> organizationsRepository.findById(id).map(DefaultOrganizationsReadService::convert))
+                .orElseThrow();
     }
 
     @Override
     public List<Organization> getOrganizations() {
-        return organizationsRepository.findAll().stream()
+        return organizationsCache.getSnapshot(() -> onPrimary(() -> organizationsRepository.findAll().stream()
+                .map(DefaultOrganizationsReadService::convert)
+                .collect(toList())))
+                .getOrganizations();
+    }
+
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public List<Organization> getOrganizations(UUID afterOrganizationId, int pageSize) {
+        return organizationsRepository.findPage(afterOrganizationId, pageSize).stream()
                 .map(DefaultOrganizationsReadService::convert)
                 .collect(toList());
     }
 
-    private static Organization convert(PersistableOrganization persistableOrganization) {
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public void forEachOrganization(Consumer<Organization> action) {
+        try (var organizations = organizationsRepository.streamAllByOrderByIdAsc()) {
+            organizations.forEach(persistableOrganization -> {
+                entityManager.detach(persistableOrganization);
+                action.accept(convert(persistableOrganization));
+            });
+        }
+    }
+
+    public static Organization convert(PersistableOrganization persistableOrganization) {
         var address = persistableOrganization.getAddress();
         var organizationAddress = new OrganizationAddress(address.getStreet(),
                 address.getCity(), address.getState(), address.getCountry(), address.getPostalCode());
         return new Organization(persistableOrganization.getId(), persistableOrganization.getOrganizationName(),
                 organizationAddress, persistableOrganization.getWebsiteUrl(), persistableOrganization.getContactName(),
                 persistableOrganization.getPhoneNumber(), persistableOrganization.getEmailAddress(),
-                persistableOrganization.isDeregistered());
+                persistableOrganization.isDeregistered(), requireNonNullElse(persistableOrganization.getVersion(), 0L));
     }
 }
@@ -0,0 +1,166 @@
+package engineering.everest.lhotse.organizations.services;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.organizations.Organization;
+import engineering.everest.lhotse.organizations.persistence.OrganizationsRepository;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.PrimaryReads.onPrimary;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+@Component
+@Log4j2
+public class OrganizationsCache {
+
+    private static final long NO_SEQUENCE = -1;
+
+    private final ChangeChannel changeChannel;
+    private final OrganizationsRepository organizationsRepository;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private long lastSequence = NO_SEQUENCE;
+    private String organizationChanges;
+
+    @Autowired
+    public OrganizationsCache(ChangeChannel changeChannel,
+                              OrganizationsRepository organizationsRepository,
+                              @Value("${application.organizations.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this(changeChannel, organizationsRepository, expireAfterWriteSeconds, System::nanoTime);
+    }
+
+    OrganizationsCache(ChangeChannel changeChannel, OrganizationsRepository organizationsRepository,
+                       long expireAfterWriteSeconds, LongSupplier nanoClock) {
+        this.changeChannel = changeChannel;
+        this.organizationsRepository = organizationsRepository;
+        this.expireAfterWriteNanos = SECONDS.toNanos(expireAfterWriteSeconds);
+        this.nanoClock = nanoClock;
+    }
+
+    // Changes made on other nodes only reach this snapshot through the channel
+    @PostConstruct
+    public void subscribeToOrganizationChanges() {
+        organizationChanges = changeChannel.addListener(this::onChange);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromOrganizationChanges() {
+        changeChannel.removeListener(organizationChanges);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void markChanged() {
+        synchronized (this) {
+            version.incrementAndGet();
+        }
+    }
+
+    // Patches the current snapshot with the committed state of one organization, so reads keep being served from memory
+    // between changes instead of falling back to the database until the next full load
+    public void refresh(UUID organizationId, Supplier<Optional<Organization>> loader) {
+        synchronized (this) {
+            var currentSnapshot = getCurrentSnapshot();
+            if (currentSnapshot.isPresent()) {
+                snapshot = currentSnapshot.get().with(version.get() + 1, organizationId, loader.get());
+            }
+            version.incrementAndGet();
+        }
+    }
+
+    public Snapshot getSnapshot(Supplier<List<Organization>> loader) {
+        var currentSnapshot = snapshot;
+        if (isCurrent(currentSnapshot)) {
+            return currentSnapshot;
+        }
+        synchronized (this) {
+            long versionBeforeLoad = version.get();
+            if (isCurrent(snapshot)) {
+                return snapshot;
+            }
+            // Stamped with the version read before loading, so a change made while loading forces another rebuild
+            snapshot = new Snapshot(versionBeforeLoad, nanoClock.getAsLong(), loader.get());
+            return snapshot;
+        }
+    }
+
+    public Optional<Snapshot> getCurrentSnapshot() {
+        var currentSnapshot = snapshot;
+        return isCurrent(currentSnapshot) ? Optional.of(currentSnapshot) : Optional.empty();
+    }
+
+    private void onChange(ChangeNotification change) {
+        synchronized (this) {
+            if (lastSequence != NO_SEQUENCE && change.getSequence() != lastSequence + 1) {
+                LOGGER.warn("Organizations cache missed changes {} to {}, dropping the snapshot",
+                        lastSequence + 1, change.getSequence() - 1);
+                markChanged();
+            }
+            lastSequence = change.getSequence();
+        }
+        if (change.getEntityType() == ORGANIZATION) {
+            var organizationId = change.getEntityId();
+            // Announced after commit, so the primary already holds the change the replicas may still be missing
+            refresh(organizationId, () -> onPrimary(() -> organizationsRepository.findById(organizationId)
+                    .map(DefaultOrganizationsReadService::convert)));
+        }
+    }
+
+    // Patches keep the time of the full load, so a snapshot that missed a change is still rebuilt eventually
+    private boolean isCurrent(Snapshot currentSnapshot) {
+        return currentSnapshot != null
+                && currentSnapshot.getVersion() == version.get()
+                && nanoClock.getAsLong() - currentSnapshot.getLoadedAtNanos() < expireAfterWriteNanos;
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long version;
+        private final long loadedAtNanos;
+        private final List<Organization> organizations;
+        private final Map<UUID, Organization> organizationsById;
+
+        Snapshot(long version, long loadedAtNanos, List<Organization> organizations) {
+            this.version = version;
+            this.loadedAtNanos = loadedAtNanos;
+            this.organizations = List.copyOf(organizations);
+            this.organizationsById = this.organizations.stream()
+                    .collect(toUnmodifiableMap(Organization::getId, Function.identity()));
+        }
+
+        private Snapshot with(long newVersion, UUID organizationId, Optional<Organization> organization) {
+            var updatedOrganizations = new ArrayList<>(organizations);
+            var existing = organizationsById.get(organizationId);
+            if (existing == null) {
+                organization.ifPresent(updatedOrganizations::add);
+            } else if (organization.isPresent()) {
+                updatedOrganizations.set(updatedOrganizations.indexOf(existing), organization.get());
+            } else {
+                updatedOrganizations.remove(existing);
+            }
+            return new Snapshot(newVersion, loadedAtNanos, updatedOrganizations);
+        }
+    }
+}
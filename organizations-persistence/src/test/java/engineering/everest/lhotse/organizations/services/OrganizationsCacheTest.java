@@ -0,0 +1,225 @@
+package engineering.everest.lhotse.organizations.services;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.organizations.Organization;
+import engineering.everest.lhotse.organizations.persistence.Address;
+import engineering.everest.lhotse.organizations.persistence.OrganizationsRepository;
+import engineering.everest.lhotse.organizations.persistence.PersistableOrganization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrganizationsCacheTest {
+
+    private static final Organization ORGANIZATION_1 = new Organization(randomUUID(), "organization-1", null, null, null, null, null, false);
+    private static final Organization ORGANIZATION_2 = new Organization(randomUUID(), "organization-2", null, null, null, null, null, false);
+
+    private static final long EXPIRE_AFTER_WRITE_SECONDS = 60;
+
+    @Mock
+    private Supplier<List<Organization>> loader;
+    @Mock
+    private ChangeChannel changeChannel;
+    @Mock
+    private OrganizationsRepository organizationsRepository;
+    @Captor
+    private ArgumentCaptor<Consumer<ChangeNotification>> changeListener;
+
+    private long nanoTime;
+    private OrganizationsCache organizationsCache;
+
+    @BeforeEach
+    void setUp() {
+        organizationsCache = new OrganizationsCache(changeChannel, organizationsRepository, EXPIRE_AFTER_WRITE_SECONDS,
+                () -> nanoTime);
+        organizationsCache.subscribeToOrganizationChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+    }
+
+    @Test
+    void getSnapshot_WillReuseSnapshot_WhenNothingHasChanged() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        var snapshot = organizationsCache.getSnapshot(loader);
+
+        assertSame(snapshot, organizationsCache.getSnapshot(loader));
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void getSnapshot_WillRebuild_WhenMarkedChanged() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1), List.of(ORGANIZATION_1, ORGANIZATION_2));
+
+        organizationsCache.getSnapshot(loader);
+        organizationsCache.markChanged();
+        var snapshot = organizationsCache.getSnapshot(loader);
+
+        assertEquals(List.of(ORGANIZATION_1, ORGANIZATION_2), snapshot.getOrganizations());
+        assertEquals(1L, snapshot.getVersion());
+    }
+
+    @Test
+    void getSnapshot_WillRebuildAgain_WhenChangedWhileLoading() {
+        when(loader.get()).thenAnswer(invocation -> {
+            organizationsCache.markChanged();
+            return List.of(ORGANIZATION_1);
+        }).thenReturn(List.of(ORGANIZATION_2));
+
+        organizationsCache.getSnapshot(loader);
+
+        assertEquals(List.of(ORGANIZATION_2), organizationsCache.getSnapshot(loader).getOrganizations());
+    }
+
+    @Test
+    void getCurrentSnapshot_WillBeEmpty_WhenSnapshotIsStale() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        organizationsCache.getSnapshot(loader);
+        assertTrue(organizationsCache.getCurrentSnapshot().isPresent());
+
+        organizationsCache.markChanged();
+        assertTrue(organizationsCache.getCurrentSnapshot().isEmpty());
+    }
+
+    @Test
+    void refresh_WillPatchCurrentSnapshot_WhenOrganizationHasChanged() {
+        var renamed = new Organization(ORGANIZATION_1.getId(), "renamed", null, null, null, null, null, false);
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1, ORGANIZATION_2));
+
+        organizationsCache.getSnapshot(loader);
+        organizationsCache.refresh(ORGANIZATION_1.getId(), () -> Optional.of(renamed));
+
+        var snapshot = organizationsCache.getCurrentSnapshot().orElseThrow();
+        assertEquals(List.of(renamed, ORGANIZATION_2), snapshot.getOrganizations());
+        assertSame(renamed, snapshot.getOrganizationsById().get(ORGANIZATION_1.getId()));
+        assertSame(snapshot, organizationsCache.getSnapshot(loader));
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void refresh_WillAddOrganizationToCurrentSnapshot_WhenOrganizationIsNew() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        organizationsCache.getSnapshot(loader);
+        organizationsCache.refresh(ORGANIZATION_2.getId(), () -> Optional.of(ORGANIZATION_2));
+
+        assertEquals(List.of(ORGANIZATION_1, ORGANIZATION_2),
+                organizationsCache.getCurrentSnapshot().orElseThrow().getOrganizations());
+    }
+
+    @Test
+    void refresh_WillRemoveOrganizationFromCurrentSnapshot_WhenItNoLongerExists() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1, ORGANIZATION_2));
+
+        organizationsCache.getSnapshot(loader);
+        organizationsCache.refresh(ORGANIZATION_1.getId(), Optional::empty);
+
+        assertEquals(List.of(ORGANIZATION_2), organizationsCache.getCurrentSnapshot().orElseThrow().getOrganizations());
+    }
+
+    @Test
+    void refresh_WillNotLoadOrganization_WhenThereIsNoCurrentSnapshot() {
+        Supplier<Optional<Organization>> organizationLoader = () -> {
+            throw new AssertionError("Nothing to patch");
+        };
+
+        organizationsCache.refresh(ORGANIZATION_1.getId(), organizationLoader);
+
+        assertTrue(organizationsCache.getCurrentSnapshot().isEmpty());
+    }
+
+    @Test
+    void getCurrentSnapshot_WillBePatched_WhenAnyNodeChangedAnOrganization() {
+        var persistableOrganization = new PersistableOrganization(ORGANIZATION_1.getId(), "renamed",
+                new Address("street", "city", "state", "country", "postal-code"), null, null, null, null, Instant.now());
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1, ORGANIZATION_2));
+        when(organizationsRepository.findById(ORGANIZATION_1.getId())).thenReturn(Optional.of(persistableOrganization));
+
+        organizationsCache.getSnapshot(loader);
+        changeListener.getValue().accept(new ChangeNotification(1, ORGANIZATION, ORGANIZATION_1.getId(), ORGANIZATION_1.getId()));
+
+        var snapshot = organizationsCache.getCurrentSnapshot().orElseThrow();
+        assertEquals("renamed", snapshot.getOrganizationsById().get(ORGANIZATION_1.getId()).getOrganizationName());
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void getCurrentSnapshot_WillBeUnaffected_WhenAUserChanged() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        var snapshot = organizationsCache.getSnapshot(loader);
+        changeListener.getValue().accept(new ChangeNotification(1, USER, randomUUID(), ORGANIZATION_1.getId()));
+
+        assertSame(snapshot, organizationsCache.getCurrentSnapshot().orElseThrow());
+        verifyNoInteractions(organizationsRepository);
+    }
+
+    @Test
+    void getCurrentSnapshot_WillBeEmpty_WhenChangesWereMissed() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        changeListener.getValue().accept(new ChangeNotification(1, USER, randomUUID(), randomUUID()));
+        organizationsCache.getSnapshot(loader);
+        changeListener.getValue().accept(new ChangeNotification(5, USER, randomUUID(), randomUUID()));
+
+        assertTrue(organizationsCache.getCurrentSnapshot().isEmpty());
+    }
+
+    @Test
+    void getSnapshot_WillRebuild_WhenSnapshotHasExpired() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1), List.of(ORGANIZATION_2));
+
+        organizationsCache.getSnapshot(loader);
+        nanoTime += SECONDS.toNanos(EXPIRE_AFTER_WRITE_SECONDS);
+
+        assertTrue(organizationsCache.getCurrentSnapshot().isEmpty());
+        assertEquals(List.of(ORGANIZATION_2), organizationsCache.getSnapshot(loader).getOrganizations());
+    }
+
+    @Test
+    void getSnapshot_WillExpire_WhenOnlyPatchedSinceItWasLoaded() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        organizationsCache.getSnapshot(loader);
+        nanoTime += SECONDS.toNanos(EXPIRE_AFTER_WRITE_SECONDS) - 1;
+        organizationsCache.refresh(ORGANIZATION_2.getId(), () -> Optional.of(ORGANIZATION_2));
+        assertTrue(organizationsCache.getCurrentSnapshot().isPresent());
+
+        nanoTime += 1;
+        assertTrue(organizationsCache.getCurrentSnapshot().isEmpty());
+    }
+
+    @Test
+    void snapshotOrganizations_WillBeUnmodifiable() {
+        when(loader.get()).thenReturn(List.of(ORGANIZATION_1));
+
+        var organizations = organizationsCache.getSnapshot(loader).getOrganizations();
+
+        assertThrows(UnsupportedOperationException.class, () -> organizations.add(ORGANIZATION_2));
+    }
+}
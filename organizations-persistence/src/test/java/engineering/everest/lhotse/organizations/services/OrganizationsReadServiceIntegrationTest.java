@@ -1,5 +1,6 @@
 package engineering.everest.lhotse.organizations.services;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
 import engineering.everest.lhotse.organizations.Organization;
 import engineering.everest.lhotse.organizations.OrganizationAddress;
 import engineering.everest.lhotse.organizations.persistence.OrganizationsRepository;
@@ -17,7 +18,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 import static java.util.Arrays.asList;
@@ -89,6 +93,8 @@ class OrganizationsReadServiceIntegrationTest {
     private DefaultOrganizationsReadService organizationsReadService;
     @MockBean
     private UsersReadService usersReadService;
+    @MockBean
+    private ChangeChannel changeChannel;
 
     @BeforeEach
     void setUp() {
@@ -116,6 +122,36 @@ class OrganizationsReadServiceIntegrationTest {
                 organizationsReadService.getOrganizations());
     }
 
+    @Test
+    void getOrganizationsPage_WillPageThroughAllOrganizations_WhenFollowingLastIdOfPreviousPage() {
+        var firstPage = organizationsReadService.getOrganizations(null, 2);
+        var secondPage = organizationsReadService.getOrganizations(firstPage.get(1).getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        var allOrganizations = new HashSet<>(firstPage);
+        allOrganizations.addAll(secondPage);
+        assertEquals(Set.of(ORGANIZATION_1, ORGANIZATION_2, ORGANIZATION_3), allOrganizations);
+    }
+
+    @Test
+    void forEachOrganization_WillVisitAllOrganizations() {
+        var visitedOrganizations = new HashSet<Organization>();
+        organizationsReadService.forEachOrganization(visitedOrganizations::add);
+
+        assertEquals(Set.of(ORGANIZATION_1, ORGANIZATION_2, ORGANIZATION_3), visitedOrganizations);
+    }
+
+    @Test
+    void forEachOrganization_WillCarryIncreasedVersion_WhenOrganizationIsUpdated() {
+        var initialVersion = projectedVersion(ORGANIZATION_ID_1);
+        var persistableOrganization = organizationsRepository.findById(ORGANIZATION_ID_1).orElseThrow();
+        persistableOrganization.setWebsiteUrl("updated-website-url");
+        organizationsRepository.saveAndFlush(persistableOrganization);
+
+        assertEquals(initialVersion + 1, projectedVersion(ORGANIZATION_ID_1));
+    }
+
     @Test
     void getOrganization_WillReturnOrganization_WhenItExists() {
         assertEquals(ORGANIZATION_1, organizationsReadService.getById(ORGANIZATION_ID_1));
@@ -125,4 +161,10 @@ class OrganizationsReadServiceIntegrationTest {
     void getOrganization_WillFail_WhenOrganizationDoesNotExist() {
         assertThrows(NoSuchElementException.class, () -> organizationsReadService.getById(randomUUID()));
     }
+
+    private long projectedVersion(UUID organizationId) {
+        var versions = new HashMap<UUID, Long>();
+        organizationsReadService.forEachOrganization(organization -> versions.put(organization.getId(), organization.getVersion()));
+        return versions.get(organizationId);
+    }
 }
@@ -18,6 +18,8 @@ import org.axonframework.modelling.command.AggregateMember;
 import org.axonframework.spring.stereotype.Aggregate;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.UUID;
 
 import static org.axonframework.modelling.command.AggregateLifecycle.apply;
@@ -29,6 +31,7 @@ public class OrganizationAggregate implements Serializable {
     private UUID id;
     @AggregateMember
     private OrganizationContactDetails organizationContactDetails = new OrganizationContactDetails();
+    private String organizationName;
     private boolean deregistered;
 
     protected OrganizationAggregate() {
@@ -59,17 +62,41 @@ public class OrganizationAggregate implements Serializable {
         validateOrganizationIsNotDeregistered();
         validateAtLeastOneUpdateIsMade(command);
 
-        apply(new OrganizationNameUpdatedByAdminEvent(command.getOrganizationId(), command.getOrganizationName(),
-                command.getRequestingUserId()));
-        apply(new OrganizationContactDetailsUpdatedByAdminEvent(command.getOrganizationId(), command.getContactName(),
-                command.getPhoneNumber(), command.getEmailAddress(), command.getWebsiteUrl(), command.getRequestingUserId()));
-        apply(new OrganizationAddressUpdatedByAdminEvent(command.getOrganizationId(), command.getStreet(), command.getCity(),
-                command.getState(), command.getCountry(), command.getPostalCode(), command.getRequestingUserId()));
+        var organizationNameChange = changeOf(command.getOrganizationName(), organizationName);
+        if (organizationNameChange != null) {
+            apply(new OrganizationNameUpdatedByAdminEvent(command.getOrganizationId(), organizationNameChange,
+                    command.getRequestingUserId()));
+        }
+
+        var contactNameChange = changeOf(command.getContactName(), organizationContactDetails.getContactName());
+        var phoneNumberChange = changeOf(command.getPhoneNumber(), organizationContactDetails.getContactPhoneNumber());
+        var emailAddressChange = changeOf(command.getEmailAddress(), organizationContactDetails.getContactEmail());
+        var websiteUrlChange = changeOf(command.getWebsiteUrl(), organizationContactDetails.getWebsiteUrl());
+        if (anyChange(contactNameChange, phoneNumberChange, emailAddressChange, websiteUrlChange)) {
+            apply(new OrganizationContactDetailsUpdatedByAdminEvent(command.getOrganizationId(), contactNameChange,
+                    phoneNumberChange, emailAddressChange, websiteUrlChange, command.getRequestingUserId()));
+        }
+
+        var streetChange = changeOf(command.getStreet(), organizationContactDetails.getStreet());
+        var cityChange = changeOf(command.getCity(), organizationContactDetails.getCity());
+        var stateChange = changeOf(command.getState(), organizationContactDetails.getState());
+        var countryChange = changeOf(command.getCountry(), organizationContactDetails.getCountry());
+        var postalCodeChange = changeOf(command.getPostalCode(), organizationContactDetails.getPostalCode());
+        if (anyChange(streetChange, cityChange, stateChange, countryChange, postalCodeChange)) {
+            apply(new OrganizationAddressUpdatedByAdminEvent(command.getOrganizationId(), streetChange, cityChange,
+                    stateChange, countryChange, postalCodeChange, command.getRequestingUserId()));
+        }
     }
 
     @EventSourcingHandler
     void on(OrganizationRegisteredByAdminEvent event) {
         id = event.getOrganizationId();
+        organizationName = event.getOrganizationName();
+    }
+
+    @EventSourcingHandler
+    void on(OrganizationNameUpdatedByAdminEvent event) {
+        organizationName = selectDesiredState(event.getOrganizationName(), organizationName);
     }
 
     @EventSourcingHandler
@@ -100,4 +127,16 @@ public class OrganizationAggregate implements Serializable {
 
         Validate.isTrue(changesMade, "At least one organization field change must be requested");
     }
+
+    private static String changeOf(String requestedState, String currentState) {
+        return requestedState == null || requestedState.equals(currentState) ? null : requestedState;
+    }
+
+    private static boolean anyChange(String... changes) {
+        return Arrays.stream(changes).anyMatch(Objects::nonNull);
+    }
+
+    private String selectDesiredState(String desiredState, String currentState) {
+        return desiredState == null ? currentState : desiredState;
+    }
 }
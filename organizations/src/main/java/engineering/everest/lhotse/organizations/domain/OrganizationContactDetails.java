@@ -2,7 +2,9 @@ package engineering.everest.lhotse.organizations.domain;
 
 import engineering.everest.lhotse.organizations.domain.events.OrganizationAddressUpdatedByAdminEvent;
 import engineering.everest.lhotse.organizations.domain.events.OrganizationContactDetailsUpdatedByAdminEvent;
+import engineering.everest.lhotse.organizations.domain.events.OrganizationRegisteredByAdminEvent;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.EntityId;
@@ -10,6 +12,7 @@ import org.axonframework.modelling.command.EntityId;
 import java.io.Serializable;
 import java.util.UUID;
 
+@Getter
 @EqualsAndHashCode
 @ToString
 class OrganizationContactDetails implements Serializable {
@@ -30,19 +33,37 @@ class OrganizationContactDetails implements Serializable {
     }
 
     @EventSourcingHandler
-    void on(OrganizationContactDetailsUpdatedByAdminEvent event) {
-        contactName = event.getContactName();
-        contactEmail = event.getEmailAddress();
-        contactPhoneNumber = event.getPhoneNumber();
+    void on(OrganizationRegisteredByAdminEvent event) {
+        organizationId = event.getOrganizationId();
         websiteUrl = event.getWebsiteUrl();
+        contactName = event.getContactName();
+        contactPhoneNumber = event.getContactPhoneNumber();
+        contactEmail = event.getContactEmail();
+        street = event.getStreet();
+        city = event.getCity();
+        state = event.getState();
+        country = event.getCountry();
+        postalCode = event.getPostalCode();
+    }
+
+    @EventSourcingHandler
+    void on(OrganizationContactDetailsUpdatedByAdminEvent event) {
+        contactName = selectDesiredState(event.getContactName(), contactName);
+        contactEmail = selectDesiredState(event.getEmailAddress(), contactEmail);
+        contactPhoneNumber = selectDesiredState(event.getPhoneNumber(), contactPhoneNumber);
+        websiteUrl = selectDesiredState(event.getWebsiteUrl(), websiteUrl);
     }
 
     @EventSourcingHandler
     void on(OrganizationAddressUpdatedByAdminEvent event) {
-        city = event.getCity();
-        country = event.getCountry();
-        postalCode = event.getPostalCode();
-        state = event.getState();
-        street = event.getStreet();
+        city = selectDesiredState(event.getCity(), city);
+        country = selectDesiredState(event.getCountry(), country);
+        postalCode = selectDesiredState(event.getPostalCode(), postalCode);
+        state = selectDesiredState(event.getState(), state);
+        street = selectDesiredState(event.getStreet(), street);
+    }
+
+    private String selectDesiredState(String desiredState, String currentState) {
+        return desiredState == null ? currentState : desiredState;
     }
 }
@@ -1,5 +1,7 @@
 package engineering.everest.lhotse.organizations.eventhandlers;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.axon.replay.ReplayCompletionAware;
 import engineering.everest.lhotse.organizations.OrganizationAddress;
 import engineering.everest.lhotse.organizations.domain.events.OrganizationAddressUpdatedByAdminEvent;
@@ -10,30 +12,49 @@ import engineering.everest.lhotse.organizations.domain.events.OrganizationRegist
 import engineering.everest.lhotse.organizations.domain.events.OrganizationReregisteredByAdminEvent;
 import engineering.everest.lhotse.organizations.persistence.Address;
 import engineering.everest.lhotse.organizations.persistence.OrganizationsRepository;
+import engineering.everest.lhotse.organizations.services.DefaultOrganizationsReadService;
+import engineering.everest.lhotse.organizations.services.OrganizationsCache;
 import lombok.extern.log4j.Log4j2;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.axon.common.PrimaryReads.onPrimary;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
 
 @Service
 @Log4j2
 public class OrganizationsEventHandler implements ReplayCompletionAware {
 
     private final OrganizationsRepository organizationsRepository;
+    private final OrganizationsCache organizationsCache;
+    private final ChangeFeed changeFeed;
+    private final PermissionViewCache permissionViewCache;
 
     @Autowired
-    public OrganizationsEventHandler(OrganizationsRepository organizationsRepository) {
+    public OrganizationsEventHandler(OrganizationsRepository organizationsRepository,
+                                     OrganizationsCache organizationsCache,
+                                     ChangeFeed changeFeed,
+                                     PermissionViewCache permissionViewCache) {
         this.organizationsRepository = organizationsRepository;
+        this.organizationsCache = organizationsCache;
+        this.changeFeed = changeFeed;
+        this.permissionViewCache = permissionViewCache;
     }
 
     @ResetHandler
     public void prepareForReplay() {
         LOGGER.info("{} deleting projections", OrganizationsEventHandler.class.getSimpleName());
-        organizationsRepository.deleteAll();
+        organizationsRepository.deleteAllInBatch();
+        organizationsCache.markChanged();
+        permissionViewCache.invalidateAll();
     }
 
     @EventHandler
@@ -44,6 +65,7 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         organizationsRepository.createOrganization(event.getOrganizationId(), event.getOrganizationName(),
                 organizationAddress, event.getWebsiteUrl(), event.getContactName(), event.getContactPhoneNumber(),
                 event.getContactEmail(), creationTime);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
     }
 
     @EventHandler
@@ -52,6 +74,7 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         var persistableOrganization = organizationsRepository.findById(event.getOrganizationId()).orElseThrow();
         persistableOrganization.setDeregistered(true);
         organizationsRepository.save(persistableOrganization);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
     }
 
     @EventHandler
@@ -60,6 +83,7 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         var persistableOrganization = organizationsRepository.findById(event.getOrganizationId()).orElseThrow();
         persistableOrganization.setDeregistered(false);
         organizationsRepository.save(persistableOrganization);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
     }
 
     @EventHandler
@@ -68,6 +92,7 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         var organization = organizationsRepository.findById(event.getOrganizationId()).orElseThrow();
         organization.setOrganizationName(selectDesiredState(event.getOrganizationName(), organization.getOrganizationName()));
         organizationsRepository.save(organization);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
     }
 
     @EventHandler
@@ -79,6 +104,7 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         organization.setEmailAddress(selectDesiredState(event.getEmailAddress(), organization.getEmailAddress()));
         organization.setWebsiteUrl(selectDesiredState(event.getWebsiteUrl(), organization.getWebsiteUrl()));
         organizationsRepository.save(organization);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
     }
 
     @EventHandler
@@ -94,6 +120,27 @@ public class OrganizationsEventHandler implements ReplayCompletionAware {
         Address address = new Address(street, city, state, country, postalCode);
         organization.setAddress(address);
         organizationsRepository.save(organization);
+        markOrganizationsChangedAfterCommit(event.getOrganizationId());
+    }
+
+    private void markOrganizationsChangedAfterCommit(UUID organizationId) {
+        if (CurrentUnitOfWork.isStarted()) {
+            // Replayed changes were announced when they first happened, so only the caches need to hear of them
+            boolean replayed = ReplayToken.isReplay(CurrentUnitOfWork.get().getMessage());
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> markOrganizationChanged(organizationId, !replayed));
+        } else {
+            markOrganizationChanged(organizationId, true);
+        }
+    }
+
+    private void markOrganizationChanged(UUID organizationId, boolean announce) {
+        // Reads the committed row on the primary, which the replicas may not have caught up with yet
+        organizationsCache.refresh(organizationId, () -> onPrimary(() -> organizationsRepository.findById(organizationId)
+                .map(DefaultOrganizationsReadService::convert)));
+        permissionViewCache.invalidate(organizationId);
+        if (announce) {
+            changeFeed.publish(ORGANIZATION, organizationId, organizationId);
+        }
     }
 
     private String selectDesiredState(String desiredState, String currentState) {
@@ -153,18 +153,64 @@ class OrganizationAggregateTest {
 
     @Test
     void updateOrganizationCommandEmits_WhenCommandAccepted() {
+        var command = new UpdateOrganizationCommand(ORGANIZATION_ID, ADMIN_ID, "new-organization-name",
+                "new-street", "new-city", "new-state", "new-country", "new-postal",
+                "new-website-url", "new-contact-name", "new-phone-number", "new-email@domain.com");
+        testFixture.given(ORGANIZATION_REGISTERED_BY_ADMIN_EVENT)
+                .when(command)
+                .expectEvents(
+                        new OrganizationNameUpdatedByAdminEvent(ORGANIZATION_ID, "new-organization-name", ADMIN_ID),
+                        new OrganizationContactDetailsUpdatedByAdminEvent(ORGANIZATION_ID, "new-contact-name",
+                                "new-phone-number", "new-email@domain.com", "new-website-url", ADMIN_ID),
+                        new OrganizationAddressUpdatedByAdminEvent(ORGANIZATION_ID, "new-street", "new-city", "new-state",
+                                "new-country", "new-postal", ADMIN_ID));
+    }
+
+    @Test
+    void updateOrganizationCommandEmitsOnlyChangedFields_WhenSomeRequestedFieldsAreUnchanged() {
+        var command = new UpdateOrganizationCommand(ORGANIZATION_ID, ADMIN_ID, ORGANIZATION_NAME,
+                ORGANIZATION_STREET, "new-city", ORGANIZATION_STATE, ORGANIZATION_COUNTRY, ORGANIZATION_POSTAL_CODE,
+                ORGANIZATION_WEBSITE_URL, ORGANIZATION_CONTACT_NAME, ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS);
+        testFixture.given(ORGANIZATION_REGISTERED_BY_ADMIN_EVENT)
+                .when(command)
+                .expectEvents(new OrganizationAddressUpdatedByAdminEvent(ORGANIZATION_ID, NO_CHANGE, "new-city", NO_CHANGE,
+                        NO_CHANGE, NO_CHANGE, ADMIN_ID));
+    }
+
+    @Test
+    void updateOrganizationCommandEmitsOnlyNameEvent_WhenOnlyNameIsChanged() {
+        var command = new UpdateOrganizationCommand(ORGANIZATION_ID, ADMIN_ID, "new-organization-name",
+                NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE);
+        testFixture.given(ORGANIZATION_REGISTERED_BY_ADMIN_EVENT)
+                .when(command)
+                .expectEvents(new OrganizationNameUpdatedByAdminEvent(ORGANIZATION_ID, "new-organization-name", ADMIN_ID));
+    }
+
+    @Test
+    void updateOrganizationCommandEmitsNoEvents_WhenRequestedFieldsMatchCurrentState() {
         var command = new UpdateOrganizationCommand(ORGANIZATION_ID, ADMIN_ID, ORGANIZATION_NAME,
                 ORGANIZATION_STREET, ORGANIZATION_CITY, ORGANIZATION_STATE,
                 ORGANIZATION_COUNTRY, ORGANIZATION_POSTAL_CODE,
                 ORGANIZATION_WEBSITE_URL, ORGANIZATION_CONTACT_NAME, ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS);
         testFixture.given(ORGANIZATION_REGISTERED_BY_ADMIN_EVENT)
                 .when(command)
-                .expectEvents(
-                        new OrganizationNameUpdatedByAdminEvent(ORGANIZATION_ID, ORGANIZATION_NAME, ADMIN_ID),
-                        new OrganizationContactDetailsUpdatedByAdminEvent(ORGANIZATION_ID, ORGANIZATION_CONTACT_NAME,
-                                ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS, ORGANIZATION_WEBSITE_URL, ADMIN_ID),
-                        new OrganizationAddressUpdatedByAdminEvent(ORGANIZATION_ID, ORGANIZATION_STREET, ORGANIZATION_CITY, ORGANIZATION_STATE,
-                                ORGANIZATION_COUNTRY, ORGANIZATION_POSTAL_CODE, ADMIN_ID));
+                .expectSuccessfulHandlerExecution()
+                .expectNoEvents();
+    }
+
+    @Test
+    void updateOrganizationCommandEmitsNoEvents_WhenRequestedFieldsMatchPreviouslyUpdatedState() {
+        var command = new UpdateOrganizationCommand(ORGANIZATION_ID, ADMIN_ID, "new-organization-name",
+                NO_CHANGE, "new-city", NO_CHANGE, NO_CHANGE, NO_CHANGE, NO_CHANGE, "new-contact-name", NO_CHANGE, NO_CHANGE);
+        testFixture.given(ORGANIZATION_REGISTERED_BY_ADMIN_EVENT,
+                new OrganizationNameUpdatedByAdminEvent(ORGANIZATION_ID, "new-organization-name", ADMIN_ID),
+                new OrganizationContactDetailsUpdatedByAdminEvent(ORGANIZATION_ID, "new-contact-name",
+                        NO_CHANGE, NO_CHANGE, NO_CHANGE, ADMIN_ID),
+                new OrganizationAddressUpdatedByAdminEvent(ORGANIZATION_ID, NO_CHANGE, "new-city", NO_CHANGE,
+                        NO_CHANGE, NO_CHANGE, ADMIN_ID))
+                .when(command)
+                .expectSuccessfulHandlerExecution()
+                .expectNoEvents();
     }
 
     @Test
@@ -1,5 +1,8 @@
 package engineering.everest.lhotse.organizations.eventhandlers;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
+import engineering.everest.lhotse.organizations.Organization;
 import engineering.everest.lhotse.organizations.OrganizationAddress;
 import engineering.everest.lhotse.organizations.domain.events.OrganizationAddressUpdatedByAdminEvent;
 import engineering.everest.lhotse.organizations.domain.events.OrganizationContactDetailsUpdatedByAdminEvent;
@@ -10,20 +13,34 @@ import engineering.everest.lhotse.organizations.domain.events.OrganizationReregi
 import engineering.everest.lhotse.organizations.persistence.Address;
 import engineering.everest.lhotse.organizations.persistence.OrganizationsRepository;
 import engineering.everest.lhotse.organizations.persistence.PersistableOrganization;
+import engineering.everest.lhotse.organizations.services.OrganizationsCache;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
 import static java.util.UUID.randomUUID;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,17 +79,28 @@ class OrganizationsEventHandlerTest {
 
     @Mock
     private OrganizationsRepository organizationsRepository;
+    @Mock
+    private OrganizationsCache organizationsCache;
+    @Mock
+    private ChangeFeed changeFeed;
+    @Mock
+    private PermissionViewCache permissionViewCache;
+    @Captor
+    private ArgumentCaptor<Supplier<Optional<Organization>>> organizationLoader;
 
     @BeforeEach
     void setUp() {
-        organizationsEventHandler = new OrganizationsEventHandler(organizationsRepository);
+        organizationsEventHandler = new OrganizationsEventHandler(organizationsRepository, organizationsCache, changeFeed,
+                permissionViewCache);
     }
 
     @Test
     void prepareForReplay_willDeleteAllProjections() {
         organizationsEventHandler.prepareForReplay();
 
-        verify(organizationsRepository).deleteAll();
+        verify(organizationsRepository).deleteAllInBatch();
+        verify(organizationsCache).markChanged();
+        verify(permissionViewCache).invalidateAll();
     }
 
     @Test
@@ -83,6 +111,34 @@ class OrganizationsEventHandlerTest {
 
         verify(organizationsRepository).createOrganization(ORGANIZATION_ID, ORGANIZATION_NAME, ORGANIZATION_ADDRESS, ORGANIZATION_WEBSITE_URL,
                 ORGANIZATION_CONTACT_NAME, ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS, ORG_CREATION_TIME);
+        verify(organizationsCache).refresh(eq(ORGANIZATION_ID), any());
+        verify(changeFeed).publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
+    }
+
+    @Test
+    void onOrganizationNameUpdatedByAdminEvent_WillRefreshCachedOrganizationWithCommittedState() {
+        var persistableOrganization = createPersistableOrganization();
+        when(organizationsRepository.findById(ORGANIZATION_ID)).thenReturn(Optional.of(persistableOrganization));
+
+        organizationsEventHandler.on(new OrganizationNameUpdatedByAdminEvent(ORGANIZATION_ID, ORGANIZATION_NAME_UPDATE, ADMIN_ID));
+
+        verify(organizationsCache).refresh(eq(ORGANIZATION_ID), organizationLoader.capture());
+        assertEquals(ORGANIZATION_NAME_UPDATE, organizationLoader.getValue().get().orElseThrow().getOrganizationName());
+    }
+
+    @Test
+    void onOrganizationRegisteredByAdminEvent_WillRefreshCachesWithoutPublishingChange_WhenReplaying() {
+        var event = new OrganizationRegisteredByAdminEvent(ORGANIZATION_ID, ADMIN_ID, ORGANIZATION_NAME,
+                ORGANIZATION_WEBSITE_URL, ORGANIZATION_STREET, ORGANIZATION_CITY, ORGANIZATION_STATE, ORGANIZATION_COUNTRY,
+                ORGANIZATION_POSTAL_CODE, ORGANIZATION_CONTACT_NAME, ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS);
+        var unitOfWork = DefaultUnitOfWork.startAndGet(replayed(event));
+
+        organizationsEventHandler.on(event, ORG_CREATION_TIME);
+        unitOfWork.commit();
+
+        verify(organizationsCache).refresh(eq(ORGANIZATION_ID), any());
+        verify(permissionViewCache).invalidate(ORGANIZATION_ID);
+        verifyNoInteractions(changeFeed);
     }
 
     @Test
@@ -94,6 +150,9 @@ class OrganizationsEventHandlerTest {
 
         verify(persistableOrganization).setDeregistered(true);
         verify(organizationsRepository).save(persistableOrganization);
+        verify(organizationsCache).refresh(eq(ORGANIZATION_ID), any());
+        verify(permissionViewCache).invalidate(ORGANIZATION_ID);
+        verify(changeFeed).publish(ORGANIZATION, ORGANIZATION_ID, ORGANIZATION_ID);
     }
 
     @Test
@@ -117,6 +176,7 @@ class OrganizationsEventHandlerTest {
 
         assertEquals(ORGANIZATION_NAME_UPDATE, persistableOrganization.getOrganizationName());
         verify(organizationsRepository).save(persistableOrganization);
+        verify(organizationsCache).refresh(eq(ORGANIZATION_ID), any());
     }
 
     @Test
@@ -149,6 +209,11 @@ class OrganizationsEventHandlerTest {
         verify(organizationsRepository).save(persistableOrganization);
     }
 
+    private static TrackedEventMessage<?> replayed(Object event) {
+        return new GenericTrackedEventMessage<>(ReplayToken.createReplayToken(new GlobalSequenceTrackingToken(1)),
+                asEventMessage(event));
+    }
+
     private PersistableOrganization createPersistableOrganization() {
         return new PersistableOrganization(ORGANIZATION_ID, ORGANIZATION_NAME, ADDRESS, ORGANIZATION_WEBSITE_URL,
                 ORGANIZATION_CONTACT_NAME, ORGANIZATION_PHONE_NUMBER, ORGANIZATION_EMAIL_ADDRESS, ORG_CREATION_TIME);
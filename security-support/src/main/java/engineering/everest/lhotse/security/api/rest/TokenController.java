@@ -9,6 +9,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2RefreshToken;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -25,10 +27,13 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class TokenController {
 
     private final TokenStore tokenStore;
+    private final TransactionTemplate sessionsTransactionTemplate;
 
     @Autowired
-    public TokenController(@Qualifier("authTokenStore") TokenStore tokenStore) {
+    public TokenController(@Qualifier("authTokenStore") TokenStore tokenStore,
+                           @Qualifier("sessions") PlatformTransactionManager sessionsTransactionManager) {
         this.tokenStore = tokenStore;
+        this.sessionsTransactionTemplate = new TransactionTemplate(sessionsTransactionManager);
     }
 
     @PostMapping("/tokens/refresh-token/revocation")
@@ -36,14 +41,14 @@ public class TokenController {
     @ApiOperation("Revoke given refresh tokens")
     @ResponseBody
     public void revokeRefreshToken(@RequestParam("token") List<String> tokens) {
-        tokens.forEach(tokenValue -> {
+        sessionsTransactionTemplate.executeWithoutResult(status -> tokens.forEach(tokenValue -> {
             OAuth2RefreshToken refreshToken = tokenStore.readRefreshToken(tokenValue);
             if (refreshToken != null) {
                 LOGGER.info("Revoke refresh token: {}", refreshToken);
                 tokenStore.removeAccessTokenUsingRefreshToken(refreshToken);
                 tokenStore.removeRefreshToken(refreshToken);
             }
-        });
+        }));
     }
 
     @PostMapping("/tokens/access-token/revocation")
@@ -51,7 +56,7 @@ public class TokenController {
     @ApiOperation("Revoke given access tokens")
     @ResponseBody
     public void revokeAccessToken(@RequestParam("token") List<String> tokens) {
-        tokens.forEach(tokenValue -> {
+        sessionsTransactionTemplate.executeWithoutResult(status -> tokens.forEach(tokenValue -> {
             OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
             if (accessToken != null) {
                 LOGGER.info("Revoke access token: {}", accessToken);
@@ -60,6 +65,6 @@ public class TokenController {
                     tokenStore.removeRefreshToken(accessToken.getRefreshToken());
                 }
             }
-        });
+        }));
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package engineering.everest.lhotse.security.config;
+
+import engineering.everest.lhotse.security.passwords.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+@Configuration
+@Log4j2
+public class PasswordHashingConfig {
+
+    // Wraps whichever encoder the security starter provides, so user creation and the password grant both hash on
+    // the bounded executor. Request threads still wait for their hash, so by default at most half of Tomcat's request
+    // threads can be held by hashing, running or queued, and the rest stay free for other requests during a login storm
+    @Bean
+    public static BeanPostProcessor boundedPasswordEncoderPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${application.security.password-hashing.threads:0}") int threads,
+            @Value("${application.security.password-hashing.queue-capacity:0}") int queueCapacity,
+            @Value("${application.security.password-hashing.timeout-millis:5000}") long timeoutMillis,
+            @Value("${server.tomcat.max-threads:200}") int requestThreads) {
+        int hashingThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int hashingQueueCapacity = queueCapacity > 0 ? queueCapacity : Math.max(1, requestThreads / 2 - hashingThreads);
+        if (hashingThreads + hashingQueueCapacity >= requestThreads) {
+            LOGGER.warn("Password hashing may hold {} of {} request threads, leaving none for other requests",
+                    hashingThreads + hashingQueueCapacity, requestThreads);
+        }
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PasswordEncoder && !(bean instanceof BoundedPasswordEncoder)) {
+                    return new BoundedPasswordEncoder((PasswordEncoder) bean, meterRegistry.getObject(),
+                            hashingThreads, hashingQueueCapacity, Duration.ofMillis(timeoutMillis));
+                }
+                return bean;
+            }
+        };
+    }
+}
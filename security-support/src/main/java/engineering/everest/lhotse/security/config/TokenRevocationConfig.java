@@ -0,0 +1,36 @@
+package engineering.everest.lhotse.security.config;
+
+import engineering.everest.lhotse.security.tokens.RevocationCheckingTokenStore;
+import engineering.everest.lhotse.security.tokens.RevokedTokens;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+@Configuration
+public class TokenRevocationConfig {
+
+    private static final String AUTH_TOKEN_STORE = "authTokenStore";
+
+    // Tokens are self-contained JWTs, so the session store only needs consulting for ones that may have been revoked
+    @Bean
+    public static BeanPostProcessor revocationCheckingTokenStorePostProcessor(
+            ObjectProvider<JwtAccessTokenConverter> jwtAccessTokenConverter,
+            ObjectProvider<RevokedTokens> revokedTokens,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (AUTH_TOKEN_STORE.equals(beanName) && bean instanceof TokenStore
+                        && !(bean instanceof RevocationCheckingTokenStore)) {
+                    return new RevocationCheckingTokenStore((TokenStore) bean, jwtAccessTokenConverter.getObject(),
+                            revokedTokens.getObject(), meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package engineering.everest.lhotse.security.passwords;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+// Caps how many passwords are hashed at once, and how many callers may wait for them. Callers still block while
+// waiting, so the request threads a login storm can hold are bounded by the threads plus the queue capacity.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry,
+                                  int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Idle hashing threads exit, so a wrapped encoder that is never shut down leaves nothing running
+        this.executor.allowCoreThreadTimeOut(true);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue-full");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Timer timer, Callable<T> hashing) {
+        var future = submit(() -> timer.recordCallable(hashing));
+        try {
+            return future.get(timeout.toMillis(), MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Cancelling frees the queue slot, or interrupts hashing nobody is waiting for any more
+            future.cancel(true);
+            timeoutRejections.increment();
+            throw new PasswordHashingUnavailableException("Password hashing timed out, try again later", timeout, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", timeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> hashing) {
+        try {
+            return executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            throw new PasswordHashingUnavailableException("Too many password hashing requests, try again later", timeout, e);
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("security.password.hashing")
+                .description("Time spent hashing or verifying passwords, excluding queueing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("security.password.hashing.rejections")
+                .description("Password hashing requests turned away to bound the request threads waiting on hashing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
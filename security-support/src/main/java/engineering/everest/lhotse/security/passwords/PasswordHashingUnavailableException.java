@@ -0,0 +1,21 @@
+package engineering.everest.lhotse.security.passwords;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.time.Duration;
+
+// An authentication service failure, so the password grant reports it as such rather than as an internal error,
+// while the API answers it with 503 and the Retry-After it carries
+public class PasswordHashingUnavailableException extends AuthenticationServiceException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
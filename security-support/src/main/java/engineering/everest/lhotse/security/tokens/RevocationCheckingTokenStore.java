@@ -0,0 +1,165 @@
+package engineering.everest.lhotse.security.tokens;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.ATI;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.EXP;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.JTI;
+
+public class RevocationCheckingTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+    private final JwtAccessTokenConverter jwtAccessTokenConverter;
+    private final JwtTokenStore jwtTokenStore;
+    private final RevokedTokens revokedTokens;
+    private final Counter skippedStoreLookups;
+    private final Counter confirmedRevocations;
+    private final Counter falsePositives;
+
+    public RevocationCheckingTokenStore(TokenStore delegate, JwtAccessTokenConverter jwtAccessTokenConverter,
+                                        RevokedTokens revokedTokens, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.jwtAccessTokenConverter = jwtAccessTokenConverter;
+        this.jwtTokenStore = new JwtTokenStore(jwtAccessTokenConverter);
+        this.revokedTokens = revokedTokens;
+        this.skippedStoreLookups = revocationCheckCounter(meterRegistry, "not-revoked");
+        this.confirmedRevocations = revocationCheckCounter(meterRegistry, "revoked");
+        this.falsePositives = revocationCheckCounter(meterRegistry, "false-positive");
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        var decodedToken = decode(tokenValue);
+        if (decodedToken != null && !mightBeRevoked(decodedToken)) {
+            skippedStoreLookups.increment();
+            return decodedToken;
+        }
+        var storedToken = delegate.readAccessToken(tokenValue);
+        if (decodedToken != null) {
+            (storedToken == null ? confirmedRevocations : falsePositives).increment();
+        }
+        return storedToken;
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        var decodedToken = decode(token);
+        if (decodedToken != null && !mightBeRevoked(decodedToken)) {
+            return jwtTokenStore.readAuthentication(token);
+        }
+        return delegate.readAuthentication(token);
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        delegate.removeAccessToken(token);
+        var tokenId = tokenId(token);
+        if (tokenId == null) {
+            var decodedToken = decode(token.getValue());
+            tokenId = decodedToken == null ? null : tokenId(decodedToken);
+        }
+        if (tokenId != null) {
+            revokedTokens.revoke(tokenId, token.getExpiration() == null ? null : token.getExpiration().toInstant());
+        }
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+        // Refresh tokens carry the id of the access token issued alongside them
+        var claims = decodeClaims(refreshToken.getValue());
+        if (claims != null && claims.get(ATI) != null) {
+            var expiry = (Number) claims.get(EXP);
+            revokedTokens.revoke((String) claims.get(ATI), expiry == null ? null : Instant.ofEpochSecond(expiry.longValue()));
+        }
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        delegate.storeAccessToken(token, authentication);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        delegate.storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return delegate.readRefreshToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return delegate.readAuthenticationForRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        delegate.removeRefreshToken(token);
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return delegate.getAccessToken(authentication);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return delegate.findTokensByClientIdAndUserName(clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return delegate.findTokensByClientId(clientId);
+    }
+
+    private OAuth2AccessToken decode(String tokenValue) {
+        try {
+            return jwtTokenStore.readAccessToken(tokenValue);
+        } catch (InvalidTokenException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> decodeClaims(String tokenValue) {
+        try {
+            return jwtAccessTokenConverter.decode(tokenValue);
+        } catch (InvalidTokenException e) {
+            return null;
+        }
+    }
+
+    private boolean mightBeRevoked(OAuth2AccessToken decodedToken) {
+        var tokenId = tokenId(decodedToken);
+        return tokenId == null || revokedTokens.mightBeRevoked(tokenId);
+    }
+
+    private static String tokenId(OAuth2AccessToken token) {
+        return (String) token.getAdditionalInformation().get(JTI);
+    }
+
+    private static Counter revocationCheckCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.token.revocation.checks")
+                .description("Access token revocation checks, by whether the token store had to be consulted")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
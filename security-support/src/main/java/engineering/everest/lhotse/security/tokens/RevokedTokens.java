@@ -0,0 +1,169 @@
+package engineering.everest.lhotse.security.tokens;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Component
+@Log4j2
+public class RevokedTokens {
+
+    // Revocations committed concurrently can land slightly out of revokedat order, so every poll re-reads this window
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_RETENTION = Duration.ofDays(1);
+    private static final int MISSED_REFRESHES_BEFORE_STALE = 3;
+
+    // Stamped by the database rather than the revoking node, so a node whose clock lags cannot record revocations that
+    // fall behind the watermark other nodes poll from
+    private static final String INSERT_REVOCATION =
+            "insert into oauthrevokedtokens (tokenid, revokedat, expiresat) values (?, current_timestamp, ?)";
+    private static final String SELECT_REVOCATIONS_SINCE =
+            "select tokenid, revokedat from oauthrevokedtokens where revokedat > ?";
+    private static final String DELETE_EXPIRED_REVOCATIONS =
+            "delete from oauthrevokedtokens where expiresat < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int expectedRevocations;
+    private final double falsePositiveProbability;
+    private final Duration staleAfter;
+    private final Duration rebuildInterval;
+    private volatile BloomFilter<CharSequence> revokedTokenIds;
+    private volatile Instant lastRefreshed;
+    private Instant lastRebuilt;
+    private Instant watermark = Instant.EPOCH;
+
+    @Autowired
+    public RevokedTokens(@Qualifier("sessions") DataSource sessionsDataSource,
+                         Clock clock,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.security.token-revocation.expected-revocations:100000}") int expectedRevocations,
+                         @Value("${application.security.token-revocation.false-positive-probability:0.001}") double falsePositiveProbability,
+                         @Value("${application.security.token-revocation.refresh-interval-millis:2000}") long refreshIntervalMillis,
+                         @Value("${application.security.token-revocation.rebuild-interval-minutes:60}") long rebuildIntervalMinutes) {
+        this.jdbcTemplate = new JdbcTemplate(sessionsDataSource);
+        this.clock = clock;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.staleAfter = Duration.ofMillis(refreshIntervalMillis).multipliedBy(MISSED_REFRESHES_BEFORE_STALE);
+        this.rebuildInterval = Duration.ofMinutes(rebuildIntervalMinutes);
+        this.revokedTokenIds = emptyFilter();
+        Gauge.builder("security.token.revocations", this, revokedTokens -> revokedTokens.revokedTokenIds.approximateElementCount())
+                .description("Approximate number of unexpired revoked token ids held in memory")
+                .register(meterRegistry);
+    }
+
+    public boolean mightBeRevoked(String tokenId) {
+        // Until revocations from every node have been read recently, no token can be assumed to be unrevoked
+        var refreshed = lastRefreshed;
+        if (refreshed == null || clock.instant().isAfter(refreshed.plus(staleAfter))) {
+            return true;
+        }
+        return revokedTokenIds.mightContain(tokenId);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        var retainUntil = expiresAt == null ? clock.instant().plus(DEFAULT_RETENTION) : expiresAt;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingRevocations().put(tokenId, retainUntil);
+        } else {
+            record(Map.of(tokenId, retainUntil));
+            revokedTokenIds.put(tokenId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.token-revocation.refresh-interval-millis:2000}")
+    public void refresh() {
+        try {
+            if (lastRebuilt == null || !clock.instant().isBefore(lastRebuilt.plus(rebuildInterval))
+                    || revokedTokenIds.approximateElementCount() > expectedRevocations) {
+                rebuild();
+            }
+            // Also picks up anything recorded locally while a rebuild was swapping the filter
+            readRevocationsSince(watermark.minus(POLL_OVERLAP), revokedTokenIds);
+            lastRefreshed = clock.instant();
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to refresh revoked tokens, checking every token against the token store until this succeeds", e);
+        }
+    }
+
+    private void rebuild() {
+        var now = clock.instant();
+        jdbcTemplate.update(DELETE_EXPIRED_REVOCATIONS, Timestamp.from(now));
+        var rebuilt = emptyFilter();
+        watermark = Instant.EPOCH;
+        readRevocationsSince(watermark, rebuilt);
+        revokedTokenIds = rebuilt;
+        lastRebuilt = now;
+    }
+
+    private void readRevocationsSince(Instant since, BloomFilter<CharSequence> filter) {
+        jdbcTemplate.query(SELECT_REVOCATIONS_SINCE, resultSet -> {
+            filter.put(resultSet.getString("tokenid"));
+            var revokedAt = resultSet.getTimestamp("revokedat").toInstant();
+            if (revokedAt.isAfter(watermark)) {
+                watermark = revokedAt;
+            }
+        }, Timestamp.from(since));
+    }
+
+    private void record(Map<String, Instant> revocations) {
+        jdbcTemplate.batchUpdate(INSERT_REVOCATION, revocations.entrySet(), revocations.size(), (statement, revocation) -> {
+            statement.setString(1, revocation.getKey());
+            statement.setTimestamp(2, Timestamp.from(revocation.getValue()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Instant> pendingRevocations() {
+        var pending = (Map<String, Instant>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            var revocations = new HashMap<String, Instant>();
+            TransactionSynchronizationManager.bindResource(this, revocations);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // One batched insert per transaction, however many tokens it revoked
+                    record(revocations);
+                }
+
+                @Override
+                public void afterCommit() {
+                    revocations.keySet().forEach(revokedTokenIds::put);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(RevokedTokens.this);
+                }
+            });
+            pending = revocations;
+        }
+        return pending;
+    }
+
+    private BloomFilter<CharSequence> emptyFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(UTF_8), expectedRevocations, falsePositiveProbability);
+    }
+}
@@ -1,6 +1,5 @@
 package engineering.everest.lhotse.security.userdetails;
 
-import engineering.everest.lhotse.axon.common.domain.User;
 import engineering.everest.lhotse.users.services.UsersReadService;
 import engineering.everest.starterkit.security.ApplicationUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,19 +12,20 @@ import java.util.NoSuchElementException;
 public class AppUserDetailsService implements ApplicationUserDetailsService {
 
     private final UsersReadService usersReadService;
+    private final PrincipalCache principalCache;
 
-    public AppUserDetailsService(UsersReadService usersReadService) {
+    public AppUserDetailsService(UsersReadService usersReadService, PrincipalCache principalCache) {
         this.usersReadService = usersReadService;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user;
         try {
-            user = usersReadService.getUserByUsername(username);
+            return principalCache.getAppPrincipal(username,
+                    () -> new AppUserDetails(usersReadService.getUserByUsername(username)));
         } catch (NoSuchElementException e) {
             throw new UsernameNotFoundException("Invalid credentials", e);
         }
-        return new AppUserDetails(user);
     }
 }
@@ -14,20 +14,25 @@ import java.util.NoSuchElementException;
 public class AuthServerUserDetailsService implements AuthenticationServerUserDetailsService {
 
     private final AuthServerUserReadService authServerUserReadService;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public AuthServerUserDetailsService(AuthServerUserReadService authServerUserReadService) {
+    public AuthServerUserDetailsService(AuthServerUserReadService authServerUserReadService,
+                                        PrincipalCache principalCache) {
         this.authServerUserReadService = authServerUserReadService;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         AuthServerUser authServerUser;
         try {
-            authServerUser = authServerUserReadService.getByUsername(username);
+            authServerUser = principalCache.getAuthServerUser(username,
+                    () -> authServerUserReadService.getByUsername(username));
         } catch (NoSuchElementException e) {
             throw new UsernameNotFoundException("Invalid credentials", e);
         }
+        // Built afresh every time, since authentication erases the password from the returned details
         return org.springframework.security.core.userdetails.User.builder()
                 .username(authServerUser.getUsername())
                 .password(authServerUser.getEncodedPassword())
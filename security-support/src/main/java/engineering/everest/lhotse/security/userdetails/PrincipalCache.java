@@ -0,0 +1,128 @@
+package engineering.everest.lhotse.security.userdetails;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.users.authserver.AuthServerUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@Component
+@Log4j2
+public class PrincipalCache {
+
+    private static final long NO_SEQUENCE = -1;
+
+    private final ChangeChannel changeChannel;
+    private final Cache<String, AppUserDetails> appPrincipals;
+    private final Cache<String, AuthServerUser> authServerUsers;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private long lastSequence = NO_SEQUENCE;
+    private String userChanges;
+
+    @Autowired
+    public PrincipalCache(ChangeChannel changeChannel,
+                          MeterRegistry meterRegistry,
+                          @Value("${application.security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${application.security.principal-cache.expire-after-write-seconds:30}") long expireAfterWriteSeconds) {
+        this.changeChannel = changeChannel;
+        this.appPrincipals = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, SECONDS)
+                .recordStats()
+                .build();
+        this.authServerUsers = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, appPrincipals, "principals.app");
+        GuavaCacheMetrics.monitor(meterRegistry, authServerUsers, "principals.auth-server");
+    }
+
+    // Listens on the channel itself rather than through the change feed, so changes made on any node are heard here
+    // without queueing behind streaming clients, or being dropped along with a slow one
+    @PostConstruct
+    public void subscribeToUserChanges() {
+        userChanges = changeChannel.addListener(this::onChange);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromUserChanges() {
+        changeChannel.removeListener(userChanges);
+    }
+
+    public AppUserDetails getAppPrincipal(String username, Supplier<AppUserDetails> loader) {
+        return get(appPrincipals, normalize(username), loader);
+    }
+
+    public AuthServerUser getAuthServerUser(String username, Supplier<AuthServerUser> loader) {
+        return get(authServerUsers, normalize(username), loader);
+    }
+
+    public void invalidate(UUID userId) {
+        synchronized (this) {
+            invalidationCount.incrementAndGet();
+            appPrincipals.asMap().values().removeIf(principal -> userId.equals(principal.getUser().getId()));
+            // Auth server users carry no id, and password grants are rare enough to simply reload them all
+            authServerUsers.invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            invalidationCount.incrementAndGet();
+            appPrincipals.invalidateAll();
+            authServerUsers.invalidateAll();
+        }
+    }
+
+    private void onChange(ChangeNotification change) {
+        synchronized (this) {
+            if (lastSequence != NO_SEQUENCE && change.getSequence() != lastSequence + 1) {
+                // Changes were lost in between, and any of them could have been a password change
+                LOGGER.warn("Principal cache missed changes {} to {}, dropping all principals",
+                        lastSequence + 1, change.getSequence() - 1);
+                invalidateAll();
+            }
+            lastSequence = change.getSequence();
+        }
+        if (change.getEntityType() == USER) {
+            invalidate(change.getEntityId());
+        }
+    }
+
+    private <T> T get(Cache<String, T> cache, String normalizedUsername, Supplier<T> loader) {
+        var principal = cache.getIfPresent(normalizedUsername);
+        if (principal != null) {
+            return principal;
+        }
+        long invalidationCountBeforeLoad = invalidationCount.get();
+        principal = loader.get();
+        synchronized (this) {
+            if (invalidationCount.get() == invalidationCountBeforeLoad) {
+                cache.put(normalizedUsername, principal);
+            }
+        }
+        return principal;
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
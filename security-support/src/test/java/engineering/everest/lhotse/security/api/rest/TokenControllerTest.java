@@ -20,7 +20,10 @@ import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +37,7 @@ class TokenControllerTest {
 
     private static final String REFRESH_TOKEN_VALUE = "refresh-token-value";
     private static final String ACCESS_TOKEN_VALUE = "access-token-value";
+    private static final String OTHER_ACCESS_TOKEN_VALUE = "other-access-token-value";
 
     @Autowired
     private MockMvc mockMvc;
@@ -48,6 +52,8 @@ class TokenControllerTest {
     private AuthServerUserDetailsService authServerUserDetailsService;
     @MockBean
     private AuthenticationManager authenticationManager;
+    @MockBean(name = "sessions")
+    private PlatformTransactionManager sessionsTransactionManager;
     @Mock
     private OAuth2RefreshToken oAuth2RefreshToken;
     @Mock
@@ -75,4 +81,18 @@ class TokenControllerTest {
         verify(tokenStore).removeAccessToken(oAuth2AccessToken);
         verify(tokenStore).removeRefreshToken(oAuth2RefreshToken);
     }
+
+    @Test
+    @WithAnonymousUser
+    void willRevokeAccessTokensInOneTransaction() throws Exception {
+        when(tokenStore.readAccessToken(ACCESS_TOKEN_VALUE)).thenReturn(oAuth2AccessToken);
+        when(tokenStore.readAccessToken(OTHER_ACCESS_TOKEN_VALUE)).thenReturn(oAuth2AccessToken);
+        mockMvc.perform(post("/tokens/access-token/revocation?token={token_value}&token={other_token_value}",
+                ACCESS_TOKEN_VALUE, OTHER_ACCESS_TOKEN_VALUE))
+                .andExpect(status().isOk());
+
+        verify(tokenStore, times(2)).removeAccessToken(oAuth2AccessToken);
+        verify(sessionsTransactionManager, times(1)).getTransaction(any());
+        verify(sessionsTransactionManager, times(1)).commit(any());
+    }
 }
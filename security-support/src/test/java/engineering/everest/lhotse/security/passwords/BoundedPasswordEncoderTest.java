@@ -0,0 +1,122 @@
+package engineering.everest.lhotse.security.passwords;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedPasswordEncoderTest {
+
+    private static final String RAW_PASSWORD = "raw-password";
+    private static final String ENCODED_PASSWORD = "encoded-password";
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CountDownLatch hashingStarted;
+    private CountDownLatch releaseHashing;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingStarted = new CountDownLatch(1);
+        releaseHashing = new CountDownLatch(1);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseHashing.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void encode_WillDelegateOnHashingThread() {
+        when(delegate.encode(RAW_PASSWORD)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("password-hashing-"));
+            return ENCODED_PASSWORD;
+        });
+        var passwordEncoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        assertEquals(ENCODED_PASSWORD, passwordEncoder.encode(RAW_PASSWORD));
+        assertEquals(1, meterRegistry.get("security.password.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void matches_WillDelegate() {
+        when(delegate.matches(RAW_PASSWORD, ENCODED_PASSWORD)).thenReturn(true);
+        var passwordEncoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        assertTrue(passwordEncoder.matches(RAW_PASSWORD, ENCODED_PASSWORD));
+        assertEquals(1, meterRegistry.get("security.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_WillBeRejected_WhenQueueIsFull() throws Exception {
+        givenHashingBlocks();
+        var passwordEncoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        callers.submit(() -> passwordEncoder.encode(RAW_PASSWORD));
+        assertTrue(hashingStarted.await(5, SECONDS));
+        callers.submit(() -> passwordEncoder.encode(RAW_PASSWORD));
+        awaitQueued();
+
+        var exception = assertThrows(PasswordHashingUnavailableException.class, () -> passwordEncoder.encode(RAW_PASSWORD));
+        assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+        assertEquals(1, meterRegistry.get("security.password.hashing.rejections").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void encode_WillFail_WhenHashingTakesTooLong() {
+        givenHashingBlocks();
+        var passwordEncoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> passwordEncoder.encode(RAW_PASSWORD));
+        assertEquals(1, meterRegistry.get("security.password.hashing.rejections").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void matches_WillFailAsAuthenticationServiceFailure_WhenHashingTakesTooLong() {
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> {
+            releaseHashing.await();
+            return true;
+        });
+        var passwordEncoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1, Duration.ofMillis(50));
+
+        assertThrows(AuthenticationServiceException.class, () -> passwordEncoder.matches(RAW_PASSWORD, ENCODED_PASSWORD));
+    }
+
+    private void givenHashingBlocks() {
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            hashingStarted.countDown();
+            releaseHashing.await();
+            return ENCODED_PASSWORD;
+        });
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        while (meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package engineering.everest.lhotse.security.tokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationCheckingTokenStoreTest {
+
+    private static final String ACCESS_TOKEN_ID = "access-token-id";
+    private static final Instant EXPIRY = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private TokenStore delegate;
+    @Mock
+    private RevokedTokens revokedTokens;
+
+    private JwtAccessTokenConverter jwtAccessTokenConverter;
+    private RevocationCheckingTokenStore revocationCheckingTokenStore;
+    private OAuth2AccessToken accessToken;
+
+    @BeforeEach
+    void setUp() {
+        jwtAccessTokenConverter = new JwtAccessTokenConverter();
+        jwtAccessTokenConverter.setSigningKey("signing-key");
+        revocationCheckingTokenStore = new RevocationCheckingTokenStore(delegate, jwtAccessTokenConverter, revokedTokens,
+                new SimpleMeterRegistry());
+
+        var token = new DefaultOAuth2AccessToken(ACCESS_TOKEN_ID);
+        token.setExpiration(Date.from(EXPIRY));
+        token.setRefreshToken(new DefaultOAuth2RefreshToken("refresh-token-id"));
+        var request = new OAuth2Request(Map.of(), "web-app-ui", List.of(), true, Set.of("all"), Set.of(), null, Set.of(), Map.of());
+        accessToken = jwtAccessTokenConverter.enhance(token, new OAuth2Authentication(request, null));
+    }
+
+    @Test
+    void readAccessToken_WillNotConsultTokenStore_WhenTokenCannotHaveBeenRevoked() {
+        when(revokedTokens.mightBeRevoked(ACCESS_TOKEN_ID)).thenReturn(false);
+
+        var readToken = revocationCheckingTokenStore.readAccessToken(accessToken.getValue());
+
+        assertEquals(accessToken.getValue(), readToken.getValue());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void readAccessToken_WillConfirmWithTokenStore_WhenTokenMightHaveBeenRevoked() {
+        when(revokedTokens.mightBeRevoked(ACCESS_TOKEN_ID)).thenReturn(true);
+
+        assertNull(revocationCheckingTokenStore.readAccessToken(accessToken.getValue()));
+        verify(delegate).readAccessToken(accessToken.getValue());
+    }
+
+    @Test
+    void readAccessToken_WillReturnStoredToken_WhenRevocationCheckIsAFalsePositive() {
+        when(revokedTokens.mightBeRevoked(ACCESS_TOKEN_ID)).thenReturn(true);
+        when(delegate.readAccessToken(accessToken.getValue())).thenReturn(accessToken);
+
+        assertSame(accessToken, revocationCheckingTokenStore.readAccessToken(accessToken.getValue()));
+    }
+
+    @Test
+    void readAccessToken_WillUseTokenStore_WhenTokenIsNotAJwt() {
+        when(delegate.readAccessToken("opaque-token")).thenReturn(accessToken);
+
+        assertSame(accessToken, revocationCheckingTokenStore.readAccessToken("opaque-token"));
+        verify(revokedTokens, never()).mightBeRevoked(anyString());
+    }
+
+    @Test
+    void readAuthentication_WillNotConsultTokenStore_WhenTokenCannotHaveBeenRevoked() {
+        when(revokedTokens.mightBeRevoked(ACCESS_TOKEN_ID)).thenReturn(false);
+
+        var authentication = revocationCheckingTokenStore.readAuthentication(accessToken.getValue());
+
+        assertEquals("web-app-ui", authentication.getOAuth2Request().getClientId());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void removeAccessToken_WillRecordRevocation() {
+        revocationCheckingTokenStore.removeAccessToken(accessToken);
+
+        verify(delegate).removeAccessToken(accessToken);
+        verify(revokedTokens).revoke(ACCESS_TOKEN_ID, EXPIRY);
+    }
+
+    @Test
+    void removeAccessTokenUsingRefreshToken_WillRecordRevocationOfIssuedAccessToken() {
+        revocationCheckingTokenStore.removeAccessTokenUsingRefreshToken(accessToken.getRefreshToken());
+
+        verify(delegate).removeAccessTokenUsingRefreshToken(accessToken.getRefreshToken());
+        verify(revokedTokens).revoke(eq(ACCESS_TOKEN_ID), any());
+    }
+}
@@ -0,0 +1,146 @@
+package engineering.everest.lhotse.security.tokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevokedTokensTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final long REFRESH_INTERVAL_MILLIS = 2000;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private RevokedTokens revokedTokens;
+    private RevokedTokens otherNodeRevokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table oauthrevokedtokens ("
+                + "tokenid varchar(255) not null, revokedat timestamp not null, expiresat timestamp not null)");
+        revokedTokens = revokedTokens(Clock.fixed(NOW, UTC));
+        otherNodeRevokedTokens = revokedTokens(Clock.fixed(NOW, UTC));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeTrue_WhenNotYetRefreshed() {
+        assertTrue(revokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeFalse_WhenTokenWasNeverRevoked() {
+        revokedTokens.refresh();
+
+        assertFalse(revokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeTrue_WhenTokenWasRevoked() {
+        revokedTokens.refresh();
+        revokedTokens.revoke("token-id", NOW.plus(Duration.ofHours(1)));
+
+        assertTrue(revokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeTrue_WhenRevokedOnAnotherNodeAndRefreshed() {
+        revokedTokens.refresh();
+        otherNodeRevokedTokens.revoke("token-id", NOW.plus(Duration.ofHours(1)));
+
+        revokedTokens.refresh();
+
+        assertTrue(revokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeTrue_WhenRevokedOnANodeWhoseClockLagsAndRefreshed() {
+        otherNodeRevokedTokens.revoke("token-1", NOW.plus(Duration.ofHours(1)));
+        revokedTokens.refresh();
+        var laggingNodeRevokedTokens = revokedTokens(Clock.fixed(NOW.minus(Duration.ofHours(1)), UTC));
+
+        laggingNodeRevokedTokens.revoke("token-2", NOW.plus(Duration.ofHours(1)));
+        revokedTokens.refresh();
+
+        assertTrue(revokedTokens.mightBeRevoked("token-2"));
+    }
+
+    @Test
+    void mightBeRevoked_WillBeTrue_WhenRefreshesHaveBeenMissed() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        var staleRevokedTokens = revokedTokens(clock);
+        staleRevokedTokens.refresh();
+
+        when(clock.instant()).thenReturn(NOW.plusMillis(10 * REFRESH_INTERVAL_MILLIS));
+
+        assertTrue(staleRevokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void revoke_WillRecordAllRevocationsOnCommit_WhenCalledInsideTransaction() {
+        revokedTokens.refresh();
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokens.revoke("token-1", NOW.plus(Duration.ofHours(1)));
+            revokedTokens.revoke("token-2", NOW.plus(Duration.ofHours(1)));
+            assertEquals(0, revocationCount());
+            assertFalse(revokedTokens.mightBeRevoked("token-1"));
+        });
+
+        assertEquals(2, revocationCount());
+        assertTrue(revokedTokens.mightBeRevoked("token-1"));
+        assertTrue(revokedTokens.mightBeRevoked("token-2"));
+    }
+
+    @Test
+    void revoke_WillRecordNothing_WhenTransactionRollsBack() {
+        revokedTokens.refresh();
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokens.revoke("token-id", NOW.plus(Duration.ofHours(1)));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, revocationCount());
+        assertFalse(revokedTokens.mightBeRevoked("token-id"));
+    }
+
+    @Test
+    void refresh_WillPurgeExpiredRevocations() {
+        revokedTokens.revoke("expired-token-id", NOW.minus(Duration.ofMinutes(1)));
+        revokedTokens.revoke("token-id", NOW.plus(Duration.ofHours(1)));
+
+        otherNodeRevokedTokens.refresh();
+
+        assertEquals(1, revocationCount());
+        assertTrue(otherNodeRevokedTokens.mightBeRevoked("token-id"));
+    }
+
+    private RevokedTokens revokedTokens(Clock clock) {
+        return new RevokedTokens(dataSource, clock, new SimpleMeterRegistry(), 1000, 0.001, REFRESH_INTERVAL_MILLIS, 60);
+    }
+
+    private int revocationCount() {
+        return jdbcTemplate.queryForObject("select count(*) from oauthrevokedtokens", Integer.class);
+    }
+}
@@ -1,7 +1,9 @@
 package engineering.everest.lhotse.security.userdetails;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
 import engineering.everest.lhotse.axon.common.domain.User;
 import engineering.everest.lhotse.users.services.UsersReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,8 +16,11 @@ import java.util.NoSuchElementException;
 
 import static java.util.UUID.randomUUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,12 +31,15 @@ class AppUserDetailsServiceTest {
 
     @Mock
     private UsersReadService usersReadService;
+    @Mock
+    private ChangeChannel changeChannel;
 
     private AppUserDetailsService appUserDetailsService;
 
     @BeforeEach
     void setUp() {
-        appUserDetailsService = new AppUserDetailsService(usersReadService);
+        var principalCache = new PrincipalCache(changeChannel, new SimpleMeterRegistry(), 100, 30);
+        appUserDetailsService = new AppUserDetailsService(usersReadService, principalCache);
     }
 
     @Test
@@ -42,6 +50,16 @@ class AppUserDetailsServiceTest {
         assertEquals(new AppUserDetails(USER), userDetails);
     }
 
+    @Test
+    void willReuseCachedPrincipal_WhenUserIsLoadedRepeatedly() {
+        when(usersReadService.getUserByUsername(USER_NAME)).thenReturn(USER);
+
+        var userDetails = appUserDetailsService.loadUserByUsername(USER_NAME);
+
+        assertSame(userDetails, appUserDetailsService.loadUserByUsername(USER_NAME.toUpperCase()));
+        verify(usersReadService, times(1)).getUserByUsername(USER_NAME);
+    }
+
     @Test
     void willThrowUsernameNotFoundException_WhenUserIsNotFound() {
         doThrow(NoSuchElementException.class).when(usersReadService).getUserByUsername(USER_NAME);
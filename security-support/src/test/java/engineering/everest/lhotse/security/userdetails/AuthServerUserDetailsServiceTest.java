@@ -1,7 +1,9 @@
 package engineering.everest.lhotse.security.userdetails;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
 import engineering.everest.lhotse.users.authserver.AuthServerUser;
 import engineering.everest.lhotse.users.authserver.AuthServerUserReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +17,8 @@ import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,12 +31,15 @@ class AuthServerUserDetailsServiceTest {
 
     @Mock
     private AuthServerUserReadService authServerUserReadService;
+    @Mock
+    private ChangeChannel changeChannel;
 
     private AuthServerUserDetailsService authServerUserDetailsService;
 
     @BeforeEach
     void setUp() {
-        authServerUserDetailsService = new AuthServerUserDetailsService(authServerUserReadService);
+        var principalCache = new PrincipalCache(changeChannel, new SimpleMeterRegistry(), 100, 30);
+        authServerUserDetailsService = new AuthServerUserDetailsService(authServerUserReadService, principalCache);
     }
 
     @Test
@@ -43,6 +50,18 @@ class AuthServerUserDetailsServiceTest {
         assertEquals(USER_DETAILS, userDetails);
     }
 
+    @Test
+    void willBuildFreshUserDetailsFromCachedUser_WhenUserIsLoadedRepeatedly() {
+        when(authServerUserReadService.getByUsername(USER_NAME)).thenReturn(AUTH_SERVER_USER);
+
+        var userDetails = authServerUserDetailsService.loadUserByUsername(USER_NAME);
+        ((User) userDetails).eraseCredentials();
+
+        assertEquals(USER_DETAILS, authServerUserDetailsService.loadUserByUsername(USER_NAME));
+        assertEquals(ENCODED_PASSWORD, authServerUserDetailsService.loadUserByUsername(USER_NAME).getPassword());
+        verify(authServerUserReadService, times(1)).getByUsername(USER_NAME);
+    }
+
     @Test
     void willThrowUsernameNotFoundException_WhenUserIsNotFound() {
         doThrow(NoSuchElementException.class).when(authServerUserReadService).getByUsername(USER_NAME);
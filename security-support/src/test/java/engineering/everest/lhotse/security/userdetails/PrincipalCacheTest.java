@@ -0,0 +1,130 @@
+package engineering.everest.lhotse.security.userdetails;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.users.authserver.AuthServerUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    private static final String USERNAME = "user@example.com";
+    private static final User USER = new User(randomUUID(), randomUUID(), USERNAME, "a user");
+    private static final User UPDATED_USER = new User(USER.getId(), USER.getOrganizationId(), USERNAME, "updated user");
+    private static final AuthServerUser AUTH_SERVER_USER = new AuthServerUser(USERNAME, "encoded-password", false);
+
+    @Mock
+    private ChangeChannel changeChannel;
+    @Mock
+    private Supplier<AppUserDetails> appPrincipalLoader;
+    @Mock
+    private Supplier<AuthServerUser> authServerUserLoader;
+    @Captor
+    private ArgumentCaptor<Consumer<ChangeNotification>> changeListener;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(changeChannel, new SimpleMeterRegistry(), 100, 30);
+    }
+
+    @Test
+    void getAppPrincipal_WillLoadOnce_WhenUsernameIsDifferentlyCased() {
+        var principal = new AppUserDetails(USER);
+        when(appPrincipalLoader.get()).thenReturn(principal);
+
+        principalCache.getAppPrincipal(USERNAME, appPrincipalLoader);
+
+        assertSame(principal, principalCache.getAppPrincipal(USERNAME.toUpperCase(), appPrincipalLoader));
+        verify(appPrincipalLoader, times(1)).get();
+    }
+
+    @Test
+    void getAppPrincipal_WillReload_WhenUserHasChanged() {
+        principalCache.subscribeToUserChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+        when(appPrincipalLoader.get()).thenReturn(new AppUserDetails(USER), new AppUserDetails(UPDATED_USER));
+        when(authServerUserLoader.get()).thenReturn(AUTH_SERVER_USER);
+
+        principalCache.getAppPrincipal(USERNAME, appPrincipalLoader);
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+        changeListener.getValue().accept(new ChangeNotification(1L, USER, USER.getId(), USER.getOrganizationId()));
+
+        assertEquals("updated user", principalCache.getAppPrincipal(USERNAME, appPrincipalLoader).getUser().getDisplayName());
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+        verify(authServerUserLoader, times(2)).get();
+    }
+
+    @Test
+    void getAuthServerUser_WillReload_WhenChangesWereMissed() {
+        principalCache.subscribeToUserChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+        when(authServerUserLoader.get()).thenReturn(AUTH_SERVER_USER);
+
+        changeListener.getValue().accept(new ChangeNotification(1L, ORGANIZATION, randomUUID(), randomUUID()));
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+        changeListener.getValue().accept(new ChangeNotification(3L, ORGANIZATION, randomUUID(), randomUUID()));
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+
+        verify(authServerUserLoader, times(2)).get();
+    }
+
+    @Test
+    void getAuthServerUser_WillKeepCachedUser_WhenOnlyOtherEntitiesHaveChanged() {
+        principalCache.subscribeToUserChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+        when(authServerUserLoader.get()).thenReturn(AUTH_SERVER_USER);
+
+        changeListener.getValue().accept(new ChangeNotification(1L, ORGANIZATION, randomUUID(), randomUUID()));
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+        changeListener.getValue().accept(new ChangeNotification(2L, ORGANIZATION, randomUUID(), randomUUID()));
+        principalCache.getAuthServerUser(USERNAME, authServerUserLoader);
+
+        verify(authServerUserLoader, times(1)).get();
+    }
+
+    @Test
+    void getAppPrincipal_WillKeepOtherUsers_WhenUserHasChanged() {
+        var principal = new AppUserDetails(USER);
+        when(appPrincipalLoader.get()).thenReturn(principal);
+
+        principalCache.getAppPrincipal(USERNAME, appPrincipalLoader);
+        principalCache.invalidate(randomUUID());
+
+        assertSame(principal, principalCache.getAppPrincipal(USERNAME, appPrincipalLoader));
+        verify(appPrincipalLoader, times(1)).get();
+    }
+
+    @Test
+    void getAppPrincipal_WillNotCacheLoadedPrincipal_WhenInvalidatedWhileLoading() {
+        when(appPrincipalLoader.get()).thenAnswer(invocation -> {
+            principalCache.invalidate(USER.getId());
+            return new AppUserDetails(USER);
+        }).thenReturn(new AppUserDetails(UPDATED_USER));
+
+        principalCache.getAppPrincipal(USERNAME, appPrincipalLoader);
+
+        assertEquals(UPDATED_USER, principalCache.getAppPrincipal(USERNAME, appPrincipalLoader).getUser());
+    }
+}
@@ -0,0 +1,20 @@
+package engineering.everest.lhotse.users.services;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+@Value
+public class ProfilePhotoStream implements Closeable {
+    UUID profilePhotoFileId;
+    long length;
+    InputStream inputStream;
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -2,18 +2,31 @@ package engineering.everest.lhotse.users.services;
 
 import engineering.everest.lhotse.axon.common.services.ReadService;
 import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface UsersReadService extends ReadService<User> {
 
+    @Override
+    UserPermissionView getPermissionView(UUID id);
+
     List<User> getUsers();
 
+    List<User> getUsers(UUID afterUserId, int pageSize);
+
     List<User> getUsersForOrganization(UUID organizationId);
 
+    List<User> getUsersForOrganization(UUID organizationId, UUID afterUserId, int pageSize);
+
+    void forEachUser(Consumer<User> action);
+
+    void forEachUserInOrganization(UUID organizationId, Consumer<User> action);
+
     boolean exists(UUID userId);
 
     User getUserByUsername(String username);
@@ -22,5 +35,9 @@ public interface UsersReadService extends ReadService<User> {
 
     InputStream getProfilePhotoStream(UUID id) throws IOException;
 
+    UUID getProfilePhotoFileId(UUID userId);
+
+    ProfilePhotoStream openProfilePhoto(UUID profilePhotoFileId) throws IOException;
+
     InputStream getProfilePhotoThumbnailStream(UUID userId, int width, int height) throws IOException;
 }
@@ -1,6 +1,5 @@
 package engineering.everest.lhotse.users.config;
 
-import com.zaxxer.hikari.HikariConfig;
 import liquibase.integration.spring.SpringLiquibase;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -41,13 +40,6 @@ public class UserSessionsJpaConfig {
         return DataSourceBuilder.create().build();
     }
 
-    @Bean
-    @Qualifier(SESSIONS_AUTO_CONFIG_QUALIFIER)
-    @ConfigurationProperties(prefix = SESSIONS_AUTO_CONFIG_QUALIFIER + ".datasource.hikari")
-    public HikariConfig hikariConfig() {
-        return new HikariConfig();
-    }
-
     @Bean
     @Qualifier(SESSIONS_AUTO_CONFIG_QUALIFIER)
     @ConfigurationProperties(prefix = SESSIONS_AUTO_CONFIG_QUALIFIER + ".jpa")
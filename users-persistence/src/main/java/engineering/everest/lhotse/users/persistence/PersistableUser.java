@@ -1,24 +1,24 @@
 package engineering.everest.lhotse.users.persistence;
 
 import engineering.everest.lhotse.axon.common.domain.Role;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import javax.persistence.Column;
-import javax.persistence.ElementCollection;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import java.time.Instant;
 import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
-import static javax.persistence.FetchType.EAGER;
-
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity(name = "users")
 public class PersistableUser {
 
@@ -31,23 +31,51 @@ public class PersistableUser {
     @Column(name = "username", unique = true)
     private String username;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalizedusername", unique = true)
+    private String normalizedUsername;
+
     private String encodedPassword;
     private String displayName;
 
     @Column(name = "email", unique = true)
     private String email;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalizedemail", unique = true)
+    private String normalizedEmail;
+
     private boolean disabled;
-    @ElementCollection(fetch = EAGER)
+    @Convert(converter = RolesConverter.class)
     private Set<Role> roles =  EnumSet.noneOf(Role.class);
     private Instant createdOn;
     private UUID profilePhotoFileId;
+    // Null until first persisted, so Spring Data inserts new rows instead of merging them with a select first
+    @Version
+    private Long version;
+
+    public PersistableUser(UUID id, UUID organizationId, String username, String encodedPassword, String displayName,
+                           String email, boolean disabled, Set<Role> roles, Instant createdOn, UUID profilePhotoFileId) {
+        this.id = id;
+        this.organizationId = organizationId;
+        this.username = username;
+        this.normalizedUsername = normalize(username);
+        this.encodedPassword = encodedPassword;
+        this.displayName = displayName;
+        this.email = email;
+        this.normalizedEmail = normalize(email);
+        this.disabled = disabled;
+        this.roles = roles;
+        this.createdOn = createdOn;
+        this.profilePhotoFileId = profilePhotoFileId;
+    }
 
     public PersistableUser(UUID id, UUID organizationId, String username, String encodedPassword, String displayName,
                            boolean disabled, Set<Role> roles, Instant createdOn) {
         this.id = id;
         this.organizationId = organizationId;
         this.username = username;
+        this.normalizedUsername = normalize(username);
         this.encodedPassword = encodedPassword;
         this.displayName = displayName;
         this.disabled = disabled;
@@ -55,6 +83,7 @@ public class PersistableUser {
         this.createdOn = createdOn;
 
         this.email = this.username;
+        this.normalizedEmail = this.normalizedUsername;
     }
 
     PersistableUser(UUID id, UUID organizationId, String displayName, String email, String encodedPassword, Instant createdOn) {
@@ -66,11 +95,37 @@ public class PersistableUser {
         this(id, organizationId, username, encodedPassword, displayName, disabled, DEFAULT_ROLES, createdOn);
     }
 
+    public static String normalize(String usernameOrEmail) {
+        return usernameOrEmail == null ? null : usernameOrEmail.toLowerCase(Locale.ROOT);
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+        this.normalizedUsername = normalize(username);
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.normalizedEmail = normalize(email);
+    }
+
+    // Roles are replaced rather than changed in place. Hibernate only detects a reassigned converted attribute, and in
+    // place changes would also leak into the shared default roles
     public void addRole(Role role) {
-        roles.add(role);
+        var updatedRoles = copyOfRoles();
+        updatedRoles.add(role);
+        roles = updatedRoles;
     }
 
     public void removeRole(Role role) {
-        roles.remove(role);
+        var updatedRoles = copyOfRoles();
+        updatedRoles.remove(role);
+        roles = updatedRoles;
+    }
+
+    private Set<Role> copyOfRoles() {
+        var copy = EnumSet.noneOf(Role.class);
+        copy.addAll(roles);
+        return copy;
     }
 }
@@ -0,0 +1,37 @@
+package engineering.everest.lhotse.users.persistence;
+
+import engineering.everest.lhotse.axon.common.domain.Role;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Converter
+class RolesConverter implements AttributeConverter<Set<Role>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<Role> roles) {
+        int bitmask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                bitmask |= 1 << role.ordinal();
+            }
+        }
+        return bitmask;
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(Integer bitmask) {
+        var roles = EnumSet.noneOf(Role.class);
+        if (bitmask != null) {
+            // Bits follow declaration order, as the ordinals previously stored in users_roles did
+            for (Role role : Role.values()) {
+                if ((bitmask & 1 << role.ordinal()) != 0) {
+                    roles.add(role);
+                }
+            }
+        }
+        return roles;
+    }
+}
@@ -1,23 +1,75 @@
 package engineering.everest.lhotse.users.persistence;
 
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UsersRepository extends JpaRepository<PersistableUser, UUID> {
 
+    String STREAM_FETCH_SIZE = "500";
+
     default void createUser(UUID id, UUID organizationId, String displayName, String email, String hashedPassword, Instant createdOn) {
         save(new PersistableUser(id, organizationId, displayName, email, hashedPassword, createdOn));
     }
 
+    default List<PersistableUser> findPage(UUID afterUserId, int pageSize) {
+        var pageable = PageRequest.of(0, pageSize);
+        return afterUserId == null
+                ? findByOrderByIdAsc(pageable)
+                : findByIdGreaterThanOrderByIdAsc(afterUserId, pageable);
+    }
+
+    default List<PersistableUser> findPageByOrganizationId(UUID organizationId, UUID afterUserId, int pageSize) {
+        var pageable = PageRequest.of(0, pageSize);
+        return afterUserId == null
+                ? findByOrganizationIdOrderByIdAsc(organizationId, pageable)
+                : findByOrganizationIdAndIdGreaterThanOrderByIdAsc(organizationId, afterUserId, pageable);
+    }
+
     List<PersistableUser> findByOrganizationId(UUID organizationId);
 
-    Optional<PersistableUser> findByUsernameIgnoreCase(String username);
+    List<PersistableUser> findByOrderByIdAsc(Pageable pageable);
+
+    List<PersistableUser> findByIdGreaterThanOrderByIdAsc(UUID afterUserId, Pageable pageable);
+
+    List<PersistableUser> findByOrganizationIdOrderByIdAsc(UUID organizationId, Pageable pageable);
+
+    List<PersistableUser> findByOrganizationIdAndIdGreaterThanOrderByIdAsc(UUID organizationId, UUID afterUserId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<PersistableUser> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<PersistableUser> streamByOrganizationIdOrderByIdAsc(UUID organizationId);
+
+    @Query("select new engineering.everest.lhotse.axon.common.domain.UserPermissionView(u.id, u.organizationId, u.disabled)"
+            + " from users u where u.id = :id")
+    Optional<UserPermissionView> findPermissionViewById(@Param("id") UUID id);
+
+    default Optional<PersistableUser> findByUsernameIgnoreCase(String username) {
+        return findByNormalizedUsername(PersistableUser.normalize(username));
+    }
+
+    default Optional<PersistableUser> findByEmailIgnoreCase(String email) {
+        return findByNormalizedEmail(PersistableUser.normalize(email));
+    }
+
+    Optional<PersistableUser> findByNormalizedUsername(String normalizedUsername);
 
-    Optional<PersistableUser> findByEmailIgnoreCase(String email);
+    Optional<PersistableUser> findByNormalizedEmail(String normalizedEmail);
 }
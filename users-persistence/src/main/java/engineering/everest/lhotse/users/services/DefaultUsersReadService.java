@@ -1,19 +1,27 @@
 package engineering.everest.lhotse.users.services;
 
 import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
 import engineering.everest.lhotse.users.persistence.PersistableUser;
 import engineering.everest.lhotse.users.persistence.UsersRepository;
 import engineering.everest.starterkit.filestorage.FileService;
 import engineering.everest.starterkit.media.thumbnails.ThumbnailService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 
+import static engineering.everest.lhotse.axon.common.PrimaryReads.onPrimary;
+import static engineering.everest.lhotse.axon.common.ProjectionsTransactionManagers.PROJECTIONS_ONLY;
+import static java.util.Objects.requireNonNullElse;
 import static java.util.stream.Collectors.toList;
 
 @Service
@@ -22,19 +30,33 @@ public class DefaultUsersReadService implements UsersReadService {
     private final UsersRepository usersRepository;
     private final FileService fileService;
     private final ThumbnailService thumbnailService;
+    private final UsersCache usersCache;
+    private final EntityManager entityManager;
+    private final ProfilePhotoThumbnailSizes thumbnailSizes;
 
     @Autowired
     public DefaultUsersReadService(UsersRepository usersRepository,
                                    FileService fileService,
-                                   ThumbnailService thumbnailService) {
+                                   ThumbnailService thumbnailService,
+                                   UsersCache usersCache,
+                                   EntityManager entityManager,
+                                   ProfilePhotoThumbnailSizes thumbnailSizes) {
         this.usersRepository = usersRepository;
         this.fileService = fileService;
         this.thumbnailService = thumbnailService;
+        this.usersCache = usersCache;
+        this.entityManager = entityManager;
+        this.thumbnailSizes = thumbnailSizes;
     }
 
     @Override
     public User getById(UUID id) {
-        return convert(usersRepository.findById(id).orElseThrow());
+        return usersCache.getById(id, () -> onPrimary(() -> convert(usersRepository.findById(id).orElseThrow())));
+    }
+
+    @Override
+    public UserPermissionView getPermissionView(UUID id) {
+        return onPrimary(() -> usersRepository.findPermissionViewById(id).orElseThrow());
     }
 
     @Override
@@ -44,6 +66,14 @@ public class DefaultUsersReadService implements UsersReadService {
                 .collect(toList());
     }
 
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public List<User> getUsers(UUID afterUserId, int pageSize) {
+        return usersRepository.findPage(afterUserId, pageSize).stream()
+                .map(this::convert)
+                .collect(toList());
+    }
+
     @Override
     public List<User> getUsersForOrganization(UUID organizationId) {
         return usersRepository.findByOrganizationId(organizationId).stream()
@@ -51,6 +81,30 @@ public class DefaultUsersReadService implements UsersReadService {
                 .collect(toList());
     }
 
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public List<User> getUsersForOrganization(UUID organizationId, UUID afterUserId, int pageSize) {
+        return usersRepository.findPageByOrganizationId(organizationId, afterUserId, pageSize).stream()
+                .map(this::convert)
+                .collect(toList());
+    }
+
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public void forEachUser(Consumer<User> action) {
+        try (var users = usersRepository.streamAllByOrderByIdAsc()) {
+            forEachDetached(users, action);
+        }
+    }
+
+    @Override
+    @Transactional(value = PROJECTIONS_ONLY, readOnly = true)
+    public void forEachUserInOrganization(UUID organizationId, Consumer<User> action) {
+        try (var users = usersRepository.streamByOrganizationIdOrderByIdAsc(organizationId)) {
+            forEachDetached(users, action);
+        }
+    }
+
     @Override
     public boolean exists(UUID userId) {
         return usersRepository.existsById(userId);
@@ -58,7 +112,8 @@ public class DefaultUsersReadService implements UsersReadService {
 
     @Override
     public User getUserByUsername(String username) {
-        return convert(usersRepository.findByEmailIgnoreCase(username).orElseThrow());
+        return usersCache.getByUsername(username,
+                () -> onPrimary(() -> convert(usersRepository.findByEmailIgnoreCase(username).orElseThrow())));
     }
 
     @Override
@@ -68,27 +123,41 @@ public class DefaultUsersReadService implements UsersReadService {
 
     @Override
     public InputStream getProfilePhotoThumbnailStream(UUID userId, int width, int height) throws IOException {
-        PersistableUser persistableUser = usersRepository.findById(userId).orElseThrow();
-        UUID profilePhotoFileId = persistableUser.getProfilePhotoFileId();
-        if (profilePhotoFileId == null) {
-            throw new NoSuchElementException("Profile photo not present");
-        }
-        return thumbnailService.streamThumbnailForOriginalFile(profilePhotoFileId, width, height);
+        var size = thumbnailSizes.snap(width, height);
+        return thumbnailService.streamThumbnailForOriginalFile(getProfilePhotoFileId(userId), size.getWidth(), size.getHeight());
     }
 
     @Override
     public InputStream getProfilePhotoStream(UUID id) throws IOException {
-        PersistableUser persistableUser = usersRepository.findById(id).orElseThrow();
-        UUID profilePhotoFileId = persistableUser.getProfilePhotoFileId();
+        return fileService.stream(getProfilePhotoFileId(id)).getInputStream();
+    }
+
+    @Override
+    public UUID getProfilePhotoFileId(UUID userId) {
+        UUID profilePhotoFileId = usersRepository.findById(userId).orElseThrow().getProfilePhotoFileId();
         if (profilePhotoFileId == null) {
             throw new NoSuchElementException("Profile photo not present");
         }
-        return fileService.stream(profilePhotoFileId).getInputStream();
+        return profilePhotoFileId;
+    }
+
+    @Override
+    public ProfilePhotoStream openProfilePhoto(UUID profilePhotoFileId) throws IOException {
+        var profilePhoto = fileService.stream(profilePhotoFileId);
+        return new ProfilePhotoStream(profilePhotoFileId, profilePhoto.getLength(), profilePhoto.getInputStream());
+    }
+
+    private void forEachDetached(Stream<PersistableUser> users, Consumer<User> action) {
+        users.forEach(persistableUser -> {
+            // Keeps the persistence context from growing with the result set
+            entityManager.detach(persistableUser);
+            action.accept(convert(persistableUser));
+        });
     }
 
     private User convert(PersistableUser persistableUser) {
         return new User(persistableUser.getId(), persistableUser.getOrganizationId(), persistableUser.getUsername(),
                 persistableUser.getDisplayName(), persistableUser.getEmail(),
-                persistableUser.isDisabled(), persistableUser.getRoles());
+                persistableUser.isDisabled(), persistableUser.getRoles(), requireNonNullElse(persistableUser.getVersion(), 0L));
     }
 }
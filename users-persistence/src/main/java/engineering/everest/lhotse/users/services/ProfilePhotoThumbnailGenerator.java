@@ -0,0 +1,87 @@
+package engineering.everest.lhotse.users.services;
+
+import engineering.everest.starterkit.media.thumbnails.ThumbnailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@Component
+@Log4j2
+public class ProfilePhotoThumbnailGenerator {
+
+    private final ThumbnailService thumbnailService;
+    private final ProfilePhotoThumbnailSizes thumbnailSizes;
+    private final ExecutorService executor;
+    private final Timer generationTime;
+    private final Counter rejections;
+
+    @Autowired
+    public ProfilePhotoThumbnailGenerator(ThumbnailService thumbnailService,
+                                          ProfilePhotoThumbnailSizes thumbnailSizes,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${application.users.profile-photo.thumbnail-threads:2}") int threads,
+                                          @Value("${application.users.profile-photo.thumbnail-queue-capacity:100}") int queueCapacity) {
+        this.thumbnailService = thumbnailService;
+        this.thumbnailSizes = thumbnailSizes;
+        var threadCount = new AtomicInteger();
+        var threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60, SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    var thread = new Thread(runnable, "profile-photo-thumbnails-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "profile-photo-thumbnails", emptyList());
+        this.generationTime = Timer.builder("users.profile-photo.thumbnail.generation")
+                .description("Time taken to generate a standard size profile photo thumbnail")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("users.profile-photo.thumbnail.rejections")
+                .description("Thumbnail generations skipped because the generation queue was full")
+                .register(meterRegistry);
+    }
+
+    public void generateStandardSizes(UUID profilePhotoFileId) {
+        for (var size : thumbnailSizes.getSizes()) {
+            try {
+                executor.execute(() -> generate(profilePhotoFileId, size));
+            } catch (RejectedExecutionException e) {
+                // Not fatal, the thumbnail is generated on first request instead
+                rejections.increment();
+                LOGGER.warn("Thumbnail queue full, skipping {}x{} thumbnail of {}", size.getWidth(), size.getHeight(), profilePhotoFileId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(UUID profilePhotoFileId, ProfilePhotoThumbnailSizes.Size size) {
+        generationTime.record(() -> {
+            try (var thumbnail = thumbnailService.streamThumbnailForOriginalFile(
+                    profilePhotoFileId, size.getWidth(), size.getHeight())) {
+                LOGGER.debug("Generated {}x{} thumbnail of {}", size.getWidth(), size.getHeight(), profilePhotoFileId);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Failed to generate {}x{} thumbnail of {}", size.getWidth(), size.getHeight(), profilePhotoFileId, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package engineering.everest.lhotse.users.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+@Component
+public class ProfilePhotoThumbnailSizes {
+
+    private final List<Size> sizes;
+
+    @Autowired
+    public ProfilePhotoThumbnailSizes(
+            @Value("${application.users.profile-photo.thumbnail-sizes:64x64,128x128,256x256}") List<String> sizes) {
+        if (sizes.isEmpty()) {
+            throw new IllegalArgumentException("At least one profile photo thumbnail size must be configured");
+        }
+        this.sizes = sizes.stream()
+                .map(ProfilePhotoThumbnailSizes::parse)
+                .sorted(Comparator.comparingLong(Size::getArea))
+                .collect(toUnmodifiableList());
+    }
+
+    public List<Size> getSizes() {
+        return sizes;
+    }
+
+    public Size snap(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Thumbnail width and height must be positive");
+        }
+        // Scaling down a larger thumbnail on the client looks far better than scaling up a smaller one
+        return sizes.stream()
+                .filter(size -> size.getWidth() >= width && size.getHeight() >= height)
+                .findFirst()
+                .orElse(sizes.get(sizes.size() - 1));
+    }
+
+    private static Size parse(String size) {
+        var dimensions = size.trim().toLowerCase(Locale.ROOT).split("x");
+        if (dimensions.length != 2) {
+            throw new IllegalArgumentException(String.format("Invalid thumbnail size '%s', expected WIDTHxHEIGHT", size));
+        }
+        return new Size(Integer.parseInt(dimensions[0].trim()), Integer.parseInt(dimensions[1].trim()));
+    }
+
+    @lombok.Value
+    public static class Size {
+        int width;
+        int height;
+
+        long getArea() {
+            return (long) width * height;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package engineering.everest.lhotse.users.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@Component
+@Log4j2
+public class UsersCache {
+
+    private static final long NO_SEQUENCE = -1;
+
+    private final ChangeChannel changeChannel;
+    private final Cache<UUID, CachedUser> usersById;
+    private final Cache<String, UUID> userIdsByUsername;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final Timer cachedUserAge;
+    private final Counter invalidations;
+    private long lastSequence = NO_SEQUENCE;
+    private String userChanges;
+
+    @Autowired
+    public UsersCache(ChangeChannel changeChannel,
+                      MeterRegistry meterRegistry,
+                      @Value("${application.users.cache.maximum-size:10000}") long maximumSize,
+                      @Value("${application.users.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.changeChannel = changeChannel;
+        this.usersById = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, SECONDS)
+                .recordStats()
+                .build();
+        this.userIdsByUsername = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        GuavaCacheMetrics.monitor(meterRegistry, userIdsByUsername, "users.by-username");
+        this.cachedUserAge = Timer.builder("users.cache.entry.age")
+                .description("Age of cached users at the time they are served")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("users.cache.invalidations")
+                .description("Users cache invalidations triggered by projection updates")
+                .register(meterRegistry);
+    }
+
+    // Changes made on other nodes only reach this cache through the channel, well before entries would expire
+    @PostConstruct
+    public void subscribeToUserChanges() {
+        userChanges = changeChannel.addListener(this::onChange);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromUserChanges() {
+        changeChannel.removeListener(userChanges);
+    }
+
+    public User getById(UUID userId, Supplier<User> loader) {
+        var cachedUser = usersById.getIfPresent(userId);
+        if (cachedUser != null) {
+            cachedUserAge.record(System.nanoTime() - cachedUser.getCachedAtNanos(), NANOSECONDS);
+            return cachedUser.getUser();
+        }
+        long invalidationCountBeforeLoad = invalidationCount.get();
+        var user = loader.get();
+        putIfNotInvalidatedSince(user, invalidationCountBeforeLoad);
+        return user;
+    }
+
+    public User getByUsername(String username, Supplier<User> loader) {
+        var normalizedUsername = normalize(username);
+        var userId = userIdsByUsername.getIfPresent(normalizedUsername);
+        if (userId != null) {
+            var cachedUser = usersById.getIfPresent(userId);
+            if (cachedUser != null && normalizedUsername.equals(normalize(cachedUser.getUser().getEmail()))) {
+                cachedUserAge.record(System.nanoTime() - cachedUser.getCachedAtNanos(), NANOSECONDS);
+                return cachedUser.getUser();
+            }
+            userIdsByUsername.invalidate(normalizedUsername);
+        }
+        long invalidationCountBeforeLoad = invalidationCount.get();
+        var user = loader.get();
+        putIfNotInvalidatedSince(user, invalidationCountBeforeLoad);
+        return user;
+    }
+
+    public void invalidate(UUID userId) {
+        invalidations.increment();
+        synchronized (this) {
+            // Holds off a put whose load began before this count changed until both entries are gone
+            invalidationCount.incrementAndGet();
+            Optional.ofNullable(usersById.getIfPresent(userId))
+                    .ifPresent(cachedUser -> userIdsByUsername.invalidate(normalize(cachedUser.getUser().getEmail())));
+            // A username can outlive its user entry, and still name this user under an email it no longer has
+            userIdsByUsername.asMap().values().removeIf(userId::equals);
+            usersById.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        LOGGER.info("Invalidating all cached users");
+        synchronized (this) {
+            invalidationCount.incrementAndGet();
+            usersById.invalidateAll();
+            userIdsByUsername.invalidateAll();
+        }
+    }
+
+    private void onChange(ChangeNotification change) {
+        synchronized (this) {
+            if (lastSequence != NO_SEQUENCE && change.getSequence() != lastSequence + 1) {
+                LOGGER.warn("Users cache missed changes {} to {}, dropping all users",
+                        lastSequence + 1, change.getSequence() - 1);
+                invalidateAll();
+            }
+            lastSequence = change.getSequence();
+        }
+        if (change.getEntityType() == USER) {
+            invalidate(change.getEntityId());
+        }
+    }
+
+    private void putIfNotInvalidatedSince(User user, long invalidationCountBeforeLoad) {
+        synchronized (this) {
+            // A projection update committed while loading could otherwise be overwritten by the value we just read
+            if (invalidationCount.get() != invalidationCountBeforeLoad) {
+                return;
+            }
+            usersById.put(user.getId(), new CachedUser(user, System.nanoTime()));
+            if (user.getEmail() != null) {
+                userIdsByUsername.put(normalize(user.getEmail()), user.getId());
+            }
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    @lombok.Value
+    private static class CachedUser {
+        User user;
+        long cachedAtNanos;
+    }
+}
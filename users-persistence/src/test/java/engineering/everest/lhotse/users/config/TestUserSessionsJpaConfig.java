@@ -1,5 +1,7 @@
 package engineering.everest.lhotse.users.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import liquibase.integration.spring.SpringLiquibase;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
@@ -29,6 +31,11 @@ public class TestUserSessionsJpaConfig {
         return DataSourceBuilder.create().build();
     }
 
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
     @Bean
     public SpringLiquibase liquibase(DataSourceProperties dataSourceProperties,
                                      ObjectProvider<DataSource> dataSource,
@@ -0,0 +1,46 @@
+package engineering.everest.lhotse.users.persistence;
+
+import engineering.everest.lhotse.axon.common.domain.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static engineering.everest.lhotse.axon.common.domain.Role.ADMIN;
+import static engineering.everest.lhotse.axon.common.domain.Role.ORG_ADMIN;
+import static engineering.everest.lhotse.axon.common.domain.Role.ORG_USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RolesConverterTest {
+
+    private RolesConverter rolesConverter;
+
+    @BeforeEach
+    void setUp() {
+        rolesConverter = new RolesConverter();
+    }
+
+    @Test
+    void convertToDatabaseColumn_WillSetOneBitPerRoleOrdinal() {
+        assertEquals(0b110, rolesConverter.convertToDatabaseColumn(EnumSet.of(ORG_ADMIN, ORG_USER)));
+        assertEquals(0b001, rolesConverter.convertToDatabaseColumn(EnumSet.of(ADMIN)));
+    }
+
+    @Test
+    void convertToDatabaseColumn_WillBeZero_WhenThereAreNoRoles() {
+        assertEquals(0, rolesConverter.convertToDatabaseColumn(EnumSet.noneOf(Role.class)));
+        assertEquals(0, rolesConverter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void convertToEntityAttribute_WillDecodeEveryRole() {
+        var allRoles = EnumSet.allOf(Role.class);
+
+        assertEquals(allRoles, rolesConverter.convertToEntityAttribute(rolesConverter.convertToDatabaseColumn(allRoles)));
+    }
+
+    @Test
+    void convertToEntityAttribute_WillBeEmpty_WhenColumnIsNull() {
+        assertEquals(EnumSet.noneOf(Role.class), rolesConverter.convertToEntityAttribute(null));
+    }
+}
@@ -1,6 +1,9 @@
 package engineering.everest.lhotse.users.persistence;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.domain.Role;
 import engineering.everest.lhotse.axon.common.domain.User;
+import engineering.everest.lhotse.axon.common.domain.UserPermissionView;
 import engineering.everest.lhotse.users.config.TestUserSessionsJpaConfig;
 import engineering.everest.lhotse.users.config.UserSessionsJpaConfig;
 import engineering.everest.lhotse.users.services.UsersReadService;
@@ -19,11 +22,14 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 import static engineering.everest.lhotse.axon.common.domain.Role.ORG_ADMIN;
@@ -87,10 +93,14 @@ class UsersReadServiceIntegrationTest {
     private UsersRepository usersRepository;
     @Autowired
     private UsersReadService usersReadService;
+    @Autowired
+    private EntityManager entityManager;
     @MockBean
     private FileService fileService;
     @MockBean
     private ThumbnailService thumbnailService;
+    @MockBean
+    private ChangeChannel changeChannel;
 
     @BeforeEach
     void setUp() {
@@ -121,6 +131,89 @@ class UsersReadServiceIntegrationTest {
                 usersReadService.getUsersForOrganization(ORGANIZATION_ID_1));
     }
 
+    @Test
+    void getUsersPage_WillPageThroughAllUsers_WhenFollowingLastIdOfPreviousPage() {
+        var firstPage = usersReadService.getUsers(null, 3);
+        var secondPage = usersReadService.getUsers(firstPage.get(2).getId(), 3);
+
+        assertEquals(3, firstPage.size());
+        assertEquals(1, secondPage.size());
+        var allUsers = new HashSet<>(firstPage);
+        allUsers.addAll(secondPage);
+        assertEquals(Set.of(ORG_1_USER_1, ORG_1_USER_2, ORG_1_USER_3_DISABLED, ORG_2_USER_1), allUsers);
+    }
+
+    @Test
+    void getUsersForOrganizationPage_WillPageThroughOrganizationUsers_WhenFollowingLastIdOfPreviousPage() {
+        var firstPage = usersReadService.getUsersForOrganization(ORGANIZATION_ID_1, null, 2);
+        var secondPage = usersReadService.getUsersForOrganization(ORGANIZATION_ID_1, firstPage.get(1).getId(), 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        var allUsers = new HashSet<>(firstPage);
+        allUsers.addAll(secondPage);
+        assertEquals(Set.of(ORG_1_USER_1, ORG_1_USER_2, ORG_1_USER_3_DISABLED), allUsers);
+    }
+
+    @Test
+    void forEachUser_WillVisitUsersFromAllOrganizations() {
+        var visitedUsers = new HashSet<User>();
+        usersReadService.forEachUser(visitedUsers::add);
+
+        assertEquals(Set.of(ORG_1_USER_1, ORG_1_USER_2, ORG_1_USER_3_DISABLED, ORG_2_USER_1), visitedUsers);
+    }
+
+    @Test
+    void forEachUserInOrganization_WillVisitOnlyOrganizationUsers() {
+        var visitedUsers = new HashSet<User>();
+        usersReadService.forEachUserInOrganization(ORGANIZATION_ID_1, visitedUsers::add);
+
+        assertEquals(Set.of(ORG_1_USER_1, ORG_1_USER_2, ORG_1_USER_3_DISABLED), visitedUsers);
+    }
+
+    @Test
+    void getUsers_WillCarryIncreasedVersion_WhenUserIsUpdated() {
+        var initialVersion = projectedVersion(ORG_1_USER_ID_2);
+        var persistableUser = usersRepository.findById(ORG_1_USER_ID_2).orElseThrow();
+        persistableUser.setDisplayName("updated-display-name");
+        usersRepository.saveAndFlush(persistableUser);
+
+        assertEquals(initialVersion + 1, projectedVersion(ORG_1_USER_ID_2));
+    }
+
+    @Test
+    void addRole_WillBePersisted_WhenUserIsSaved() {
+        var persistableUser = usersRepository.findById(ORG_1_USER_ID_2).orElseThrow();
+        persistableUser.addRole(ORG_ADMIN);
+        usersRepository.saveAndFlush(persistableUser);
+        entityManager.clear();
+
+        assertEquals(EnumSet.of(ORG_USER, ORG_ADMIN), usersRepository.findById(ORG_1_USER_ID_2).orElseThrow().getRoles());
+        assertEquals(EnumSet.of(ORG_USER), new PersistableUser(randomUUID(), ORGANIZATION_ID_2, USER_DISPLAY_NAME_4,
+                "new-user@email.com", USER_ENCODED_PASSWORD_4, CREATED_ON_4).getRoles());
+    }
+
+    @Test
+    void removeRole_WillBePersisted_WhenUserIsSaved() {
+        var persistableUser = usersRepository.findById(ORG_2_USER_ID_1).orElseThrow();
+        persistableUser.removeRole(ORG_USER);
+        usersRepository.saveAndFlush(persistableUser);
+        entityManager.clear();
+
+        assertEquals(EnumSet.noneOf(Role.class), usersRepository.findById(ORG_2_USER_ID_1).orElseThrow().getRoles());
+    }
+
+    @Test
+    void getPermissionView_WillReturnCompactUser() {
+        assertEquals(new UserPermissionView(ORG_1_USER_ID_3, ORGANIZATION_ID_1, true),
+                usersReadService.getPermissionView(ORG_1_USER_ID_3));
+    }
+
+    @Test
+    void getPermissionView_WillFail_WhenUserIsUnknown() {
+        assertThrows(NoSuchElementException.class, () -> usersReadService.getPermissionView(randomUUID()));
+    }
+
     @Test
     void exist_WillReturnTrue_WhenUserExists() {
         assertTrue(usersReadService.exists(ORG_1_USER_ID_2));
@@ -159,16 +252,47 @@ class UsersReadServiceIntegrationTest {
         assertThrows(NoSuchElementException.class, () -> usersReadService.getProfilePhotoStream(ORG_1_USER_ID_3));
     }
 
+    @Test
+    void getProfilePhotoFileId_WillReturnCurrentProfilePhotoFileId() {
+        assertEquals(PROFILE_PHOTO_ID, usersReadService.getProfilePhotoFileId(ORG_1_USER_1.getId()));
+    }
+
+    @Test
+    void openProfilePhoto_WillReturnStreamOfKnownLength() throws IOException {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(PROFILE_PHOTO_FILE_CONTENTS.getBytes());
+        when(fileService.stream(PROFILE_PHOTO_ID)).thenReturn(new InputStreamOfKnownLength(inputStream, PROFILE_PHOTO_FILE_CONTENTS.length()));
+
+        var profilePhoto = usersReadService.openProfilePhoto(PROFILE_PHOTO_ID);
+
+        assertEquals(PROFILE_PHOTO_FILE_CONTENTS.length(), profilePhoto.getLength());
+        assertEquals(inputStream, profilePhoto.getInputStream());
+    }
+
     @Test
     void getProfilePhotoThumbnailStream_WillReturnStreamForProfilePhoto() throws IOException {
         ByteArrayInputStream inputStream = new ByteArrayInputStream("my profile photo thumbnail".getBytes());
-        when(thumbnailService.streamThumbnailForOriginalFile(PROFILE_PHOTO_ID, 100, 100)).thenReturn(inputStream);
+        when(thumbnailService.streamThumbnailForOriginalFile(PROFILE_PHOTO_ID, 128, 128)).thenReturn(inputStream);
 
-        assertEquals(inputStream, usersReadService.getProfilePhotoThumbnailStream(ORG_1_USER_1.getId(), 100, 100));
+        assertEquals(inputStream, usersReadService.getProfilePhotoThumbnailStream(ORG_1_USER_1.getId(), 128, 128));
+    }
+
+    @Test
+    void getProfilePhotoThumbnailStream_WillSnapToStandardSize() throws IOException {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream("my profile photo thumbnail".getBytes());
+        when(thumbnailService.streamThumbnailForOriginalFile(PROFILE_PHOTO_ID, 128, 128)).thenReturn(inputStream);
+
+        assertEquals(inputStream, usersReadService.getProfilePhotoThumbnailStream(ORG_1_USER_1.getId(), 100, 90));
     }
 
     @Test
     void getProfilePhotoThumbnailStream_WillFail_WhenProfilePhotoNotUploaded() {
         assertThrows(NoSuchElementException.class, () -> usersReadService.getProfilePhotoThumbnailStream(ORG_1_USER_ID_3, 100, 100));
     }
+
+    private long projectedVersion(UUID userId) {
+        return usersReadService.getUsers().stream()
+                .filter(user -> userId.equals(user.getId()))
+                .findFirst().orElseThrow()
+                .getVersion();
+    }
 }
@@ -0,0 +1,102 @@
+package engineering.everest.lhotse.users.persistence;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.users.config.TestUserSessionsJpaConfig;
+import engineering.everest.lhotse.users.config.UserSessionsJpaConfig;
+import engineering.everest.starterkit.filestorage.FileService;
+import engineering.everest.starterkit.media.thumbnails.ThumbnailService;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.annotation.FilterType.ASSIGNABLE_TYPE;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=" + UsersRepositoryBatchingIntegrationTest.BATCH_SIZE,
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@EnableAutoConfiguration
+@ComponentScan(basePackages = "engineering.everest.lhotse.users",
+        excludeFilters = @ComponentScan.Filter(type = ASSIGNABLE_TYPE, value = UserSessionsJpaConfig.class))
+@ContextConfiguration(classes = {TestUserSessionsJpaConfig.class})
+class UsersRepositoryBatchingIntegrationTest {
+
+    static final int BATCH_SIZE = 50;
+    private static final int USER_COUNT = 200;
+
+    @Autowired
+    private UsersRepository usersRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private FileService fileService;
+    @MockBean
+    private ThumbnailService thumbnailService;
+    @MockBean
+    private ChangeChannel changeChannel;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createUser_WillBatchInserts_WhenUsersAreCreatedInOneTransaction() {
+        createUsers(USER_COUNT);
+        entityManager.flush();
+
+        assertEquals(USER_COUNT, statistics.getEntityInsertCount());
+        assertEquals(USER_COUNT / BATCH_SIZE, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createUser_WillUseFewerRoundTrips_ThanUnbatchedInserts() {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+        createUsers(USER_COUNT);
+        entityManager.flush();
+        long unbatchedStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(BATCH_SIZE);
+        createUsers(USER_COUNT);
+        entityManager.flush();
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(USER_COUNT, unbatchedStatements);
+        assertTrue(batchedStatements * BATCH_SIZE <= unbatchedStatements,
+                String.format("Expected batching to cut %d statements to at most %d, was %d",
+                        unbatchedStatements, unbatchedStatements / BATCH_SIZE, batchedStatements));
+    }
+
+    private void createUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            var username = randomUUID() + "@example.com";
+            usersRepository.createUser(randomUUID(), randomUUID(), "display-name", username, "encoded-password", Instant.now());
+        }
+    }
+}
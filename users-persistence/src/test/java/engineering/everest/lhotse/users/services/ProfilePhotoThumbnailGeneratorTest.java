@@ -0,0 +1,55 @@
+package engineering.everest.lhotse.users.services;
+
+import engineering.everest.starterkit.media.thumbnails.ThumbnailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfilePhotoThumbnailGeneratorTest {
+
+    private static final UUID PROFILE_PHOTO_FILE_ID = randomUUID();
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    private ProfilePhotoThumbnailGenerator thumbnailGenerator;
+
+    @BeforeEach
+    void setUp() {
+        thumbnailGenerator = new ProfilePhotoThumbnailGenerator(thumbnailService,
+                new ProfilePhotoThumbnailSizes(List.of("64x64", "128x128")), new SimpleMeterRegistry(), 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailGenerator.shutdown();
+    }
+
+    @Test
+    void generateStandardSizes_WillGenerateEachConfiguredSize() throws IOException {
+        when(thumbnailService.streamThumbnailForOriginalFile(eq(PROFILE_PHOTO_FILE_ID), anyInt(), anyInt()))
+                .thenAnswer(invocation -> new ByteArrayInputStream(new byte[0]));
+
+        thumbnailGenerator.generateStandardSizes(PROFILE_PHOTO_FILE_ID);
+
+        verify(thumbnailService, timeout(5000)).streamThumbnailForOriginalFile(PROFILE_PHOTO_FILE_ID, 64, 64);
+        verify(thumbnailService, timeout(5000)).streamThumbnailForOriginalFile(PROFILE_PHOTO_FILE_ID, 128, 128);
+    }
+}
@@ -0,0 +1,41 @@
+package engineering.everest.lhotse.users.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProfilePhotoThumbnailSizesTest {
+
+    private final ProfilePhotoThumbnailSizes thumbnailSizes =
+            new ProfilePhotoThumbnailSizes(List.of("256x256", "64x64", " 128X128 "));
+
+    @Test
+    void getSizes_WillBeOrderedSmallestFirst() {
+        assertEquals(List.of(new ProfilePhotoThumbnailSizes.Size(64, 64), new ProfilePhotoThumbnailSizes.Size(128, 128),
+                new ProfilePhotoThumbnailSizes.Size(256, 256)), thumbnailSizes.getSizes());
+    }
+
+    @Test
+    void snap_WillReturnSmallestSizeCoveringRequest() {
+        assertEquals(new ProfilePhotoThumbnailSizes.Size(128, 128), thumbnailSizes.snap(65, 120));
+        assertEquals(new ProfilePhotoThumbnailSizes.Size(64, 64), thumbnailSizes.snap(64, 64));
+    }
+
+    @Test
+    void snap_WillReturnLargestSize_WhenRequestExceedsAllSizes() {
+        assertEquals(new ProfilePhotoThumbnailSizes.Size(256, 256), thumbnailSizes.snap(4000, 10));
+    }
+
+    @Test
+    void snap_WillFail_WhenDimensionsAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> thumbnailSizes.snap(0, 10));
+    }
+
+    @Test
+    void constructor_WillFail_WhenSizeIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> new ProfilePhotoThumbnailSizes(List.of("128")));
+    }
+}
@@ -0,0 +1,171 @@
+package engineering.everest.lhotse.users.services;
+
+import engineering.everest.lhotse.axon.common.changes.ChangeChannel;
+import engineering.everest.lhotse.axon.common.changes.ChangeNotification;
+import engineering.everest.lhotse.axon.common.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.ORGANIZATION;
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsersCacheTest {
+
+    private static final UUID USER_ID = randomUUID();
+    private static final User USER = new User(USER_ID, randomUUID(), "user@example.com", "display-name");
+    private static final User UPDATED_USER = new User(USER_ID, randomUUID(), "user@example.com", "updated-display-name");
+
+    @Mock
+    private Supplier<User> loader;
+    @Mock
+    private ChangeChannel changeChannel;
+    @Captor
+    private ArgumentCaptor<Consumer<ChangeNotification>> changeListener;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsersCache usersCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usersCache = new UsersCache(changeChannel, meterRegistry, 100, 60);
+        usersCache.subscribeToUserChanges();
+        verify(changeChannel).addListener(changeListener.capture());
+    }
+
+    @Test
+    void getById_WillLoadOnce_WhenUserIsRequestedRepeatedly() {
+        when(loader.get()).thenReturn(USER);
+
+        assertEquals(USER, usersCache.getById(USER_ID, loader));
+        assertEquals(USER, usersCache.getById(USER_ID, loader));
+
+        verify(loader, times(1)).get();
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "users.by-id").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("users.cache.entry.age").timer().count());
+    }
+
+    @Test
+    void getByUsername_WillUseCachedUser_WhenUsernameIsDifferentlyCased() {
+        when(loader.get()).thenReturn(USER);
+
+        usersCache.getByUsername("user@example.com", loader);
+        assertEquals(USER, usersCache.getByUsername("USER@example.com", loader));
+        assertEquals(USER, usersCache.getById(USER_ID, loader));
+
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void getById_WillReload_WhenUserHasBeenInvalidated() {
+        when(loader.get()).thenReturn(USER, UPDATED_USER);
+
+        usersCache.getById(USER_ID, loader);
+        usersCache.invalidate(USER_ID);
+
+        assertEquals(UPDATED_USER, usersCache.getById(USER_ID, loader));
+        assertEquals(UPDATED_USER, usersCache.getByUsername("user@example.com", loader));
+        verify(loader, times(2)).get();
+    }
+
+    @Test
+    void getById_WillReload_WhenAllUsersHaveBeenInvalidated() {
+        when(loader.get()).thenReturn(USER, UPDATED_USER);
+
+        usersCache.getById(USER_ID, loader);
+        usersCache.invalidateAll();
+
+        assertEquals(UPDATED_USER, usersCache.getById(USER_ID, loader));
+    }
+
+    @Test
+    void getById_WillNotCacheLoadedUser_WhenInvalidatedWhileLoading() {
+        when(loader.get()).thenAnswer(invocation -> {
+            usersCache.invalidate(USER_ID);
+            return USER;
+        }).thenReturn(UPDATED_USER);
+
+        assertEquals(USER, usersCache.getById(USER_ID, loader));
+        assertEquals(UPDATED_USER, usersCache.getById(USER_ID, loader));
+    }
+
+    @Test
+    void getByUsername_WillNotCacheLoadedUser_WhenAllUsersInvalidatedWhileLoading() {
+        when(loader.get()).thenAnswer(invocation -> {
+            usersCache.invalidateAll();
+            return USER;
+        }).thenReturn(UPDATED_USER);
+
+        assertEquals(USER, usersCache.getByUsername("user@example.com", loader));
+        assertEquals(UPDATED_USER, usersCache.getByUsername("user@example.com", loader));
+    }
+
+    @Test
+    void getById_WillReload_WhenAnyNodeChangedTheUser() {
+        when(loader.get()).thenReturn(USER, UPDATED_USER);
+
+        usersCache.getById(USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(1, USER, USER_ID, randomUUID()));
+
+        assertEquals(UPDATED_USER, usersCache.getById(USER_ID, loader));
+        verify(loader, times(2)).get();
+    }
+
+    @Test
+    void getByUsername_WillNotServeAnOldUsername_WhenAnyNodeChangedTheUsersEmail() {
+        when(loader.get()).thenReturn(USER).thenThrow(NoSuchElementException.class);
+
+        usersCache.getByUsername("user@example.com", loader);
+        changeListener.getValue().accept(new ChangeNotification(1, USER, USER_ID, randomUUID()));
+
+        assertThrows(NoSuchElementException.class, () -> usersCache.getByUsername("user@example.com", loader));
+    }
+
+    @Test
+    void getById_WillKeepCachedUser_WhenOtherEntitiesChange() {
+        when(loader.get()).thenReturn(USER);
+
+        usersCache.getById(USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(1, ORGANIZATION, randomUUID(), randomUUID()));
+        changeListener.getValue().accept(new ChangeNotification(2, USER, randomUUID(), randomUUID()));
+
+        assertEquals(USER, usersCache.getById(USER_ID, loader));
+        verify(loader, times(1)).get();
+    }
+
+    @Test
+    void getById_WillReload_WhenChangesWereMissed() {
+        when(loader.get()).thenReturn(USER, UPDATED_USER);
+
+        changeListener.getValue().accept(new ChangeNotification(1, ORGANIZATION, randomUUID(), randomUUID()));
+        usersCache.getById(USER_ID, loader);
+        changeListener.getValue().accept(new ChangeNotification(5, ORGANIZATION, randomUUID(), randomUUID()));
+
+        assertEquals(UPDATED_USER, usersCache.getById(USER_ID, loader));
+    }
+
+    @Test
+    void getById_WillPropagateLoaderFailures() {
+        when(loader.get()).thenThrow(NoSuchElementException.class);
+
+        assertThrows(NoSuchElementException.class, () -> usersCache.getById(USER_ID, loader));
+    }
+}
@@ -1,40 +1,61 @@
 package engineering.everest.lhotse.users.eventhandlers;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.axon.replay.ReplayCompletionAware;
 import engineering.everest.lhotse.users.persistence.UsersRepository;
 import engineering.everest.lhotse.users.domain.events.UserCreatedByAdminEvent;
 import engineering.everest.lhotse.users.domain.events.UserProfilePhotoUploadedEvent;
 import engineering.everest.lhotse.users.domain.events.UserDetailsUpdatedByAdminEvent;
+import engineering.everest.lhotse.users.services.ProfilePhotoThumbnailGenerator;
+import engineering.everest.lhotse.users.services.UsersCache;
 import lombok.extern.log4j.Log4j2;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayToken;
 import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
 
 @Service
 @Log4j2
 public class UsersEventHandler implements ReplayCompletionAware {
 
     private final UsersRepository usersRepository;
+    private final UsersCache usersCache;
+    private final ChangeFeed changeFeed;
+    private final ProfilePhotoThumbnailGenerator thumbnailGenerator;
+    private final PermissionViewCache permissionViewCache;
 
     @Autowired
-    public UsersEventHandler(UsersRepository usersRepository) {
+    public UsersEventHandler(UsersRepository usersRepository, UsersCache usersCache, ChangeFeed changeFeed,
+                             ProfilePhotoThumbnailGenerator thumbnailGenerator, PermissionViewCache permissionViewCache) {
         this.usersRepository = usersRepository;
+        this.usersCache = usersCache;
+        this.changeFeed = changeFeed;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.permissionViewCache = permissionViewCache;
     }
 
     @ResetHandler
     public void prepareForReplay() {
         LOGGER.info("{} deleting projections", UsersEventHandler.class.getSimpleName());
-        usersRepository.deleteAll();
+        usersRepository.deleteAllInBatch();
+        usersCache.invalidateAll();
+        permissionViewCache.invalidateAll();
     }
 
     @EventHandler
     void on(UserCreatedByAdminEvent event, @Timestamp Instant creationTime) {
         usersRepository.createUser(event.getUserId(), event.getOrganizationId(), event.getUserDisplayName(),
                 event.getUserEmail(), event.getEncodedPassword(), creationTime);
+        publishChangeAfterCommit(event.getUserId(), event.getOrganizationId());
     }
 
     @EventHandler
@@ -45,6 +66,8 @@ public class UsersEventHandler implements ReplayCompletionAware {
         persistableUser.setEmail(selectDesiredState(event.getEmailChange(), persistableUser.getEmail()));
         persistableUser.setEncodedPassword(selectDesiredState(event.getEncodedPasswordChange(), persistableUser.getEncodedPassword()));
         usersRepository.save(persistableUser);
+        invalidateCachedUserAfterCommit(event.getUserId());
+        publishChangeAfterCommit(event.getUserId(), persistableUser.getOrganizationId());
     }
 
     @EventHandler
@@ -53,6 +76,42 @@ public class UsersEventHandler implements ReplayCompletionAware {
         var persistableUser = usersRepository.findById(event.getUserId()).orElseThrow();
         persistableUser.setProfilePhotoFileId(event.getProfilePhotoFileId());
         usersRepository.save(persistableUser);
+        // The cached user's version feeds the ETags, so it must not outlive the new photo
+        invalidateCachedUserAfterCommit(event.getUserId());
+        publishChangeAfterCommit(event.getUserId(), persistableUser.getOrganizationId());
+        generateThumbnailsAfterCommit(event.getProfilePhotoFileId());
+    }
+
+    private void generateThumbnailsAfterCommit(UUID profilePhotoFileId) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> thumbnailGenerator.generateStandardSizes(profilePhotoFileId));
+        } else {
+            thumbnailGenerator.generateStandardSizes(profilePhotoFileId);
+        }
+    }
+
+    private void invalidateCachedUserAfterCommit(UUID userId) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> invalidateCachedUser(userId));
+        } else {
+            invalidateCachedUser(userId);
+        }
+    }
+
+    private void invalidateCachedUser(UUID userId) {
+        usersCache.invalidate(userId);
+        permissionViewCache.invalidate(userId);
+    }
+
+    private void publishChangeAfterCommit(UUID userId, UUID organizationId) {
+        if (CurrentUnitOfWork.isStarted()) {
+            // Replayed changes were announced when they first happened
+            if (!ReplayToken.isReplay(CurrentUnitOfWork.get().getMessage())) {
+                CurrentUnitOfWork.get().afterCommit(unitOfWork -> changeFeed.publish(USER, userId, organizationId));
+            }
+        } else {
+            changeFeed.publish(USER, userId, organizationId);
+        }
     }
 
     private String selectDesiredState(String desiredState, String currentState) {
@@ -1,10 +1,19 @@
 package engineering.everest.lhotse.users.eventhandlers;
 
+import engineering.everest.lhotse.axon.common.changes.ChangeFeed;
+import engineering.everest.lhotse.axon.common.permissions.PermissionViewCache;
 import engineering.everest.lhotse.users.domain.events.UserCreatedByAdminEvent;
 import engineering.everest.lhotse.users.domain.events.UserDetailsUpdatedByAdminEvent;
 import engineering.everest.lhotse.users.domain.events.UserProfilePhotoUploadedEvent;
 import engineering.everest.lhotse.users.persistence.PersistableUser;
 import engineering.everest.lhotse.users.persistence.UsersRepository;
+import engineering.everest.lhotse.users.services.ProfilePhotoThumbnailGenerator;
+import engineering.everest.lhotse.users.services.UsersCache;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +24,12 @@ import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
+import static engineering.everest.lhotse.axon.common.changes.ChangedEntityType.USER;
 import static java.util.UUID.randomUUID;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,17 +50,34 @@ class UsersEventHandlerTest {
 
     @Mock
     private UsersRepository usersRepository;
+    @Mock
+    private UsersCache usersCache;
+    @Mock
+    private ChangeFeed changeFeed;
+    @Mock
+    private ProfilePhotoThumbnailGenerator thumbnailGenerator;
+    @Mock
+    private PermissionViewCache permissionViewCache;
 
     @BeforeEach
     void setUp() {
-        usersEventHandler = new UsersEventHandler(usersRepository);
+        usersEventHandler = new UsersEventHandler(usersRepository, usersCache, changeFeed, thumbnailGenerator,
+                permissionViewCache);
     }
 
     @Test
     void prepareForReplay_willDeleteAllProjections() {
         usersEventHandler.prepareForReplay();
 
-        verify(usersRepository).deleteAll();
+        verify(usersRepository).deleteAllInBatch();
+    }
+
+    @Test
+    void prepareForReplay_WillInvalidateCachedUsers() {
+        usersEventHandler.prepareForReplay();
+
+        verify(usersCache).invalidateAll();
+        verify(permissionViewCache).invalidateAll();
     }
 
     @Test
@@ -59,6 +88,27 @@ class UsersEventHandlerTest {
         verify(usersRepository).createUser(USER_ID, ORGANIZATION_ID, USER_DISPLAY_NAME, USER_USERNAME, ENCODED_PASSWORD, CREATION_TIME);
     }
 
+    @Test
+    void onUserCreatedByAdminEvent_WillPublishChange() {
+        usersEventHandler.on(new UserCreatedByAdminEvent(USER_ID, ORGANIZATION_ID, ADMIN_ID,
+                USER_DISPLAY_NAME, USER_USERNAME, ENCODED_PASSWORD), CREATION_TIME);
+
+        verify(changeFeed).publish(USER, USER_ID, ORGANIZATION_ID);
+    }
+
+    @Test
+    void onUserCreatedByAdminEvent_WillNotPublishChange_WhenReplaying() {
+        var event = new UserCreatedByAdminEvent(USER_ID, ORGANIZATION_ID, ADMIN_ID,
+                USER_DISPLAY_NAME, USER_USERNAME, ENCODED_PASSWORD);
+        var unitOfWork = DefaultUnitOfWork.startAndGet(replayed(event));
+
+        usersEventHandler.on(event, CREATION_TIME);
+        unitOfWork.commit();
+
+        verify(usersRepository).createUser(USER_ID, ORGANIZATION_ID, USER_DISPLAY_NAME, USER_USERNAME, ENCODED_PASSWORD, CREATION_TIME);
+        verifyNoInteractions(changeFeed);
+    }
+
     @Test
     void onUserUpdatedByAdminEvent_WillPersistChanges_WhenFieldsHaveChanged() {
         PersistableUser persistableUser = createPersistableUser();
@@ -75,6 +125,31 @@ class UsersEventHandlerTest {
         verify(usersRepository).save(persistableUser);
     }
 
+    @Test
+    void onUserDetailsUpdatedByAdminEvent_WillMaintainNormalizedEmail() {
+        PersistableUser persistableUser = createPersistableUser();
+
+        when(usersRepository.findById(USER_ID)).thenReturn(Optional.of(persistableUser));
+
+        usersEventHandler.on(new UserDetailsUpdatedByAdminEvent(USER_ID, ORGANIZATION_ID, NO_CHANGE,
+                "Email-Change@Example.com", NO_CHANGE, ADMIN_ID));
+
+        assertEquals("Email-Change@Example.com", persistableUser.getEmail());
+        assertEquals("email-change@example.com", persistableUser.getNormalizedEmail());
+    }
+
+    @Test
+    void onUserDetailsUpdatedByAdminEvent_WillInvalidateCachedUser() {
+        when(usersRepository.findById(USER_ID)).thenReturn(Optional.of(createPersistableUser()));
+
+        usersEventHandler.on(new UserDetailsUpdatedByAdminEvent(USER_ID, ORGANIZATION_ID, "display-name-change",
+                NO_CHANGE, NO_CHANGE, ADMIN_ID));
+
+        verify(usersCache).invalidate(USER_ID);
+        verify(permissionViewCache).invalidate(USER_ID);
+        verify(changeFeed).publish(USER, USER_ID, ORGANIZATION_ID);
+    }
+
     @Test
     void onUserDetailsUpdatedByAdminEvent_WillIgnoreFieldsThatAreNotBeingChanged() {
         PersistableUser persistableUser = createPersistableUser();
@@ -119,8 +194,33 @@ class UsersEventHandlerTest {
         verify(usersRepository).save(persistableUser);
     }
 
+    @Test
+    void onUserProfilePhotoUploadedEvent_WillInvalidateCachedUser() {
+        when(usersRepository.findById(USER_ID)).thenReturn(Optional.of(createPersistableUser()));
+
+        usersEventHandler.on(new UserProfilePhotoUploadedEvent(USER_ID, PROFILE_PHOTO_FILE_ID));
+
+        verify(usersCache).invalidate(USER_ID);
+        verify(changeFeed).publish(USER, USER_ID, ORGANIZATION_ID);
+    }
+
+    @Test
+    void onUserProfilePhotoUploadedEvent_WillGenerateStandardThumbnails() {
+        when(usersRepository.findById(USER_ID)).thenReturn(Optional.of(createPersistableUser()));
+
+        usersEventHandler.on(new UserProfilePhotoUploadedEvent(USER_ID, PROFILE_PHOTO_FILE_ID));
+
+        verify(thumbnailGenerator).generateStandardSizes(PROFILE_PHOTO_FILE_ID);
+    }
+
+    private static TrackedEventMessage<?> replayed(Object event) {
+        return new GenericTrackedEventMessage<>(ReplayToken.createReplayToken(new GlobalSequenceTrackingToken(1)),
+                asEventMessage(event));
+    }
+
     private static PersistableUser createPersistableUser() {
         PersistableUser persistableUser = new PersistableUser();
+        persistableUser.setOrganizationId(ORGANIZATION_ID);
         persistableUser.setEmail("old-email");
         persistableUser.setDisplayName("old-display-name");
         persistableUser.setEncodedPassword("old-password");